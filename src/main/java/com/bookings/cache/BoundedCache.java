@@ -0,0 +1,145 @@
+package com.bookings.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache holding at most {@code maximumSize} entries, least recently used first out, each for at most
+ * {@code expireAfterWrite} after its load started.
+ * <p>
+ * A missing entry is loaded by the first caller asking for it, outside any lock; callers asking for the same key
+ * meanwhile wait for that load instead of starting their own. Invalidating a key while it loads drops the load: its
+ * callers still get the value, but it is not kept, so a load that raced with a change is never served afterwards.
+ * Loads returning {@code null} or failing are not kept either.
+ */
+public class BoundedCache<K, V> {
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier nanoTime;
+    private final Map<K, Entry<V>> entries;
+
+    public BoundedCache(int maximumSize, Duration expireAfterWrite) {
+        this(maximumSize, expireAfterWrite, System::nanoTime);
+    }
+
+    BoundedCache(int maximumSize, Duration expireAfterWrite, LongSupplier nanoTime) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+            throw new IllegalArgumentException("expireAfterWrite must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * The cached value of {@code key}, loading it with {@code loader} when it is missing or expired.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry;
+        boolean loading = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || isExpired(entry)) {
+                entry = new Entry<>(new CompletableFuture<>(), nanoTime.getAsLong());
+                entries.put(key, entry);
+                loading = true;
+            }
+        }
+        if (loading) {
+            load(key, entry, loader);
+        }
+        try {
+            return entry.value().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The cached value of {@code key}, or {@code null} when it is missing, expired or still loading.
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || isExpired(entry)) {
+                return null;
+            }
+        }
+        CompletableFuture<V> value = entry.value();
+        return value.isDone() && !value.isCompletedExceptionally() ? value.join() : null;
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(CompletableFuture.completedFuture(value), nanoTime.getAsLong());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void load(K key, Entry<V> entry, Function<? super K, ? extends V> loader) {
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            discard(key, entry);
+            entry.value().completeExceptionally(e);
+            return;
+        }
+        if (value == null) {
+            discard(key, entry);
+        }
+        entry.value().complete(value);
+    }
+
+    private void discard(K key, Entry<V> entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return nanoTime.getAsLong() - entry.writtenAt() >= expireAfterWriteNanos;
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long writtenAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookings.calendar;
+
+import java.io.IOException;
+
+/**
+ * Content that is not a readable iCalendar stream.
+ */
+public class ICalendarException extends IOException {
+    public ICalendarException(String message) {
+        super(message);
+    }
+}
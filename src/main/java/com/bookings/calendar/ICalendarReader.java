@@ -0,0 +1,157 @@
+package com.bookings.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the events of an iCalendar (RFC 5545) stream one content line at a time: folded lines are unfolded as they
+ * arrive and every {@code VEVENT} is handed to the handler as soon as it ends, so nothing but the current event is
+ * held. Events are reduced to whole days: a date-time keeps its date, an end is exclusive, and an event without an
+ * end or duration lasts one day. Cancelled events are skipped; recurrence rules are not expanded.
+ */
+public class ICalendarReader {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private ICalendarReader() {
+    }
+
+    public static void read(Reader source, EventHandler handler) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        EventBuilder event = null;
+        // Components nested in an event, such as alarms, whose properties are not the event's.
+        int nested = 0;
+        int lineNumber = 0;
+        StringBuilder line = new StringBuilder();
+        String next = reader.readLine();
+        while (next != null) {
+            lineNumber++;
+            if (next.length() > MAX_LINE_LENGTH) {
+                throw new ICalendarException("Line %d is longer than %d characters".formatted(lineNumber, MAX_LINE_LENGTH));
+            }
+            line.setLength(0);
+            line.append(next);
+            while ((next = reader.readLine()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                if (line.length() + next.length() > MAX_LINE_LENGTH) {
+                    throw new ICalendarException("Line %d is longer than %d characters".formatted(lineNumber, MAX_LINE_LENGTH));
+                }
+                line.append(next, 1, next.length());
+                lineNumber++;
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            int colon = valueStart(line);
+            if (colon < 0) {
+                throw new ICalendarException("Line %d is not a content line".formatted(lineNumber));
+            }
+            int semicolon = line.indexOf(";");
+            String name = line.substring(0, semicolon >= 0 && semicolon < colon ? semicolon : colon).toUpperCase();
+            String value = line.substring(colon + 1);
+            switch (name) {
+                case "BEGIN" -> {
+                    if (event != null) {
+                        nested++;
+                    } else if (value.equalsIgnoreCase("VEVENT")) {
+                        event = new EventBuilder();
+                    }
+                }
+                case "END" -> {
+                    if (nested > 0) {
+                        nested--;
+                    } else if (event != null && value.equalsIgnoreCase("VEVENT")) {
+                        event.emit(handler, lineNumber);
+                        event = null;
+                    }
+                }
+                default -> {
+                    if (event != null && nested == 0) {
+                        event.property(name, value, lineNumber);
+                    }
+                }
+            }
+        }
+        if (event != null) {
+            throw new ICalendarException("Calendar ends inside an event");
+        }
+    }
+
+    /**
+     * Position of the colon ending the name and parameters; parameter values may be quoted and contain colons.
+     */
+    private static int valueStart(CharSequence line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static LocalDate date(String value, int lineNumber) throws ICalendarException {
+        try {
+            return LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, DATE);
+        } catch (DateTimeParseException e) {
+            throw new ICalendarException("Line %d has an invalid date: %s".formatted(lineNumber, value));
+        }
+    }
+
+    private static int days(String duration, int lineNumber) throws ICalendarException {
+        int time = duration.indexOf('T');
+        String datePart = time >= 0 ? duration.substring(0, time) : duration;
+        try {
+            return datePart.equals("P") ? 0 : Period.parse(datePart).getDays();
+        } catch (DateTimeParseException e) {
+            throw new ICalendarException("Line %d has an invalid duration: %s".formatted(lineNumber, duration));
+        }
+    }
+
+    @FunctionalInterface
+    public interface EventHandler {
+        /**
+         * An event covering the days {@code [start, end)}.
+         */
+        void event(String uid, LocalDate start, LocalDate end);
+    }
+
+    private static final class EventBuilder {
+        String uid;
+        LocalDate start;
+        LocalDate end;
+        Integer durationDays;
+        boolean cancelled;
+
+        void property(String name, String value, int lineNumber) throws ICalendarException {
+            switch (name) {
+                case "UID" -> uid = value;
+                case "DTSTART" -> start = date(value, lineNumber);
+                case "DTEND" -> end = date(value, lineNumber);
+                case "DURATION" -> durationDays = days(value, lineNumber);
+                case "STATUS" -> cancelled = value.equalsIgnoreCase("CANCELLED");
+                default -> {
+                }
+            }
+        }
+
+        void emit(EventHandler handler, int lineNumber) throws ICalendarException {
+            if (start == null) {
+                throw new ICalendarException("Event ending on line %d has no start".formatted(lineNumber));
+            }
+            if (cancelled) {
+                return;
+            }
+            LocalDate last = end != null ? end : durationDays != null ? start.plusDays(durationDays) : start;
+            LocalDate exclusiveEnd = last.isAfter(start) ? last : start.plusDays(1);
+            handler.event(uid != null ? uid : start + "/" + exclusiveEnd, start, exclusiveEnd);
+        }
+    }
+}
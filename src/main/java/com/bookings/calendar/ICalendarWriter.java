@@ -0,0 +1,115 @@
+package com.bookings.calendar;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an iCalendar (RFC 5545) stream of all-day events one content line at a time, straight into the underlying
+ * stream: nothing is held but the writer's own buffer. Text values are escaped and lines longer than 75 octets are
+ * folded.
+ */
+public class ICalendarWriter implements Closeable {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final String CRLF = "\r\n";
+
+    private final Writer writer;
+
+    public ICalendarWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void beginCalendar(String productId, String name) throws IOException {
+        line("BEGIN", "VCALENDAR");
+        line("VERSION", "2.0");
+        line("PRODID", productId);
+        line("CALSCALE", "GREGORIAN");
+        line("METHOD", "PUBLISH");
+        if (name != null) {
+            line("X-WR-CALNAME", escape(name));
+        }
+    }
+
+    /**
+     * An all-day event covering {@code [start, end)}, the end being exclusive as in a booking's check-out date.
+     */
+    public void event(String uid, LocalDate stamp, LocalDate start, LocalDate end, String summary) throws IOException {
+        event(uid, stamp, start, end, summary, null);
+    }
+
+    /**
+     * A one-day event on {@code start}, repeated by {@code rule} in RRULE syntax. The start must be the rule's first
+     * occurrence, since readers count it as one whether the rule matches it or not.
+     */
+    public void recurringEvent(String uid, LocalDate stamp, LocalDate start, String summary, String rule) throws IOException {
+        event(uid, stamp, start, start.plusDays(1), summary, rule);
+    }
+
+    private void event(String uid, LocalDate stamp, LocalDate start, LocalDate end, String summary, String rule) throws IOException {
+        line("BEGIN", "VEVENT");
+        line("UID", escape(uid));
+        line("DTSTAMP", DATE.format(stamp) + "T000000Z");
+        line("DTSTART;VALUE=DATE", DATE.format(start));
+        line("DTEND;VALUE=DATE", DATE.format(end));
+        if (rule != null) {
+            line("RRULE", rule);
+        }
+        line("SUMMARY", escape(summary));
+        line("END", "VEVENT");
+    }
+
+    public void endCalendar() throws IOException {
+        line("END", "VCALENDAR");
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void line(String name, String value) throws IOException {
+        writer.write(name);
+        writer.write(':');
+        int octets = name.length() + 1;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write(CRLF);
+                writer.write(' ');
+                octets = 1;
+            }
+            writer.write(value, i, Character.charCount(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write(CRLF);
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case ';' -> "\\;";
+                case ',' -> "\\,";
+                case '\n' -> "\\n";
+                case '\r' -> "";
+                default -> null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (replacement != null) {
+                escaped.append(replacement);
+            } else if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+}
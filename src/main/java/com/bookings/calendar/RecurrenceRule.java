@@ -0,0 +1,265 @@
+package com.bookings.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A recurrence of whole days in the subset of RFC 5545 {@code RRULE} syntax that does not need counting from the
+ * start: {@code FREQ} of {@code DAILY}, {@code WEEKLY}, {@code MONTHLY} or {@code YEARLY}, narrowed by {@code BYDAY}
+ * weekdays, {@code BYMONTHDAY} days and {@code BYMONTH} months, up to an inclusive {@code UNTIL} date. Every
+ * occurrence is one day.
+ * <p>
+ * The rule is compiled to three bitmasks, so whether a date recurs is three bit tests, and the next occurrence is
+ * found by jumping straight to the next matching month, day of month and weekday rather than stepping through days.
+ * {@code INTERVAL} other than 1, {@code COUNT}, ordinal weekdays such as {@code 1MO}, negative month days and the
+ * other rule parts are refused.
+ */
+public final class RecurrenceRule {
+    /**
+     * Far enough ahead for every rule that recurs at all to have occurred: February 29 comes at least every 8 years.
+     */
+    private static final int FIRST_OCCURRENCE_HORIZON_DAYS = 8 * 366;
+    private static final int ALL_WEEKDAYS = (1 << 7) - 1;
+    private static final int ALL_MONTH_DAYS = (1 << 31) - 1;
+    private static final int ALL_MONTHS = (1 << 12) - 1;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Frequency frequency;
+    private final LocalDate start;
+    private final LocalDate until;
+    // Bit d - 1 is ISO weekday d, bit n - 1 day of month n, bit m - 1 month m.
+    private final int weekdays;
+    private final int monthDays;
+    private final int months;
+
+    private RecurrenceRule(Frequency frequency, LocalDate start, LocalDate until, int weekdays, int monthDays, int months) {
+        this.frequency = frequency;
+        this.start = start;
+        this.until = until;
+        this.weekdays = weekdays;
+        this.monthDays = monthDays;
+        this.months = months;
+    }
+
+    /**
+     * Compiles {@code rule}, recurring from {@code start} on. As in RFC 5545, a weekly rule without weekdays recurs on
+     * the start's weekday, and a monthly or yearly rule without weekdays or month days on the start's day of month,
+     * in the start's month for a yearly rule without months.
+     *
+     * @throws IllegalArgumentException when the rule is malformed or uses a part this class does not support
+     */
+    public static RecurrenceRule parse(String rule, LocalDate start) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        Frequency frequency = null;
+        LocalDate until = null;
+        int weekdays = 0;
+        int monthDays = 0;
+        int months = 0;
+        String text = rule.regionMatches(true, 0, "RRULE:", 0, 6) ? rule.substring(6) : rule;
+        for (String part : text.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Rule part %s is not NAME=VALUE".formatted(part));
+            }
+            String value = part.substring(equals + 1).toUpperCase(Locale.ROOT);
+            switch (part.substring(0, equals).toUpperCase(Locale.ROOT)) {
+                case "FREQ" -> frequency = frequency(value);
+                case "UNTIL" -> until = date(value);
+                case "BYDAY" -> weekdays = weekdays(value);
+                case "BYMONTHDAY" -> monthDays = bits(value, 31, "BYMONTHDAY");
+                case "BYMONTH" -> months = bits(value, 12, "BYMONTH");
+                case "INTERVAL" -> {
+                    if (!value.equals("1")) {
+                        throw new IllegalArgumentException("Only INTERVAL=1 is supported");
+                    }
+                }
+                case "WKST" -> weekdays(value);
+                default -> throw new IllegalArgumentException("Rule part %s is not supported".formatted(part));
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ is required");
+        }
+        if (until != null && until.isBefore(start)) {
+            throw new IllegalArgumentException("UNTIL is before the start");
+        }
+        if (frequency == Frequency.WEEKLY && weekdays == 0) {
+            weekdays = bit(start.getDayOfWeek().getValue());
+        }
+        if ((frequency == Frequency.MONTHLY || frequency == Frequency.YEARLY) && weekdays == 0 && monthDays == 0) {
+            monthDays = bit(start.getDayOfMonth());
+            if (frequency == Frequency.YEARLY && months == 0) {
+                months = bit(start.getMonthValue());
+            }
+        }
+        return new RecurrenceRule(frequency, start, until, weekdays == 0 ? ALL_WEEKDAYS : weekdays,
+                monthDays == 0 ? ALL_MONTH_DAYS : monthDays, months == 0 ? ALL_MONTHS : months);
+    }
+
+    public boolean matches(LocalDate date) {
+        return !date.isBefore(start) && (until == null || !date.isAfter(until))
+                && (months & bit(date.getMonthValue())) != 0
+                && (monthDays & bit(date.getDayOfMonth())) != 0
+                && (weekdays & bit(date.getDayOfWeek().getValue())) != 0;
+    }
+
+    /**
+     * The first epoch day in {@code [from, limit)} the rule recurs on, or {@code limit} when there is none.
+     */
+    public int next(int from, int limit) {
+        int day = Math.max(from, (int) start.toEpochDay());
+        int last = until == null ? limit : (int) Math.min(limit, until.toEpochDay() + 1);
+        while (day < last) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int month = date.getMonthValue();
+            int dayOfMonth = date.getDayOfMonth();
+            int weekday = date.getDayOfWeek().getValue();
+            if ((months & bit(month)) == 0) {
+                // Bit 0 of the shifted masks is the following month, day or weekday.
+                int later = months >>> month;
+                int ahead = later != 0 ? Integer.numberOfTrailingZeros(later) + 1
+                        : 12 - month + Integer.numberOfTrailingZeros(months) + 1;
+                day = (int) date.withDayOfMonth(1).plusMonths(ahead).toEpochDay();
+            } else if ((monthDays & bit(dayOfMonth)) == 0) {
+                int later = monthDays >>> dayOfMonth;
+                int ahead = later != 0 ? Integer.numberOfTrailingZeros(later) + 1 : Integer.MAX_VALUE;
+                day += Math.min(ahead, date.lengthOfMonth() - dayOfMonth + 1);
+            } else if ((weekdays & bit(weekday)) == 0) {
+                int rotated = (weekdays >>> weekday | weekdays << (7 - weekday)) & ALL_WEEKDAYS;
+                day += Integer.numberOfTrailingZeros(rotated) + 1;
+            } else {
+                return day;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * The first day the rule recurs on; empty when it never does, such as on February 30 or after its end.
+     */
+    public Optional<LocalDate> first() {
+        int from = (int) start.toEpochDay();
+        int limit = from + FIRST_OCCURRENCE_HORIZON_DAYS;
+        int first = next(from, limit);
+        return first == limit ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(first));
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Last day the rule may recur on; null when it recurs forever.
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * The rule in RRULE syntax with every default spelled out, so it reads the same from any start date. A rule whose
+     * frequency would imply a default it no longer has is written as the equivalent daily rule.
+     */
+    @Override
+    public String toString() {
+        boolean allWeekdays = weekdays == ALL_WEEKDAYS;
+        boolean allMonthDays = monthDays == ALL_MONTH_DAYS;
+        Frequency written = frequency == Frequency.WEEKLY && allWeekdays
+                || (frequency == Frequency.MONTHLY || frequency == Frequency.YEARLY) && allWeekdays && allMonthDays
+                ? Frequency.DAILY : frequency;
+        StringBuilder rule = new StringBuilder("FREQ=").append(written);
+        if (months != ALL_MONTHS) {
+            rule.append(";BYMONTH=").append(numbers(months, 12));
+        }
+        if (!allMonthDays) {
+            rule.append(";BYMONTHDAY=").append(numbers(monthDays, 31));
+        }
+        if (!allWeekdays) {
+            rule.append(";BYDAY=");
+            for (DayOfWeek weekday : DayOfWeek.values()) {
+                if ((weekdays & bit(weekday.getValue())) != 0) {
+                    rule.append(weekday.name(), 0, 2).append(',');
+                }
+            }
+            rule.setLength(rule.length() - 1);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(DATE.format(until));
+        }
+        return rule.toString();
+    }
+
+    private static int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    private static Frequency frequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("FREQ must be DAILY, WEEKLY, MONTHLY or YEARLY");
+        }
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            return LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("UNTIL %s is not a date".formatted(value));
+        }
+    }
+
+    private static int weekdays(String value) {
+        int mask = 0;
+        for (String weekday : value.split(",")) {
+            int day = switch (weekday) {
+                case "MO" -> 1;
+                case "TU" -> 2;
+                case "WE" -> 3;
+                case "TH" -> 4;
+                case "FR" -> 5;
+                case "SA" -> 6;
+                case "SU" -> 7;
+                default -> throw new IllegalArgumentException("BYDAY %s is not a weekday".formatted(weekday));
+            };
+            mask |= bit(day);
+        }
+        return mask;
+    }
+
+    private static int bits(String value, int max, String name) {
+        int mask = 0;
+        for (String number : value.split(",")) {
+            int n;
+            try {
+                n = Integer.parseInt(number);
+            } catch (NumberFormatException e) {
+                n = 0;
+            }
+            if (n < 1 || n > max) {
+                throw new IllegalArgumentException("%s must be between 1 and %d, not %s".formatted(name, max, number));
+            }
+            mask |= bit(n);
+        }
+        return mask;
+    }
+
+    private static String numbers(int mask, int max) {
+        StringBuilder numbers = new StringBuilder();
+        for (int n = 1; n <= max; n++) {
+            if ((mask & bit(n)) != 0) {
+                numbers.append(numbers.isEmpty() ? "" : ",").append(n);
+            }
+        }
+        return numbers.toString();
+    }
+
+    private enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookings.concurrency;
+
+/**
+ * Read and write limiters guarding the booking and block endpoints. Reads and writes are limited separately so a
+ * burst of writes waiting on database locks cannot use up the capacity reserved for lookups.
+ */
+public class AdmissionControl {
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+
+    public AdmissionControl(ConcurrencyLimiter readLimiter, ConcurrencyLimiter writeLimiter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    public ConcurrencyLimiter limiterFor(String httpMethod) {
+        return switch (httpMethod) {
+            case "GET", "HEAD", "OPTIONS" -> readLimiter;
+            default -> writeLimiter;
+        };
+    }
+
+    public ConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public ConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    /**
+     * Fraction of the current limits in use across both limiters; background work uses it to back off.
+     */
+    public double utilization() {
+        double read = (double) readLimiter.getInflight() / Math.max(1, readLimiter.getLimit());
+        double write = (double) writeLimiter.getInflight() / Math.max(1, writeLimiter.getLimit());
+        return Math.max(read, write);
+    }
+}
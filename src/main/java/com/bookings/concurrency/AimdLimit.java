@@ -0,0 +1,42 @@
+package com.bookings.concurrency;
+
+import java.time.Duration;
+
+/**
+ * Additive-increase / multiplicative-decrease limit. The limit grows by one while requests complete within
+ * {@code timeout} and the limiter is actually being used, and is cut by {@code backoffRatio} on a slow or
+ * dropped request.
+ */
+public class AimdLimit implements Limit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long timeoutNanos;
+    private final double backoffRatio;
+    private volatile int limit;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, Duration timeout, double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.timeoutNanos = timeout.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inflight * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bookings.concurrency;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking limiter: a permit is either granted immediately or refused, never queued.
+ */
+public class ConcurrencyLimiter {
+    private final String name;
+    private final Limit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimiter(String name, Limit limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                rejected.incrementAndGet();
+                return Optional.empty();
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inflightAtStart;
+        private boolean released;
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        public void onSuccess() {
+            release(false);
+        }
+
+        public void onDropped() {
+            release(true);
+        }
+
+        private synchronized void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inflight.decrementAndGet();
+            limit.onSample(System.nanoTime() - startNanos, inflightAtStart, dropped);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookings.concurrency;
+
+/**
+ * Latency-gradient limit. A fast-moving average of the request latency is compared with a slow-moving baseline;
+ * when the short-term latency rises above the baseline the limit shrinks proportionally, and while latency holds
+ * steady the limit is allowed to grow by a small queue allowance of {@code sqrt(limit)}.
+ */
+public class GradientLimit implements Limit {
+    private static final double SHORT_WINDOW_WEIGHT = 0.5;
+    private static final double LONG_WINDOW_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("tolerance must be >= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        }
+        shortRtt = shortRtt + SHORT_WINDOW_WEIGHT * (rttNanos - shortRtt);
+        longRtt = longRtt + LONG_WINDOW_WEIGHT * (rttNanos - longRtt);
+
+        // Let the baseline recover quickly after a sustained latency spike has passed.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        // Under-utilised limiters tell nothing about capacity, so only shrink them.
+        if (inflight < estimatedLimit / 2) {
+            newLimit = Math.min(newLimit, estimatedLimit);
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookings.concurrency;
+
+/**
+ * Isolated execution lanes. Interactive work serves a guest waiting on a response; bulk work (imports, exports,
+ * mass updates, maintenance jobs) must never compete with it for threads or database connections.
+ */
+public enum Lane {
+    INTERACTIVE, BULK
+}
@@ -0,0 +1,130 @@
+package com.bookings.concurrency;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size executor backed by a bounded priority queue. Tasks run in {@link TaskPriority} order and FIFO within
+ * a priority; once {@code queueCapacity} tasks are waiting further submissions are rejected instead of queued.
+ */
+public class LaneExecutor {
+    private final Lane lane;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    public LaneExecutor(Lane lane, int threads, int queueCapacity) {
+        this.lane = lane;
+        String threadPrefix = "lane-" + lane.name().toLowerCase() + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new BoundedPriorityQueue(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("Lane " + lane + " is saturated");
+                });
+    }
+
+    public <T> CompletableFuture<T> submit(TaskPriority priority, Callable<T> task) {
+        LaneTask<T> laneTask = new LaneTask<>(priority, sequence.getAndIncrement(), task);
+        executor.execute(laneTask);
+        return laneTask.result;
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompleted() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.get();
+    }
+
+    /**
+     * Interrupts the running tasks and fails the queued ones with a {@link RejectedExecutionException}, so nothing
+     * waiting on their futures is left hanging.
+     */
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((LaneTask<?>) queued).result.completeExceptionally(
+                    new RejectedExecutionException("Lane " + lane + " shut down"));
+        }
+    }
+
+    private final class LaneTask<T> implements Runnable, Comparable<LaneTask<?>> {
+        private final TaskPriority priority;
+        private final long sequence;
+        private final Callable<T> task;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private LaneTask(TaskPriority priority, long sequence, Callable<T> task) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            queueWaitNanos.addAndGet(System.nanoTime() - enqueuedNanos);
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(LaneTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private final int capacity;
+
+        private BoundedPriorityQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable runnable) {
+            return size() < capacity && super.offer(runnable);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+}
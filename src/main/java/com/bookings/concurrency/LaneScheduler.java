@@ -0,0 +1,42 @@
+package com.bookings.concurrency;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point for work that should not run on the calling thread. Each {@link Lane} has its own threads and
+ * therefore its own share of the connection pool: a lane can hold at most as many connections as it has threads.
+ */
+public class LaneScheduler {
+    private final Map<Lane, LaneExecutor> executors = new EnumMap<>(Lane.class);
+
+    public LaneScheduler(Iterable<LaneExecutor> executors) {
+        executors.forEach(executor -> this.executors.put(executor.getLane(), executor));
+        for (Lane lane : Lane.values()) {
+            if (!this.executors.containsKey(lane)) {
+                throw new IllegalArgumentException("No executor configured for lane " + lane);
+            }
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Lane lane, TaskPriority priority, Callable<T> task) {
+        return executors.get(lane).submit(priority, task);
+    }
+
+    public CompletableFuture<Void> run(Lane lane, TaskPriority priority, Runnable task) {
+        return submit(lane, priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public LaneExecutor executor(Lane lane) {
+        return executors.get(lane);
+    }
+
+    public void shutdown() {
+        executors.values().forEach(LaneExecutor::shutdown);
+    }
+}
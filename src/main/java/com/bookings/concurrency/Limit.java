@@ -0,0 +1,16 @@
+package com.bookings.concurrency;
+
+/**
+ * Concurrency limit that adapts to the latency observed for completed requests.
+ */
+public interface Limit {
+
+    int getLimit();
+
+    /**
+     * @param rttNanos time the request held its permit
+     * @param inflight requests in flight when the permit was taken, including this one
+     * @param dropped  whether the request failed in a way that signals overload
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
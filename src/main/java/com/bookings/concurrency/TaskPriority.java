@@ -0,0 +1,5 @@
+package com.bookings.concurrency;
+
+public enum TaskPriority {
+    HIGH, NORMAL, LOW
+}
@@ -0,0 +1,143 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.admission")
+public class AdmissionControlProperties {
+
+    public enum Algorithm {AIMD, GRADIENT}
+
+    private boolean enabled = true;
+    private Algorithm algorithm = Algorithm.GRADIENT;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private LimitProperties read = new LimitProperties(40, 200);
+    private LimitProperties write = new LimitProperties(20, 100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public LimitProperties getRead() {
+        return read;
+    }
+
+    public void setRead(LimitProperties read) {
+        this.read = read;
+    }
+
+    public LimitProperties getWrite() {
+        return write;
+    }
+
+    public void setWrite(LimitProperties write) {
+        this.write = write;
+    }
+
+    public static class LimitProperties {
+        private int initialLimit;
+        private int minLimit = 1;
+        private int maxLimit;
+        /**
+         * AIMD: latency above which a request counts as a congestion signal.
+         */
+        private Duration timeout = Duration.ofMillis(500);
+        /**
+         * AIMD: factor applied to the limit on congestion.
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * Gradient: how far short-term latency may exceed the baseline before the limit shrinks.
+         */
+        private double tolerance = 1.5;
+        /**
+         * Gradient: weight of each new estimate when smoothing the limit.
+         */
+        private double smoothing = 0.2;
+
+        public LimitProperties() {
+        }
+
+        LimitProperties(int initialLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.maxLimit = maxLimit;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.service.OccupancyRollups;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig implements SchedulingConfigurer {
+    private final ObjectProvider<OccupancyRollups> rollups;
+    private final LaneScheduler laneScheduler;
+    private final AnalyticsProperties properties;
+
+    public AnalyticsConfig(ObjectProvider<OccupancyRollups> rollups, LaneScheduler laneScheduler, AnalyticsProperties properties) {
+        this.rollups = rollups;
+        this.laneScheduler = laneScheduler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isRollupEnabled()) {
+            rollups.ifAvailable(service -> registrar.addFixedDelayTask(new FixedDelayTask(
+                    () -> laneScheduler.run(Lane.BULK, TaskPriority.LOW, service::rollUp),
+                    properties.getRollupInterval(), properties.getRollupInterval())));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.analytics")
+public class AnalyticsProperties {
+
+    private boolean rollupEnabled = true;
+    /**
+     * Delay between the end of one rollup run and the start of the next. Days are rolled up once they are over, so
+     * reports read raw rows for at most this long past midnight.
+     */
+    private Duration rollupInterval = Duration.ofHours(1);
+    /**
+     * Longest period a single report may cover.
+     */
+    private Duration maxPeriod = Duration.ofDays(3660);
+    /**
+     * Properties each hot-properties sketch keeps counters for, which bounds its memory.
+     */
+    private int hotPropertiesCapacity = 256;
+    /**
+     * Every window, the hot-properties counts are multiplied by {@code hotPropertiesDecay}, so a property that stops
+     * being requested drops out within a few windows.
+     */
+    private Duration hotPropertiesWindow = Duration.ofMinutes(1);
+    private double hotPropertiesDecay = 0.5;
+
+    public boolean isRollupEnabled() {
+        return rollupEnabled;
+    }
+
+    public void setRollupEnabled(boolean rollupEnabled) {
+        this.rollupEnabled = rollupEnabled;
+    }
+
+    public Duration getRollupInterval() {
+        return rollupInterval;
+    }
+
+    public void setRollupInterval(Duration rollupInterval) {
+        this.rollupInterval = rollupInterval;
+    }
+
+    public Duration getMaxPeriod() {
+        return maxPeriod;
+    }
+
+    public void setMaxPeriod(Duration maxPeriod) {
+        this.maxPeriod = maxPeriod;
+    }
+
+    public int getHotPropertiesCapacity() {
+        return hotPropertiesCapacity;
+    }
+
+    public void setHotPropertiesCapacity(int hotPropertiesCapacity) {
+        this.hotPropertiesCapacity = hotPropertiesCapacity;
+    }
+
+    public Duration getHotPropertiesWindow() {
+        return hotPropertiesWindow;
+    }
+
+    public void setHotPropertiesWindow(Duration hotPropertiesWindow) {
+        this.hotPropertiesWindow = hotPropertiesWindow;
+    }
+
+    public double getHotPropertiesDecay() {
+        return hotPropertiesDecay;
+    }
+
+    public void setHotPropertiesDecay(double hotPropertiesDecay) {
+        this.hotPropertiesDecay = hotPropertiesDecay;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.service.BookingArchiver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig implements SchedulingConfigurer {
+    private final ObjectProvider<BookingArchiver> archiver;
+    private final LaneScheduler laneScheduler;
+    private final ArchiveProperties properties;
+
+    public ArchiveConfig(ObjectProvider<BookingArchiver> archiver, LaneScheduler laneScheduler, ArchiveProperties properties) {
+        this.archiver = archiver;
+        this.laneScheduler = laneScheduler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isEnabled()) {
+            archiver.ifAvailable(service -> registrar.addFixedDelayTask(new FixedDelayTask(
+                    () -> laneScheduler.run(Lane.BULK, TaskPriority.LOW, service::archive),
+                    properties.getInterval(), properties.getInterval())));
+        }
+    }
+}
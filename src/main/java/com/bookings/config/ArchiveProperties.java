@@ -0,0 +1,77 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+    /**
+     * Delay between the end of one archival run and the start of the next.
+     */
+    private Duration interval = Duration.ofMinutes(10);
+    private int batchSize = 500;
+    /**
+     * Pause after every batch, which bounds the rate at which archival takes row locks and I/O from requests.
+     */
+    private Duration pause = Duration.ofMillis(200);
+    /**
+     * Stays are archived once they checked out this long ago. Canceled bookings are archived once their check-in
+     * date has passed.
+     */
+    private Duration stayRetention = Duration.ofDays(30);
+    /**
+     * Admission control utilization above which archival waits for foreground traffic to calm down.
+     */
+    private double maxUtilization = 0.5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+
+    public Duration getStayRetention() {
+        return stayRetention;
+    }
+
+    public void setStayRetention(Duration stayRetention) {
+        this.stayRetention = stayRetention;
+    }
+
+    public double getMaxUtilization() {
+        return maxUtilization;
+    }
+
+    public void setMaxUtilization(double maxUtilization) {
+        this.maxUtilization = maxUtilization;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.HashedTimingWheel;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(AsyncBookingProperties.class)
+public class AsyncBookingConfig {
+
+    @Bean(destroyMethod = "stop")
+    public HashedTimingWheel ticketExpiryWheel() {
+        // Evicting a ticket is a map removal, cheap enough to run on the wheel thread.
+        return new HashedTimingWheel("ticket-expiry", Duration.ofSeconds(1), 1024, Runnable::run);
+    }
+}
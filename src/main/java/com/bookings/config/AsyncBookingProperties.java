@@ -0,0 +1,70 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "bookings.async")
+public class AsyncBookingProperties {
+
+    /**
+     * Most bookings validated and committed in one transaction.
+     */
+    private int maxBatchSize = 100;
+    /**
+     * How long the first booking of a batch waits for others to join it.
+     */
+    private Duration linger = Duration.ofMillis(5);
+    private int queueCapacity = 10_000;
+    /**
+     * How long a completed ticket can still be polled.
+     */
+    private Duration ticketRetention = Duration.ofMinutes(10);
+    /**
+     * Hosts callbacks may be sent to. When empty, any host is accepted whose addresses are all public: loopback,
+     * link-local, private and unspecified addresses are refused.
+     */
+    private List<String> callbackHosts = new ArrayList<>();
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getLinger() {
+        return linger;
+    }
+
+    public void setLinger(Duration linger) {
+        this.linger = linger;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getTicketRetention() {
+        return ticketRetention;
+    }
+
+    public void setTicketRetention(Duration ticketRetention) {
+        this.ticketRetention = ticketRetention;
+    }
+
+    public List<String> getCallbackHosts() {
+        return callbackHosts;
+    }
+
+    public void setCallbackHosts(List<String> callbackHosts) {
+        this.callbackHosts = callbackHosts;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.availability")
+public class AvailabilityProperties {
+
+    /**
+     * Maximum number of property timelines kept in memory per instance; the least recently searched go first.
+     */
+    private int maximumTimelines = 10_000;
+    /**
+     * How long a timeline is kept after it was loaded, even if none of the property's dates change.
+     */
+    private Duration expireAfterWrite = Duration.ofHours(1);
+
+    public int getMaximumTimelines() {
+        return maximumTimelines;
+    }
+
+    public void setMaximumTimelines(int maximumTimelines) {
+        this.maximumTimelines = maximumTimelines;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
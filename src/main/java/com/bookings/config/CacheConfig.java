@@ -0,0 +1,27 @@
+package com.bookings.config;
+
+import com.bookings.cache.BoundedCache;
+import com.bookings.cache.BoundedSpringCache;
+import com.bookings.service.BookingService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new BoundedSpringCache(BookingService.BOOKINGS_CACHE,
+                new BoundedCache<>(properties.getMaximumSize(), properties.getExpireAfterWrite()))));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.cache")
+public class CacheProperties {
+
+    /**
+     * Maximum number of bookings cached per instance; the least recently read go first.
+     */
+    private int maximumSize = 10_000;
+    /**
+     * How long a cached booking is served after it was read. Bounds staleness should a change log eviction be missed.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
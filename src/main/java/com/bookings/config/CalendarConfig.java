@@ -0,0 +1,9 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CalendarProperties.class)
+public class CalendarConfig {
+}
@@ -0,0 +1,46 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.calendar")
+public class CalendarProperties {
+
+    /**
+     * How long past stays and blocks stay in a property's feed after they end.
+     */
+    private Duration history = Duration.ofDays(30);
+    /**
+     * Maximum number of rendered feeds kept in memory per instance; the least recently requested go first.
+     */
+    private int maximumFeeds = 1_000;
+    /**
+     * How long a rendered feed is served, even if none of the property's dates change.
+     */
+    private Duration expireAfterWrite = Duration.ofHours(1);
+
+    public Duration getHistory() {
+        return history;
+    }
+
+    public void setHistory(Duration history) {
+        this.history = history;
+    }
+
+    public int getMaximumFeeds() {
+        return maximumFeeds;
+    }
+
+    public void setMaximumFeeds(int maximumFeeds) {
+        this.maximumFeeds = maximumFeeds;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookings.config;
+
+import com.bookings.service.ChangeLogService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ChangeLogProperties.class)
+public class ChangeLogConfig implements SchedulingConfigurer {
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private final ObjectProvider<ChangeLogService> changeLogService;
+    private final ChangeLogProperties properties;
+
+    public ChangeLogConfig(ObjectProvider<ChangeLogService> changeLogService, ChangeLogProperties properties) {
+        this.changeLogService = changeLogService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        changeLogService.ifAvailable(service -> {
+            registrar.addFixedDelayTask(service::poll, properties.getPollInterval());
+            registrar.addFixedDelayTask(service::prune, PRUNE_INTERVAL);
+        });
+    }
+}
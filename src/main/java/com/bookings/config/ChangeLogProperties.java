@@ -0,0 +1,59 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.change-log")
+public class ChangeLogProperties {
+
+    /**
+     * Delay between two polls of the change log.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /**
+     * Maximum number of entries applied per poll.
+     */
+    private int batchSize = 500;
+    /**
+     * How long a hole in the id sequence may stay open before it is treated as a rolled back write. Until then the
+     * cursor stops at the hole, because the missing entry may belong to a transaction that has not committed yet.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(5);
+    /**
+     * Age after which entries are removed from the log.
+     */
+    private Duration retention = Duration.ofDays(1);
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getGapTimeout() {
+        return gapTimeout;
+    }
+
+    public void setGapTimeout(Duration gapTimeout) {
+        this.gapTimeout = gapTimeout;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.service.BlockCompactor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(CompactionProperties.class)
+public class CompactionConfig implements SchedulingConfigurer {
+    private final ObjectProvider<BlockCompactor> compactor;
+    private final LaneScheduler laneScheduler;
+    private final CompactionProperties properties;
+
+    public CompactionConfig(ObjectProvider<BlockCompactor> compactor, LaneScheduler laneScheduler, CompactionProperties properties) {
+        this.compactor = compactor;
+        this.laneScheduler = laneScheduler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isEnabled()) {
+            compactor.ifAvailable(service -> registrar.addFixedDelayTask(new FixedDelayTask(
+                    () -> laneScheduler.run(Lane.BULK, TaskPriority.LOW, service::compact),
+                    properties.getInterval(), properties.getInterval())));
+        }
+    }
+}
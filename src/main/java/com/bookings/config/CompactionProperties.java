@@ -0,0 +1,67 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.compaction")
+public class CompactionProperties {
+
+    private boolean enabled = true;
+    /**
+     * Delay between the end of one compaction run and the start of the next.
+     */
+    private Duration interval = Duration.ofHours(1);
+    /**
+     * Properties compacted per batch, each in its own short transaction.
+     */
+    private int batchSize = 100;
+    /**
+     * Pause after every batch, which bounds the rate at which compaction takes leases and row locks from requests.
+     */
+    private Duration pause = Duration.ofMillis(200);
+    /**
+     * Admission control utilization above which compaction waits for foreground traffic to calm down.
+     */
+    private double maxUtilization = 0.5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+
+    public double getMaxUtilization() {
+        return maxUtilization;
+    }
+
+    public void setMaxUtilization(double maxUtilization) {
+        this.maxUtilization = maxUtilization;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookings.config;
+
+import com.bookings.datasource.ReadWriteDataSource;
+import com.bookings.datasource.ReplicaSet;
+import com.bookings.datasource.SchemaMigrations;
+import com.bookings.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties({ReplicaProperties.class, ShardingProperties.class})
+public class DataSourceConfig {
+
+    /**
+     * The pool Spring Boot would build from {@code spring.datasource}, wrapped for read/write routing when replicas
+     * are configured, and behind a shard router when extra shards are.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                 ShardingProperties shardingProperties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        DataSource defaultShard = replicaProperties.getReplicas().isEmpty()
+                ? primary : withReplicas(primary, replicaProperties, meterRegistry);
+        if (shardingProperties.getShards().isEmpty()) {
+            return defaultShard;
+        }
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(defaultShard);
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(shard.getUrl()).username(shard.getUsername()).password(shard.getPassword()).build();
+            pool.setPoolName("shard-" + shards.size());
+            pool.setMaximumPoolSize(primary.getMaximumPoolSize());
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public SchemaMigrations schemaMigrations(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new SchemaMigrations(jdbcTemplate, transactionManager);
+    }
+
+    private static DataSource withReplicas(HikariDataSource primary, ReplicaProperties replicaProperties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(replica.getUrl()).username(replica.getUsername()).password(replica.getPassword()).build();
+            pool.setPoolName("replica-" + i);
+            pool.setMaximumPoolSize(primary.getMaximumPoolSize());
+            replicas.add(new ReplicaSet.Replica(pool.getPoolName(), pool));
+        }
+        ReplicaSet replicaSet = new ReplicaSet(primary, replicas, replicaProperties.getMaxLag(), replicaProperties.getHealthCheckInterval());
+        meterRegistry.ifAvailable(registry -> replicaSet.getReplicas().forEach(replica ->
+                Gauge.builder("bookings.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .tag("replica", replica.getName()).register(registry)));
+        return new ReadWriteDataSource(primary, replicaSet);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.HashedTimingWheel;
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HoldProperties.class)
+public class HoldConfig {
+
+    @Bean(destroyMethod = "stop")
+    public HashedTimingWheel holdExpiryWheel(HoldProperties properties, LaneScheduler laneScheduler) {
+        return new HashedTimingWheel("hold-expiry", properties.getTick(), properties.getWheelSize(),
+                task -> laneScheduler.run(Lane.BULK, TaskPriority.HIGH, task));
+    }
+}
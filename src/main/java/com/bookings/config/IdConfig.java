@@ -0,0 +1,22 @@
+package com.bookings.config;
+
+import com.bookings.models.PooledSequenceGenerator;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationCustomizer(IdProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, properties.getAllocationSize());
+            hibernateProperties.putIfAbsent(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX);
+        };
+    }
+}
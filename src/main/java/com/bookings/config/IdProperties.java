@@ -0,0 +1,22 @@
+package com.bookings.config;
+
+import com.bookings.models.PooledSequenceGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "bookings.ids")
+public class IdProperties {
+
+    /**
+     * Number of ids an instance reserves per call to an entity's sequence. Larger blocks mean fewer round trips and
+     * larger gaps when an instance stops. Must match the increment of sequences that already exist.
+     */
+    private int allocationSize = PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    public void setAllocationSize(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+}
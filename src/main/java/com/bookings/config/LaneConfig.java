@@ -0,0 +1,47 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneExecutor;
+import com.bookings.concurrency.LaneScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(LaneProperties.class)
+public class LaneConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public LaneScheduler laneScheduler(LaneProperties properties,
+                                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        LaneProperties.LaneSize bulk = properties.getBulk();
+        if (bulk.getThreads() >= connectionPoolSize) {
+            throw new IllegalStateException("bookings.lanes.bulk.threads=%d must leave connections for guest traffic in a pool of %d"
+                    .formatted(bulk.getThreads(), connectionPoolSize));
+        }
+        List<LaneExecutor> executors = List.of(
+                new LaneExecutor(Lane.INTERACTIVE, properties.getInteractive().getThreads(), properties.getInteractive().getQueueCapacity()),
+                new LaneExecutor(Lane.BULK, bulk.getThreads(), bulk.getQueueCapacity()));
+        meterRegistry.ifAvailable(registry -> executors.forEach(executor -> bindMetrics(registry, executor)));
+        return new LaneScheduler(executors);
+    }
+
+    private static void bindMetrics(MeterRegistry registry, LaneExecutor executor) {
+        String lane = executor.getLane().name().toLowerCase();
+        Gauge.builder("bookings.lane.threads", executor, LaneExecutor::getThreads).tag("lane", lane).register(registry);
+        Gauge.builder("bookings.lane.active", executor, LaneExecutor::getActive).tag("lane", lane).register(registry);
+        Gauge.builder("bookings.lane.queued", executor, LaneExecutor::getQueued).tag("lane", lane).register(registry);
+        FunctionCounter.builder("bookings.lane.completed", executor, LaneExecutor::getCompleted).tag("lane", lane).register(registry);
+        FunctionCounter.builder("bookings.lane.rejected", executor, LaneExecutor::getRejected).tag("lane", lane).register(registry);
+        FunctionCounter.builder("bookings.lane.queue.wait", executor, e -> e.getQueueWaitNanos() / 1_000_000_000d)
+                .baseUnit("seconds").tag("lane", lane).register(registry);
+    }
+}
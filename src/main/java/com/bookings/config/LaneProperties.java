@@ -0,0 +1,58 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "bookings.lanes")
+public class LaneProperties {
+
+    private LaneSize interactive = new LaneSize(8, 200);
+    private LaneSize bulk = new LaneSize(2, 1000);
+
+    public LaneSize getInteractive() {
+        return interactive;
+    }
+
+    public void setInteractive(LaneSize interactive) {
+        this.interactive = interactive;
+    }
+
+    public LaneSize getBulk() {
+        return bulk;
+    }
+
+    public void setBulk(LaneSize bulk) {
+        this.bulk = bulk;
+    }
+
+    public static class LaneSize {
+        /**
+         * Worker threads, which is also the most database connections the lane can hold at once.
+         */
+        private int threads;
+        private int queueCapacity;
+
+        public LaneSize() {
+        }
+
+        LaneSize(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
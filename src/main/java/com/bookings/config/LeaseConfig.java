@@ -0,0 +1,9 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({LeaseProperties.class, NodeProperties.class})
+public class LeaseConfig {
+}
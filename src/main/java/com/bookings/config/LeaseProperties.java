@@ -0,0 +1,34 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.leases")
+public class LeaseProperties {
+
+    /**
+     * How long a lease survives an instance that stops without releasing it.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+    /**
+     * How long a writer waits for a contended lease before answering 503.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+}
@@ -0,0 +1,45 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "bookings.node")
+public class NodeProperties {
+    private static final int MAX_HOST_NAME_LENGTH = 55;
+
+    /**
+     * Identifies this instance among the instances sharing a database: it owns the instance's leases, marks the
+     * changes it logs and keys its change log cursor, so no two running instances may share it. Defaults to the host
+     * name plus a random suffix per start; set a stable id so a restarted instance resumes its cursor.
+     */
+    private String id = defaultId();
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    private static String defaultId() {
+        String hostName = hostName();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return hostName.substring(0, Math.min(hostName.length(), MAX_HOST_NAME_LENGTH)) + "-" + suffix;
+    }
+
+    private static String hostName() {
+        String hostName = System.getenv("HOSTNAME");
+        if (hostName != null && !hostName.isBlank()) {
+            return hostName;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "bookings.datasource")
+public class ReplicaProperties {
+
+    /**
+     * Read replicas of {@code spring.datasource}. Read-only transactions are routed to them when at least one is set.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * How long a client's reads stay on the primary after it wrote.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    /**
+     * Delay between two replica health checks.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(2);
+    /**
+     * Change log entries a replica may trail the primary by before it is ejected; 0 disables the lag check.
+     */
+    private long maxLag = 1000;
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(long maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@EnableConfigurationProperties(SearchProperties.class)
+public class SearchConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool searchPool(SearchProperties properties) {
+        return new ForkJoinPool(properties.getParallelism());
+    }
+}
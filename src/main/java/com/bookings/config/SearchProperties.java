@@ -0,0 +1,90 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.search")
+public class SearchProperties {
+
+    /**
+     * Worker threads of the search pool, shared by all queries.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * CPU time, summed over every worker, one query may spend before it answers with what it has found.
+     */
+    private Duration cpuBudget = Duration.ofMillis(200);
+    /**
+     * Elapsed time one query may take, including the time its workers wait on the database, before it answers with
+     * what it has found.
+     */
+    private Duration timeBudget = Duration.ofMillis(500);
+    /**
+     * Timelines one query may load from the database; further properties whose timeline is not in memory are skipped,
+     * so a cold search neither runs a query per property nor pushes the hot timelines out of memory.
+     */
+    private int maxTimelineLoads = 32;
+    /**
+     * Properties one query considers at most, lowest ids first.
+     */
+    private int maxCandidates = 5_000;
+    private int maxFlexDays = 14;
+    private int maxResults = 50;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getCpuBudget() {
+        return cpuBudget;
+    }
+
+    public void setCpuBudget(Duration cpuBudget) {
+        this.cpuBudget = cpuBudget;
+    }
+
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    public int getMaxTimelineLoads() {
+        return maxTimelineLoads;
+    }
+
+    public void setMaxTimelineLoads(int maxTimelineLoads) {
+        this.maxTimelineLoads = maxTimelineLoads;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public int getMaxFlexDays() {
+        return maxFlexDays;
+    }
+
+    public void setMaxFlexDays(int maxFlexDays) {
+        this.maxFlexDays = maxFlexDays;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+}
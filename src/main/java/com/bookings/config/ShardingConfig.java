@@ -0,0 +1,31 @@
+package com.bookings.config;
+
+import com.bookings.datasource.SchemaMigrations;
+import com.bookings.repository.ShardAssignmentRepository;
+import com.bookings.sharding.DirectoryShardRouter;
+import com.bookings.sharding.ShardInitializer;
+import com.bookings.sharding.ShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ShardRouter.class)
+    public DirectoryShardRouter shardRouter(ShardingProperties properties, ShardAssignmentRepository assignmentRepository) {
+        return new DirectoryShardRouter(properties.getShardCount(), assignmentRepository);
+    }
+
+    @Bean
+    public ShardInitializer shardInitializer(ShardingProperties properties, DataSource dataSource,
+                                             EntityManagerFactory entityManagerFactory, SchemaMigrations schemaMigrations) {
+        return new ShardInitializer(properties, dataSource, entityManagerFactory, schemaMigrations);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "bookings.sharding")
+public class ShardingProperties {
+
+    /**
+     * Shards besides {@code spring.datasource}, which is always shard 0 and also holds the data that is not sharded.
+     */
+    private List<Shard> shards = new ArrayList<>();
+    /**
+     * Create the schema and reference data on the extra shards at startup, for embedded or freshly created databases.
+     */
+    private boolean initializeSchema = true;
+    /**
+     * Width of each shard's id range. The sequences and identity columns of shard n start at
+     * {@code n * idRangeSize + 1}, so ids stay unique across shards and rows can move between them.
+     */
+    private long idRangeSize = 1_000_000_000_000L;
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getShardCount() {
+        return shards.size() + 1;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public long getIdRangeSize() {
+        return idRangeSize;
+    }
+
+    public void setIdRangeSize(long idRangeSize) {
+        this.idRangeSize = idRangeSize;
+    }
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookings.config;
+
+import com.bookings.service.AvailabilityStreams;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(StreamProperties.class)
+public class StreamConfig implements SchedulingConfigurer {
+    private final ObjectProvider<AvailabilityStreams> streams;
+    private final StreamProperties properties;
+
+    public StreamConfig(ObjectProvider<AvailabilityStreams> streams, StreamProperties properties) {
+        this.streams = streams;
+        this.properties = properties;
+    }
+
+    /**
+     * A fixed pool of {@code senderThreads} threads. A subscriber is queued for the senders at most once at a time,
+     * so a queue of {@code maxSubscribers} never fills; a write that blocks past {@code writeTimeout} is cut short by
+     * {@link AvailabilityStreams#dropStalled()}, so a stalled connection holds a thread for a bounded time only.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService streamSender() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(properties.getSenderThreads(), properties.getSenderThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getMaxSubscribers()), runnable -> {
+            Thread thread = new Thread(runnable, "stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        // Heartbeats only mark subscribers and hand them to the sender threads, and the stall check only reads
+        // timestamps, so neither needs a lane.
+        streams.ifAvailable(service -> {
+            registrar.addFixedDelayTask(new FixedDelayTask(service::heartbeat,
+                    properties.getHeartbeatInterval(), properties.getHeartbeatInterval()));
+            Duration stallCheck = properties.getWriteTimeout().dividedBy(2);
+            registrar.addFixedDelayTask(new FixedDelayTask(service::dropStalled, stallCheck, stallCheck));
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.bookings.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bookings.streams")
+public class StreamProperties {
+
+    /**
+     * Threads writing events to subscribers, shared by all streams. Request threads are never used.
+     */
+    private int senderThreads = 4;
+    /**
+     * How long a single write to a subscriber may block before the subscriber is treated as too slow and dropped,
+     * which frees its sender thread for the others.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    /**
+     * Events buffered per subscriber. A subscriber that falls this far behind is dropped, and told so when possible.
+     */
+    private int bufferSize = 256;
+    /**
+     * Open streams per node, property and firehose streams together. Further subscriptions are answered with 503.
+     */
+    private int maxSubscribers = 10_000;
+    /**
+     * How long a stream stays open before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+    /**
+     * Delay between comments sent to every subscriber, which keeps idle connections open and finds closed ones.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookings.config;
+
+import com.bookings.concurrency.*;
+import com.bookings.controller.AdmissionControlInterceptor;
+import com.bookings.controller.ReadYourWritesInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties({AdmissionControlProperties.class, ReplicaProperties.class})
+public class WebConfig implements WebMvcConfigurer {
+    private final AdmissionControlProperties admissionControlProperties;
+    private final ObjectProvider<AdmissionControl> admissionControl;
+    private final ReplicaProperties replicaProperties;
+
+    public WebConfig(AdmissionControlProperties admissionControlProperties, ObjectProvider<AdmissionControl> admissionControl,
+                     ReplicaProperties replicaProperties) {
+        this.admissionControlProperties = admissionControlProperties;
+        this.admissionControl = admissionControl;
+        this.replicaProperties = replicaProperties;
+    }
+
+    @Bean
+    public AdmissionControl admissionControl(ObjectProvider<MeterRegistry> meterRegistry) {
+        AdmissionControl control = new AdmissionControl(
+                limiter("read", admissionControlProperties.getRead()),
+                limiter("write", admissionControlProperties.getWrite()));
+        meterRegistry.ifAvailable(registry -> {
+            bindMetrics(registry, control.getReadLimiter());
+            bindMetrics(registry, control.getWriteLimiter());
+        });
+        return control;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionControlProperties.isEnabled()) {
+            registry.addInterceptor(new AdmissionControlInterceptor(admissionControl.getObject(), admissionControlProperties.getRetryAfter()))
+                    .addPathPatterns("/bookings/**", "/blocks/**", "/properties/**", "/analytics/**")
+                    // A stream holds its request open for minutes; open streams are capped by bookings.streams instead.
+                    .excludePathPatterns("/properties/availability/stream", "/properties/*/availability/stream");
+        }
+        if (!replicaProperties.getReplicas().isEmpty()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(replicaProperties.getReadYourWritesWindow()));
+        }
+    }
+
+    private ConcurrencyLimiter limiter(String name, AdmissionControlProperties.LimitProperties properties) {
+        Limit limit = switch (admissionControlProperties.getAlgorithm()) {
+            case AIMD -> new AimdLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getTimeout(), properties.getBackoffRatio());
+            case GRADIENT -> new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getTolerance(), properties.getSmoothing());
+        };
+        return new ConcurrencyLimiter(name, limit);
+    }
+
+    private static void bindMetrics(MeterRegistry registry, ConcurrencyLimiter limiter) {
+        Gauge.builder("bookings.admission.limit", limiter, ConcurrencyLimiter::getLimit)
+                .tag("limiter", limiter.getName()).register(registry);
+        Gauge.builder("bookings.admission.inflight", limiter, ConcurrencyLimiter::getInflight)
+                .tag("limiter", limiter.getName()).register(registry);
+        Gauge.builder("bookings.admission.rejected", limiter, ConcurrencyLimiter::getRejected)
+                .tag("limiter", limiter.getName()).register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bookings.controller;
+
+import com.bookings.concurrency.AdmissionControl;
+import com.bookings.concurrency.ConcurrencyLimiter;
+import com.bookings.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Sheds load before a request reaches a controller once its limiter is saturated. Rejected requests are answered
+ * with {@code 503} and a {@code Retry-After} header by the exception handler.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+    private final Duration retryAfter;
+
+    public AdmissionControlInterceptor(AdmissionControl admissionControl, Duration retryAfter) {
+        this.admissionControl = admissionControl;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ConcurrencyLimiter limiter = admissionControl.limiterFor(request.getMethod());
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire()
+                .orElseThrow(() -> new ServiceOverloadedException(limiter.getName(), retryAfter));
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof ConcurrencyLimiter.Permit permit) {
+            if (ex != null || response.getStatus() >= 500) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+        }
+    }
+}
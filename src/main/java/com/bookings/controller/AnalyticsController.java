@@ -0,0 +1,39 @@
+package com.bookings.controller;
+
+import com.bookings.models.HotProperties;
+import com.bookings.models.OccupancyReport;
+import com.bookings.service.HotPropertyTracker;
+import com.bookings.service.OccupancyAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    public static final int DEFAULT_HOT_PROPERTIES = 10;
+
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
+    private final HotPropertyTracker hotPropertyTracker;
+
+    public AnalyticsController(OccupancyAnalyticsService occupancyAnalyticsService, HotPropertyTracker hotPropertyTracker) {
+        this.occupancyAnalyticsService = occupancyAnalyticsService;
+        this.hotPropertyTracker = hotPropertyTracker;
+    }
+
+    @GetMapping("/occupancy")
+    public OccupancyReport occupancy(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(name = "groupBy", defaultValue = "OWNER") OccupancyReport.GroupBy groupBy) {
+        return this.occupancyAnalyticsService.report(from, to, groupBy);
+    }
+
+    @GetMapping("/hot-properties")
+    public HotProperties hotProperties(@RequestParam(name = "limit", defaultValue = "" + DEFAULT_HOT_PROPERTIES) int limit) {
+        return this.hotPropertyTracker.top(Math.max(1, limit));
+    }
+}
@@ -1,6 +1,9 @@
 package com.bookings.controller;
 
 import com.bookings.models.Block;
+import com.bookings.models.BlockView;
+import com.bookings.models.RecurringBlock;
+import com.bookings.models.RecurringBlockView;
 import com.bookings.service.BlockService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -16,15 +19,28 @@ public class BlockController {
         this.blockService = blockService;
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<BlockView> getBlock(@PathVariable("id") Long id) {
+        return this.blockService.getBlock(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * With {@code merge}, the block is merged with the blocks it overlaps or touches rather than refused.
+     */
     @PostMapping
-    public ResponseEntity<Block> createBlock(@Valid @RequestBody Block block) {
-        return new ResponseEntity<>(this.blockService.createBlock(block), HttpStatus.CREATED);
+    public ResponseEntity<Block> createBlock(@Valid @RequestBody Block block,
+                                             @RequestParam(name = "merge", defaultValue = "false") boolean merge) {
+        Block createdBlock = merge ? this.blockService.createAndMergeBlock(block) : this.blockService.createBlock(block);
+        return new ResponseEntity<>(createdBlock, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Block> updateBlock(@Valid @RequestBody Block block, @PathVariable("id") Long id) {
+    public ResponseEntity<Block> updateBlock(@Valid @RequestBody Block block, @PathVariable("id") Long id,
+                                             @RequestParam(name = "merge", defaultValue = "false") boolean merge) {
         block.setId(id);
-        Block updatedBlock = this.blockService.updateBlock(block);
+        Block updatedBlock = merge ? this.blockService.updateAndMergeBlock(block) : this.blockService.updateBlock(block);
         return ResponseEntity.ok(updatedBlock);
     }
 
@@ -34,4 +50,22 @@ public class BlockController {
         this.blockService.deleteBlock(id);
     }
 
+    @GetMapping("/recurring/{id}")
+    public ResponseEntity<RecurringBlockView> getRecurringBlock(@PathVariable("id") Long id) {
+        return this.blockService.getRecurringBlock(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringBlock> createRecurringBlock(@Valid @RequestBody RecurringBlock block) {
+        return new ResponseEntity<>(this.blockService.createRecurringBlock(block), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/recurring/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteRecurringBlock(@PathVariable("id") Long id) {
+        this.blockService.deleteRecurringBlock(id);
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.bookings.controller;
 
 import com.bookings.models.Booking;
+import com.bookings.models.BookingView;
 import com.bookings.service.BookingService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -17,7 +18,7 @@ public class BookingController {
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
+    public ResponseEntity<BookingView> getBooking(@PathVariable Long id) {
         return this.bookingService.getBooking(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
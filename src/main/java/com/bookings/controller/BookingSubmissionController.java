@@ -0,0 +1,40 @@
+package com.bookings.controller;
+
+import com.bookings.models.Booking;
+import com.bookings.models.BookingTicket;
+import com.bookings.service.BookingSubmissionService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Asynchronous variant of {@code POST /bookings}, selected with the {@code Prefer: respond-async} header.
+ */
+@RestController
+@RequestMapping("/bookings")
+public class BookingSubmissionController {
+    private final BookingSubmissionService bookingSubmissionService;
+
+    public BookingSubmissionController(BookingSubmissionService bookingSubmissionService) {
+        this.bookingSubmissionService = bookingSubmissionService;
+    }
+
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<BookingTicket> submit(@Valid @RequestBody Booking booking,
+                                                @RequestParam(name = "callbackUrl", required = false) URI callbackUrl) {
+        BookingTicket ticket = this.bookingSubmissionService.submit(booking, callbackUrl);
+        return ResponseEntity.accepted()
+                .location(URI.create("/bookings/tickets/" + ticket.id()))
+                .header("Preference-Applied", "respond-async")
+                .body(ticket);
+    }
+
+    @GetMapping(path = "/tickets/{id}")
+    public ResponseEntity<BookingTicket> getTicket(@PathVariable String id) {
+        return this.bookingSubmissionService.getTicket(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
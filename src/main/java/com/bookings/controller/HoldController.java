@@ -0,0 +1,42 @@
+package com.bookings.controller;
+
+import com.bookings.models.Booking;
+import com.bookings.models.Guest;
+import com.bookings.models.Hold;
+import com.bookings.service.BookingService;
+import com.bookings.service.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/bookings/holds")
+public class HoldController {
+    private final HoldService holdService;
+    private final BookingService bookingService;
+
+    public HoldController(HoldService holdService, BookingService bookingService) {
+        this.holdService = holdService;
+        this.bookingService = bookingService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Hold> createHold(@Valid @RequestBody Hold hold, @RequestParam(name = "minutes", required = false) Long minutes) {
+        Duration duration = minutes == null ? null : Duration.ofMinutes(minutes);
+        return new ResponseEntity<>(this.holdService.createHold(hold, duration), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<Booking> confirmHold(@Valid @RequestBody Guest guest, @PathVariable("id") Long id) {
+        return new ResponseEntity<>(this.bookingService.confirmHold(id, guest), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseHold(@PathVariable("id") Long id) {
+        this.holdService.releaseHold(id);
+    }
+}
@@ -0,0 +1,188 @@
+package com.bookings.controller;
+
+import com.bookings.models.AvailableWindow;
+import com.bookings.models.CalendarImportResult;
+import com.bookings.models.PropertyDetail;
+import com.bookings.models.PropertySearchResult;
+import com.bookings.service.AvailabilityService;
+import com.bookings.service.AvailabilityStreams;
+import com.bookings.service.BlockService;
+import com.bookings.service.BookingService;
+import com.bookings.service.CalendarFeedService;
+import com.bookings.service.CalendarImportService;
+import com.bookings.service.PropertySearchService;
+import com.bookings.service.PropertyService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/properties")
+public class PropertyController {
+    public static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final PropertyService propertyService;
+    private final AvailabilityService availabilityService;
+    private final PropertySearchService propertySearchService;
+    private final AvailabilityStreams availabilityStreams;
+    private final CalendarFeedService calendarFeedService;
+    private final CalendarImportService calendarImportService;
+    private final BookingService bookingService;
+    private final BlockService blockService;
+
+    public PropertyController(PropertyService propertyService, AvailabilityService availabilityService,
+                              PropertySearchService propertySearchService, AvailabilityStreams availabilityStreams,
+                              CalendarFeedService calendarFeedService, CalendarImportService calendarImportService,
+                              BookingService bookingService, BlockService blockService) {
+        this.propertyService = propertyService;
+        this.availabilityService = availabilityService;
+        this.propertySearchService = propertySearchService;
+        this.availabilityStreams = availabilityStreams;
+        this.calendarFeedService = calendarFeedService;
+        this.calendarImportService = calendarImportService;
+        this.bookingService = bookingService;
+        this.blockService = blockService;
+    }
+
+    @GetMapping("/search")
+    public PropertySearchResult search(@RequestParam("checkIn") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+                                       @RequestParam("checkOut") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+                                       @RequestParam(name = "flexDays", defaultValue = "0") int flexDays,
+                                       @RequestParam(name = "minNights", required = false) Integer minNights,
+                                       @RequestParam(name = "ownerId", required = false) Long ownerId,
+                                       @RequestParam(name = "managerId", required = false) Long managerId,
+                                       @RequestParam(name = "limit", defaultValue = "" + PropertySearchService.DEFAULT_LIMIT) int limit) {
+        return this.propertySearchService.search(checkIn, checkOut, flexDays, minNights, ownerId, managerId, limit);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PropertyDetail> getProperty(@PathVariable("id") Long id,
+                                                      @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam(name = "limit", defaultValue = "" + PropertyService.DEFAULT_LIMIT) int limit) {
+        return this.propertyService.getProperty(id, from == null ? LocalDate.now() : from, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/next-available")
+    public ResponseEntity<List<AvailableWindow>> nextAvailable(@PathVariable("id") Long id,
+                                                               @RequestParam("nights") int nights,
+                                                               @RequestParam(name = "after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+                                                               @RequestParam(name = "limit", defaultValue = "" + AvailabilityService.DEFAULT_LIMIT) int limit) {
+        return this.availabilityService.nextAvailable(id, nights, after, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/availability/stream")
+    public SseEmitter streamAvailability() {
+        return this.availabilityStreams.subscribeAll();
+    }
+
+    @GetMapping("/{id}/availability/stream")
+    public ResponseEntity<SseEmitter> streamAvailability(@PathVariable("id") Long id) {
+        return this.availabilityStreams.subscribe(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Tagged with the feed's ETag, so a client sending it back in {@code If-None-Match} gets {@code 304} and no body.
+     */
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<byte[]> getCalendar(@PathVariable("id") Long id) {
+        return this.calendarFeedService.feed(id)
+                .map(feed -> ResponseEntity.ok()
+                        .contentType(TEXT_CALENDAR)
+                        .eTag(feed.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .body(feed.content()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replaces the property's blocks imported from {@code source} with the events of the calendar sent as the body.
+     */
+    @PutMapping(path = "/{id}/calendars/{source}", consumes = "text/calendar")
+    public ResponseEntity<CalendarImportResult> importCalendar(@PathVariable("id") Long id, @PathVariable("source") String source,
+                                                               InputStream body) {
+        return importFrom(id, source, body);
+    }
+
+    /**
+     * Same as {@link #importCalendar(Long, String, InputStream)}, with the calendar uploaded as the {@code file} part.
+     */
+    @PutMapping(path = "/{id}/calendars/{source}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CalendarImportResult> importCalendarFile(@PathVariable("id") Long id, @PathVariable("source") String source,
+                                                                   @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return importFrom(id, source, content);
+        }
+    }
+
+    /**
+     * Cancels the property's bookings checking in from {@code from} (default today) up to {@code to}, open-ended when
+     * absent, and answers with the ids of the bookings canceled.
+     */
+    @PostMapping("/{id}/bookings/cancel")
+    public ResponseEntity<StreamingResponseBody> cancelBookings(@PathVariable("id") Long id,
+                                                                @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return idsOf(this.bookingService.cancelBookings(id, from == null ? LocalDate.now() : from, to));
+    }
+
+    /**
+     * Deletes the property's blocks starting from {@code from} (default today) up to {@code to}, open-ended when
+     * absent, and answers with the ids of the blocks deleted.
+     */
+    @PostMapping("/{id}/blocks/purge")
+    public ResponseEntity<StreamingResponseBody> purgeBlocks(@PathVariable("id") Long id,
+                                                             @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return idsOf(this.blockService.purgeBlocks(id, from == null ? LocalDate.now() : from, to));
+    }
+
+    /**
+     * Writes the ids as a JSON array straight to the response, so thousands of them are never
+     * rendered into one document first.
+     */
+    private static ResponseEntity<StreamingResponseBody> idsOf(Optional<List<Long>> ids) {
+        return ids.<ResponseEntity<StreamingResponseBody>>map(list -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(output -> {
+                            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                            writer.write('[');
+                            for (int i = 0; i < list.size(); i++) {
+                                if (i > 0) {
+                                    writer.write(',');
+                                }
+                                writer.write(Long.toString(list.get(i)));
+                            }
+                            writer.write(']');
+                            writer.flush();
+                        }))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<CalendarImportResult> importFrom(Long id, String source, InputStream calendar) {
+        // iCalendar content is UTF-8 unless told otherwise.
+        return this.calendarImportService.importCalendar(id, source, new InputStreamReader(calendar, StandardCharsets.UTF_8))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bookings.datasource;
+
+/**
+ * Per-thread override of replica routing. A thread pinned to the primary runs even its read-only transactions there,
+ * which is how a client reads its own recent writes before replicas have caught up.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private ReadRouting() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get();
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+}
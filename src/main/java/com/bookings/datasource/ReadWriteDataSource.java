@@ -0,0 +1,84 @@
+package com.bookings.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. The routing decision needs the
+ * transaction's read-only flag, which is only set after the transaction manager has asked for a connection, so the
+ * router sits behind a {@link LazyConnectionDataSourceProxy} and the physical connection is chosen on the first
+ * statement. A replica that fails to hand out a connection is ejected and the read falls back to the primary.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final HikariDataSource primary;
+    private final ReplicaSet replicaSet;
+
+    public ReadWriteDataSource(HikariDataSource primary, ReplicaSet replicaSet) {
+        super(new Router(primary, replicaSet));
+        this.primary = primary;
+        this.replicaSet = replicaSet;
+    }
+
+    public ReplicaSet getReplicaSet() {
+        return replicaSet;
+    }
+
+    @Override
+    public void close() {
+        replicaSet.close();
+        primary.close();
+    }
+
+    private static final class Router extends AbstractDataSource {
+        private final HikariDataSource primary;
+        private final ReplicaSet replicaSet;
+
+        Router(HikariDataSource primary, ReplicaSet replicaSet) {
+            this.primary = primary;
+            this.replicaSet = replicaSet;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPinnedToPrimary()) {
+                Optional<ReplicaSet.Replica> replica = replicaSet.next();
+                if (replica.isPresent()) {
+                    try {
+                        return replica.get().getDataSource().getConnection();
+                    } catch (SQLException e) {
+                        replicaSet.eject(replica.get(), e);
+                    }
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+
+        /**
+         * Exposes the primary pool, so pool metrics and health indicators keep reporting on it.
+         */
+        @Override
+        public <T> T unwrap(Class<T> type) throws SQLException {
+            if (type.isInstance(primary)) {
+                return type.cast(primary);
+            }
+            return super.unwrap(type);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> type) throws SQLException {
+            return type.isInstance(primary) || super.isWrapperFor(type);
+        }
+    }
+}
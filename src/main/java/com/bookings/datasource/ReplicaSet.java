@@ -0,0 +1,143 @@
+package com.bookings.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas with health tracking. A replica is ejected when it cannot answer a query or when its copy of the
+ * change log trails the primary's by more than {@code maxLag} entries, and it is readmitted by the first health check
+ * it passes again. Reads are spread round-robin over the healthy replicas.
+ */
+public class ReplicaSet implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+    private static final String LOG_POSITION_SQL = "SELECT COALESCE(MAX(id), 0) FROM change_log";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaSet(DataSource primary, List<Replica> replicas, long maxLag, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Next healthy replica in round-robin order, or empty when all of them are ejected.
+     */
+    public Optional<Replica> next() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void eject(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            log.warn("Ejecting replica {}: {}", replica.getName(), cause.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public int getHealthyCount() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    void checkHealth() {
+        Long primaryPosition = null;
+        try {
+            primaryPosition = logPosition(primary);
+        } catch (SQLException e) {
+            log.debug("Could not read the primary's change log position, checking replicas for liveness only", e);
+        }
+        for (Replica replica : replicas) {
+            try {
+                long lag = primaryPosition == null ? 0 : primaryPosition - logPosition(replica.getDataSource());
+                if (maxLag > 0 && lag > maxLag) {
+                    eject(replica, new IllegalStateException("%d change log entries behind the primary".formatted(lag)));
+                } else {
+                    readmit(replica);
+                }
+            } catch (SQLException | RuntimeException e) {
+                eject(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private void readmit(Replica replica) {
+        if (!replica.healthy) {
+            log.info("Readmitting replica {}", replica.getName());
+        }
+        replica.healthy = true;
+    }
+
+    private static long logPosition(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LOG_POSITION_SQL)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bookings.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned scripts applied on top of the schema Hibernate generates from the entities: indexes and constraints
+ * the mapping cannot express. Scripts live in {@code db/migration} and are named {@code V<version>__<description>.sql};
+ * each runs once per database, in version order, and is recorded in {@code schema_history}. Shard 0 is migrated at
+ * startup and extra shards right after {@code ShardInitializer} creates their schema.
+ */
+public class SchemaMigrations implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+    private static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__.+\\.sql");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SortedMap<Integer, Resource> scripts;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scripts = findScripts();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ShardContext.call(0, () -> {
+            migrate();
+            return null;
+        });
+    }
+
+    /**
+     * Applies the pending scripts to the current shard.
+     */
+    public void migrate() {
+        Set<Integer> applied = new HashSet<>(jdbcTemplate.queryForList("SELECT version FROM schema_history", Integer.class));
+        scripts.forEach((version, script) -> {
+            if (!applied.contains(version)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute((ConnectionCallback<Object>) connection -> {
+                        ScriptUtils.executeSqlScript(connection, script);
+                        return null;
+                    });
+                    jdbcTemplate.update("INSERT INTO schema_history (version, script, applied_at) VALUES (?, ?, LOCALTIMESTAMP)",
+                            version, script.getFilename());
+                });
+                log.info("Applied migration {} on shard {}", script.getFilename(), ShardContext.current());
+            }
+        });
+    }
+
+    private static SortedMap<Integer, Resource> findScripts() {
+        SortedMap<Integer, Resource> scripts = new TreeMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                Matcher name = SCRIPT_NAME.matcher(Objects.requireNonNull(resource.getFilename()));
+                if (!name.matches()) {
+                    continue;
+                }
+                Resource duplicate = scripts.put(Integer.valueOf(name.group(1)), resource);
+                if (duplicate != null) {
+                    throw new IllegalStateException("Two migrations with version %s: %s and %s"
+                            .formatted(name.group(1), duplicate.getFilename(), resource.getFilename()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list migrations", e);
+        }
+        return scripts;
+    }
+}
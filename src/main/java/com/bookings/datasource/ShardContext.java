@@ -0,0 +1,37 @@
+package com.bookings.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's connections are taken from. Threads that never set one use shard 0, which also holds
+ * the data that is not sharded.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT_SHARD = ThreadLocal.withInitial(() -> 0);
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * Runs {@code action} with connections taken from {@code shard}. A transaction cannot span shards, so switching
+     * to another shard while one is active fails.
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        int previous = CURRENT_SHARD.get();
+        if (previous != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard %d inside a transaction on shard %d".formatted(shard, previous));
+        }
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            CURRENT_SHARD.set(previous);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookings.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Hands out connections to the shard in {@link ShardContext}. Like {@link ReadWriteDataSource} it defers the choice
+ * to the first statement, so a transaction opened before its shard is set still lands on the right database.
+ */
+public class ShardRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        super(new Router(List.copyOf(shards)));
+        this.shards = List.copyOf(shards);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Router extends AbstractDataSource {
+        private final List<DataSource> shards;
+
+        Router(List<DataSource> shards) {
+            this.shards = shards;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return shards.get(ShardContext.current()).getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return shards.get(ShardContext.current()).getConnection(username, password);
+        }
+
+        /**
+         * Exposes shard 0, so pool metrics, health indicators and replica lookups keep working on it.
+         */
+        @Override
+        public <T> T unwrap(Class<T> type) throws SQLException {
+            DataSource defaultShard = shards.get(0);
+            if (type.isInstance(defaultShard)) {
+                return type.cast(defaultShard);
+            }
+            if (defaultShard.isWrapperFor(type)) {
+                return defaultShard.unwrap(type);
+            }
+            return super.unwrap(type);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> type) throws SQLException {
+            return type.isInstance(shards.get(0)) || shards.get(0).isWrapperFor(type) || super.isWrapperFor(type);
+        }
+    }
+}
@@ -16,7 +16,7 @@ public class ApiError implements Serializable {
     private Map<String, String> errors;
 
     private ApiError() {
-        timestamp = LocalDateTime.now();
+        timestamp = ErrorTimestamps.now();
     }
 
     public ApiError(Map<String, String> errors) {
@@ -3,13 +3,46 @@ package com.bookings.exception;
 public class BusinessException extends RuntimeException {
 
     private final ErrorCode errorCode;
+    private String formattedMessage;
 
     public BusinessException(String message, ErrorCode errorCode) {
         super(message);
         this.errorCode = errorCode;
     }
 
+    /**
+     * Creates an exception for an expected rejection. No stack trace is captured and suppression is disabled,
+     * so an instance with a fixed message is immutable and may be shared.
+     */
+    public BusinessException(String message, ErrorCode errorCode, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Creates a stackless exception whose message is built by {@link #formatMessage()} the first time it is read.
+     */
+    protected BusinessException(ErrorCode errorCode) {
+        this(null, errorCode, false);
+    }
+
     public ErrorCode getErrorCode() {
         return errorCode;
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        if (message != null) {
+            return message;
+        }
+        if (formattedMessage == null) {
+            formattedMessage = formatMessage();
+        }
+        return formattedMessage;
+    }
+
+    protected String formatMessage() {
+        return null;
+    }
+}
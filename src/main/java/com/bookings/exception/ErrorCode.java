@@ -1,5 +1,7 @@
 package com.bookings.exception;
 
 public enum ErrorCode {
-    PROPERTY_UNAVAILABLE, UNEXPECTED_ERROR, INVALID_BOOKING_DATES, PROPERTY_BOOKING_BLOCKED, PROPERTY_ALREADY_BLOCKED, INVALID_BLOCK_DATES
+    PROPERTY_UNAVAILABLE, UNEXPECTED_ERROR, INVALID_BOOKING_DATES, PROPERTY_BOOKING_BLOCKED, PROPERTY_ALREADY_BLOCKED, INVALID_BLOCK_DATES,
+    SERVICE_OVERLOADED, HOLD_EXPIRED, INVALID_HOLD_DURATION, INVALID_CALLBACK_URL,
+    INVALID_AVAILABILITY_QUERY, INVALID_REPORT_PERIOD, INVALID_CALENDAR, INVALID_RECURRENCE_RULE
 }
@@ -0,0 +1,29 @@
+package com.bookings.exception;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Second-resolution clock for error bodies. {@link ApiError} timestamps are rendered to the second, so the
+ * {@link LocalDateTime} is only rebuilt when the wall-clock second changes.
+ */
+final class ErrorTimestamps {
+
+    private record Tick(long epochSecond, LocalDateTime timestamp) {
+    }
+
+    private static volatile Tick current = new Tick(Long.MIN_VALUE, null);
+
+    private ErrorTimestamps() {
+    }
+
+    static LocalDateTime now() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        Tick tick = current;
+        if (tick.epochSecond() != epochSecond) {
+            tick = new Tick(epochSecond, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+            current = tick;
+        }
+        return tick.timestamp();
+    }
+}
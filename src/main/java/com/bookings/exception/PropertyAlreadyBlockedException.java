@@ -2,17 +2,26 @@ package com.bookings.exception;
 
 import com.bookings.models.Block;
 
+import java.time.LocalDate;
+
 public class PropertyAlreadyBlockedException extends BusinessException {
 
     public static final String ERROR_MESSAGE_PATTERN =
             "Property id=%s is already blocked for startDate='%s' and endDate='%s' dates";
 
+    private final Long propertyId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
     public PropertyAlreadyBlockedException(Block block) {
-        super(ERROR_MESSAGE_PATTERN.formatted(
-                        block.getPropertyId(),
-                        block.getStartDate(),
-                        block.getEndDate()),
-                ErrorCode.PROPERTY_ALREADY_BLOCKED
-        );
+        super(ErrorCode.PROPERTY_ALREADY_BLOCKED);
+        this.propertyId = block.getPropertyId();
+        this.startDate = block.getStartDate();
+        this.endDate = block.getEndDate();
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ERROR_MESSAGE_PATTERN.formatted(propertyId, startDate, endDate);
     }
 }
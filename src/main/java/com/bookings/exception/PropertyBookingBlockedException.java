@@ -2,17 +2,26 @@ package com.bookings.exception;
 
 import com.bookings.models.Booking;
 
+import java.time.LocalDate;
+
 public class PropertyBookingBlockedException extends BusinessException {
 
     public static final String ERROR_MESSAGE_PATTERN =
             "Property id=%s is blocked for bookings with checkIn='%s' and checkOut='%s' dates";
 
+    private final Long propertyId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
     public PropertyBookingBlockedException(Booking booking) {
-        super(ERROR_MESSAGE_PATTERN.formatted(
-                        booking.getPropertyId(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate()),
-                ErrorCode.PROPERTY_BOOKING_BLOCKED
-        );
+        super(ErrorCode.PROPERTY_BOOKING_BLOCKED);
+        this.propertyId = booking.getPropertyId();
+        this.checkInDate = booking.getCheckInDate();
+        this.checkOutDate = booking.getCheckOutDate();
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ERROR_MESSAGE_PATTERN.formatted(propertyId, checkInDate, checkOutDate);
     }
 }
@@ -2,13 +2,23 @@ package com.bookings.exception;
 
 import com.bookings.models.Booking;
 
+import java.time.LocalDate;
+
 public class PropertyUnavailableException extends BusinessException {
     public static final String ERROR_MESSAGE_PATTERN =
             "Property currently not available to be booked with checkIn='%s' and checkOut='%s' dates";
 
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
     public PropertyUnavailableException(Booking booking) {
-        super(ERROR_MESSAGE_PATTERN.formatted(
-                booking.getCheckInDate(),
-                booking.getCheckOutDate()), ErrorCode.PROPERTY_UNAVAILABLE);
+        super(ErrorCode.PROPERTY_UNAVAILABLE);
+        this.checkInDate = booking.getCheckInDate();
+        this.checkOutDate = booking.getCheckOutDate();
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ERROR_MESSAGE_PATTERN.formatted(checkInDate, checkOutDate);
     }
 }
@@ -0,0 +1,25 @@
+package com.bookings.exception;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends BusinessException {
+    public static final String ERROR_MESSAGE_PATTERN = "Too many concurrent %s requests, retry in %s seconds";
+
+    private final String limiterName;
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String limiterName, Duration retryAfter) {
+        super(ErrorCode.SERVICE_OVERLOADED);
+        this.limiterName = limiterName;
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return ERROR_MESSAGE_PATTERN.formatted(limiterName, retryAfter.toSeconds());
+    }
+}
@@ -0,0 +1,50 @@
+package com.bookings.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A booking moved out of {@code bookings} by the archiver once it can no longer affect availability. It keeps the
+ * booking's id and columns, so it reads back as the same {@link BookingView}.
+ */
+@Entity
+@Table(name = "bookings_archive")
+public class ArchivedBooking {
+
+    @Id
+    private Long id;
+
+    @Column(name = "checkin_date", columnDefinition = "DATE", nullable = false)
+    private LocalDate checkInDate;
+
+    @Column(name = "checkout_date", columnDefinition = "DATE", nullable = false)
+    private LocalDate checkOutDate;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Embedded
+    private Guest guest;
+
+    private Boolean canceled;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedBooking() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
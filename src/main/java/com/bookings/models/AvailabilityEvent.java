@@ -0,0 +1,15 @@
+package com.bookings.models;
+
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to a booking or block of a property, as sent to availability stream subscribers. It says what
+ * changed, not the new dates: subscribers read the property again when they need them. {@code sequence} grows
+ * monotonically per node and is only meant to order events of one stream.
+ */
+public record AvailabilityEvent(long sequence, Long propertyId, EntityType entityType, Long entityId,
+                                Operation operation, LocalDateTime changedAt) {
+}
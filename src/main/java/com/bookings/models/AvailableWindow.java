@@ -0,0 +1,9 @@
+package com.bookings.models;
+
+import java.time.LocalDate;
+
+/**
+ * Dates of a stay the property is free for, with the same meaning as a booking's.
+ */
+public record AvailableWindow(LocalDate checkInDate, LocalDate checkOutDate) {
+}
@@ -14,7 +14,7 @@ import java.util.Objects;
 @Table(name = "blocks", uniqueConstraints =  { @UniqueConstraint(columnNames = { "property_id", "start_date" , "end_date"}) } )
 public class Block {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("blocks_seq")
     private Long id;
 
     @Future(message = "Start date need to be in the future")
@@ -32,6 +32,16 @@ public class Block {
     @JoinColumn(name = "property_id", nullable = false)
     private Property property;
 
+    /**
+     * External calendar the block was imported from, and the event's UID in it; both null for blocks made here.
+     */
+    @JsonIgnore
+    @Column(length = 64)
+    private String source;
+    @JsonIgnore
+    @Column(name = "external_uid")
+    private String externalUid;
+
     @Deprecated
     public Block() {
     }
@@ -74,6 +84,19 @@ public class Block {
         this.property = property;
     }
 
+    public String getSource() {
+        return source;
+    }
+
+    public String getExternalUid() {
+        return externalUid;
+    }
+
+    public void setImportedFrom(String source, String externalUid) {
+        this.source = source;
+        this.externalUid = externalUid;
+    }
+
     @JsonIgnore
     public boolean hasValidBlockDates() {
         return this.startDate.isBefore(this.endDate);
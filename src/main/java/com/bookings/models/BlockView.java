@@ -0,0 +1,9 @@
+package com.bookings.models;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a block. Serialises like {@link Block}.
+ */
+public record BlockView(Long id, LocalDate startDate, LocalDate endDate, Long propertyId) {
+}
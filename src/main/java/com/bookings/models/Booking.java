@@ -18,7 +18,7 @@ import java.util.Objects;
 public class Booking implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @PooledSequence("bookings_seq")
     private Long id;
 
     @Future(message = "CheckIn date need to be in the future")
@@ -0,0 +1,70 @@
+package com.bookings.models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One night a booking occupies. The primary key on (property_id, night) lets the database itself refuse a second
+ * booking of the same night, whatever path or node the write comes from. Rows are deleted with their booking.
+ */
+@Entity
+@Table(name = "booking_nights")
+@IdClass(BookingNight.Key.class)
+public class BookingNight {
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Id
+    @Column(columnDefinition = "DATE")
+    private LocalDate night;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Deprecated
+    public BookingNight() {
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public static class Key implements Serializable {
+        private Long propertyId;
+        private LocalDate night;
+
+        @Deprecated
+        public Key() {
+        }
+
+        public Key(Long propertyId, LocalDate night) {
+            this.propertyId = propertyId;
+            this.night = night;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(propertyId, key.propertyId) && Objects.equals(night, key.night);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(propertyId, night);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bookings.models;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an asynchronously submitted booking.
+ */
+public record BookingTicket(String id,
+                            Status status,
+                            Long bookingId,
+                            ErrorCode errorCode,
+                            String message,
+                            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+                            LocalDateTime submittedAt,
+                            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+                            LocalDateTime completedAt) {
+
+    public enum Status {PENDING, CONFIRMED, REJECTED}
+
+    public static BookingTicket pending(String id) {
+        return new BookingTicket(id, Status.PENDING, null, null, null, LocalDateTime.now(), null);
+    }
+
+    public BookingTicket confirmed(Booking booking) {
+        return new BookingTicket(id, Status.CONFIRMED, booking.getId(), null, null, submittedAt, LocalDateTime.now());
+    }
+
+    public BookingTicket rejected(BusinessException exception) {
+        return new BookingTicket(id, Status.REJECTED, null, exception.getErrorCode(), exception.getMessage(), submittedAt, LocalDateTime.now());
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return status != Status.PENDING;
+    }
+}
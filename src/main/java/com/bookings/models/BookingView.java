@@ -0,0 +1,18 @@
+package com.bookings.models;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a booking, selected straight into the record so reads neither load the entity nor its property.
+ * Serialises like {@link Booking}.
+ */
+public record BookingView(Long id,
+                          LocalDate checkInDate,
+                          LocalDate checkOutDate,
+                          Long propertyId,
+                          String guestFirstName,
+                          String guestLastName,
+                          int guestAge,
+                          String guestSocialSecurityId,
+                          Boolean canceled) {
+}
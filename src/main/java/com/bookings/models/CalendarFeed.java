@@ -0,0 +1,8 @@
+package com.bookings.models;
+
+/**
+ * A property's rendered iCalendar feed. The entity tag is derived from the content, so every node serving the same
+ * calendar hands out the same tag and a client's conditional request holds across nodes.
+ */
+public record CalendarFeed(byte[] content, String etag) {
+}
@@ -0,0 +1,16 @@
+package com.bookings.models;
+
+/**
+ * What a calendar import did to the property's blocks. {@code skipped} counts events not imported: repeated UIDs and
+ * dates already blocked by another block or event.
+ */
+public record CalendarImportResult(int inserted, int updated, int deleted, int unchanged, int skipped) {
+
+    public boolean hasChanges() {
+        return inserted + updated + deleted > 0;
+    }
+
+    public CalendarImportResult plusSkipped(int more) {
+        return new CalendarImportResult(inserted, updated, deleted, unchanged, skipped + more);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bookings.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last change log entry a node has applied, so a restarted node resumes tailing where it stopped.
+ */
+@Entity
+@Table(name = "change_log_cursors")
+public class ChangeLogCursor {
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(name = "last_applied_id", nullable = false)
+    private long lastAppliedId;
+
+    @Deprecated
+    public ChangeLogCursor() {
+    }
+
+    public ChangeLogCursor(String nodeId, long lastAppliedId) {
+        this.nodeId = nodeId;
+        this.lastAppliedId = lastAppliedId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getLastAppliedId() {
+        return lastAppliedId;
+    }
+
+    public void setLastAppliedId(long lastAppliedId) {
+        this.lastAppliedId = lastAppliedId;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bookings.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed mutation of a booking or block. Entries are append-only and their ids grow monotonically, so a node
+ * can tail the table from the last id it applied.
+ */
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 16, nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Operation operation;
+
+    @Column(name = "origin_node", length = 64, nullable = false)
+    private String originNode;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Deprecated
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(EntityType entityType, Long entityId, Long propertyId, Operation operation, String originNode) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.propertyId = propertyId;
+        this.operation = operation;
+        this.originNode = originNode;
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public enum EntityType {
+        BOOKING, BLOCK, RECURRING_BLOCK, SHARD_ASSIGNMENT
+    }
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookings.models;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Tentative reservation of a property's dates while a guest completes payment. A hold counts as unavailability
+ * until it is confirmed into a {@link Booking}, released, or reaches {@code expiresAt}.
+ */
+@Entity
+@Table(name = "holds")
+public class Hold {
+    @Id
+    @PooledSequence("holds_seq")
+    private Long id;
+
+    @Future(message = "CheckIn date need to be in the future")
+    @NotNull(message = "CheckIn date is required")
+    @Column(name = "checkin_date", columnDefinition = "DATE", nullable = false)
+    private LocalDate checkInDate;
+
+    @Future(message = "CheckOut date need to be in the future")
+    @NotNull(message = "CheckOut date is required")
+    @Column(name = "checkout_date", columnDefinition = "DATE", nullable = false)
+    private LocalDate checkOutDate;
+
+    @JsonIgnore
+    @NotNull(message = "Property is required")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Deprecated
+    public Hold() {
+    }
+
+    public Hold(LocalDate checkInDate, LocalDate checkOutDate, Property property) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.property = property;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @JsonGetter("propertyId")
+    public Long getPropertyId() {
+        return property.getId();
+    }
+
+    @JsonSetter("propertyId")
+    public void setPropertyId(Long propertyId) {
+        if (property == null) {
+            this.property = new Property(propertyId);
+        } else {
+            property.setId(propertyId);
+        }
+    }
+
+    @JsonIgnore
+    public boolean hasValidHoldDates() {
+        return this.checkInDate.isBefore(this.checkOutDate);
+    }
+
+    @JsonIgnore
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * Booking for the held dates, used when the hold is confirmed and to describe it in availability errors.
+     */
+    public Booking toBooking(Guest guest) {
+        var booking = new Booking();
+        booking.setProperty(property);
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(guest);
+        return booking;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Hold hold = (Hold) o;
+        return Objects.equals(id, hold.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Hold{" + "id=" + id + ", checkInDate=" + checkInDate + ", checkOutDate=" + checkOutDate + ", expiresAt=" + expiresAt + '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.bookings.models;
+
+import java.util.List;
+
+/**
+ * The properties with the most booking attempts and the most rejections for unavailability on this node, by decayed
+ * count. A count may overestimate the true one by at most {@code error}.
+ */
+public record HotProperties(List<HotProperty> requested, List<HotProperty> rejected) {
+
+    public record HotProperty(Long propertyId, double count, double error) {
+    }
+}
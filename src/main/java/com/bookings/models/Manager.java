@@ -9,7 +9,7 @@ import java.util.List;
 @Table(name = "managers")
 public class Manager {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @PooledSequence("managers_seq")
     private Long id;
     @Size(min = 3, max = 50)
     @Column(nullable = false)
@@ -0,0 +1,42 @@
+package com.bookings.models;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Occupancy of every property over {@code [from, to)}, grouped by owner or manager. Properties without a manager
+ * form a group without id when grouping by manager.
+ */
+public record OccupancyReport(LocalDate from, LocalDate to, GroupBy groupBy, List<Group> groups) {
+
+    public enum GroupBy {
+        OWNER, MANAGER
+    }
+
+    public record Group(Long id, String name, @JsonUnwrapped Stats stats, List<PropertyOccupancy> properties) {
+    }
+
+    public record PropertyOccupancy(Long propertyId, String propertyName, @JsonUnwrapped Stats stats) {
+    }
+
+    /**
+     * {@code occupancyRate} is booked nights over the nights that were not blocked; {@code cancellationRate} is
+     * canceled bookings over all bookings checking in during the period.
+     */
+    public record Stats(long nights, long bookedNights, long blockedNights, double occupancyRate,
+                        long bookings, long canceledBookings, double cancellationRate) {
+
+        public static Stats of(long nights, long bookedNights, long blockedNights, long bookings, long canceledBookings) {
+            long open = nights - blockedNights;
+            return new Stats(nights, bookedNights, blockedNights, open > 0 ? (double) bookedNights / open : 0,
+                    bookings, canceledBookings, bookings > 0 ? (double) canceledBookings / bookings : 0);
+        }
+
+        public Stats plus(Stats other) {
+            return of(nights + other.nights, bookedNights + other.bookedNights, blockedNights + other.blockedNights,
+                    bookings + other.bookings, canceledBookings + other.canceledBookings);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bookings.models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Occupancy of one property on one night that is over: whether it was booked or blocked, and how many bookings
+ * checked in that day, canceled ones included. Only nights with any of these are stored. Written by the rollup job,
+ * never by requests, so reports over long periods sum these rows instead of clipping every stay again.
+ */
+@Entity
+@Table(name = "occupancy_rollups")
+@IdClass(OccupancyRollup.Key.class)
+public class OccupancyRollup {
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Id
+    @Column(columnDefinition = "DATE")
+    private LocalDate night;
+
+    @Column(name = "booked_nights", nullable = false)
+    private int bookedNights;
+
+    @Column(name = "blocked_nights", nullable = false)
+    private int blockedNights;
+
+    @Column(name = "check_ins", nullable = false)
+    private int checkIns;
+
+    @Column(name = "canceled_check_ins", nullable = false)
+    private int canceledCheckIns;
+
+    @Deprecated
+    public OccupancyRollup() {
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public int getBookedNights() {
+        return bookedNights;
+    }
+
+    public int getBlockedNights() {
+        return blockedNights;
+    }
+
+    public int getCheckIns() {
+        return checkIns;
+    }
+
+    public int getCanceledCheckIns() {
+        return canceledCheckIns;
+    }
+
+    public static class Key implements Serializable {
+        private Long propertyId;
+        private LocalDate night;
+
+        @Deprecated
+        public Key() {
+        }
+
+        public Key(Long propertyId, LocalDate night) {
+            this.propertyId = propertyId;
+            this.night = night;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(propertyId, key.propertyId) && Objects.equals(night, key.night);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(propertyId, night);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookings.models;
+
+import com.bookings.calendar.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The occupied nights of one property as sorted, disjoint half-open ranges of epoch days. Overlapping and touching
+ * bookings and blocks are merged while building, so every gap between two consecutive ranges is a stretch of free
+ * nights and a search only has to find its starting range and then walk the gaps. Recurring blocks are kept as their
+ * rules and split a gap at the days they recur on, each found by jumping to it rather than by listing occurrences.
+ * Immutable once built.
+ */
+public final class OccupancyTimeline {
+    /**
+     * How far past its first date a search goes when recurring blocks leave no end to the calendar.
+     */
+    static final int RECURRENCE_HORIZON_DAYS = 3 * 366;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final RecurrenceRule[] rules;
+
+    private OccupancyTimeline(int[] starts, int[] ends, RecurrenceRule[] rules) {
+        this.starts = starts;
+        this.ends = ends;
+        this.rules = rules;
+    }
+
+    /**
+     * The first {@code limit} stays of {@code nights} nights checking in on or after {@code after}, one per free
+     * stretch and as early as possible in it. Without recurring blocks the stretch after the last occupied night is
+     * open-ended, so the result is never empty and ends with it: any later check-in date fits there too. With them,
+     * the search stops {@link #RECURRENCE_HORIZON_DAYS} days after {@code after} and may find nothing.
+     */
+    public List<AvailableWindow> nextAvailable(LocalDate after, int nights, int limit) {
+        List<AvailableWindow> windows = new ArrayList<>(Math.min(limit, starts.length + 1));
+        int free = (int) after.toEpochDay();
+        int horizon = rules.length == 0 ? Integer.MAX_VALUE : free + RECURRENCE_HORIZON_DAYS;
+        int i = firstEndingAfter(free);
+        if (i < starts.length && starts[i] <= free) {
+            free = ends[i++];
+        }
+        while (windows.size() < limit && free < horizon) {
+            int end = i == starts.length ? horizon : starts[i];
+            int recurs = nextRecurrence(free, end);
+            if (recurs - free >= nights) {
+                windows.add(new AvailableWindow(LocalDate.ofEpochDay(free), LocalDate.ofEpochDay(free + nights)));
+            }
+            if (recurs < end) {
+                free = recurs + 1;
+            } else if (i == starts.length) {
+                break;
+            } else {
+                free = ends[i++];
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Number of free nights from {@code start} on, counting at most {@code max}; zero when that night is taken.
+     */
+    public int freeNights(LocalDate start, int max) {
+        int day = (int) start.toEpochDay();
+        int i = firstEndingAfter(day);
+        if (i < starts.length && starts[i] <= day) {
+            return 0;
+        }
+        int end = i == starts.length ? day + max : Math.min(starts[i], day + max);
+        return nextRecurrence(day, end) - day;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * First day in {@code [from, limit)} a recurring block falls on, or {@code limit} when there is none.
+     */
+    private int nextRecurrence(int from, int limit) {
+        for (RecurrenceRule rule : rules) {
+            limit = rule.next(from, limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Index of the first range that ends after {@code day}; every earlier one is already over by then.
+     */
+    private int firstEndingAfter(int day) {
+        int i = Arrays.binarySearch(ends, day + 1);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects occupied ranges, which must be added in order of their first night, and recurring blocks.
+     */
+    public static final class Builder {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+        private final List<RecurrenceRule> rules = new ArrayList<>();
+
+        /**
+         * Adds the nights from {@code start} up to, but not including, {@code end}.
+         */
+        public Builder occupy(LocalDate start, LocalDate end) {
+            int from = (int) start.toEpochDay();
+            int to = (int) end.toEpochDay();
+            if (size > 0 && from < starts[size - 1]) {
+                throw new IllegalArgumentException("Occupied ranges must be added in order");
+            }
+            if (size > 0 && from <= ends[size - 1]) {
+                ends[size - 1] = Math.max(ends[size - 1], to);
+                return this;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = from;
+            ends[size++] = to;
+            return this;
+        }
+
+        /**
+         * Adds the nights a recurring block falls on.
+         */
+        public Builder recur(RecurrenceRule rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        public OccupancyTimeline build() {
+            return new OccupancyTimeline(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                    rules.toArray(RecurrenceRule[]::new));
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 @Table(name = "owners")
 public class Owner {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("owners_seq")
     private Long id;
     @Size(min = 3, max = 50)
     @Column(nullable = false)
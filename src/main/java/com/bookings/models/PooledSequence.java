@@ -0,0 +1,24 @@
+package com.bookings.models;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the id from the named database sequence through a {@link PooledSequenceGenerator}, so inserts do not
+ * each wait on the database for their id and can be batched.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+    /**
+     * Name of the database sequence.
+     */
+    String value();
+}
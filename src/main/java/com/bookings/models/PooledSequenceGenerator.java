@@ -0,0 +1,37 @@
+package com.bookings.models;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Sequence generator with the pooled-lo optimizer: one call to the sequence reserves the block of
+ * {@code bookings.ids.allocation-size} ids starting at the value it returns, and the ids of that block are then handed
+ * out in memory. Blocks never overlap however many instances share the sequence. The rest of a block is lost when the
+ * instance stops, which leaves gaps but never reuses an id, and restarting the sequence higher, as the shard
+ * initializer does, simply makes the next block start there.
+ * <p>
+ * When the sequence already exists with a different increment, the database's increment wins, since a block larger
+ * than the sequence's step would overlap the next instance's block.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_SETTING = "bookings.ids.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    public PooledSequenceGenerator(PooledSequence sequence, Member member, CustomIdGeneratorCreationContext context) {
+        Object allocationSize = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(ALLOCATION_SIZE_SETTING);
+        Properties parameters = new Properties();
+        parameters.setProperty(SEQUENCE_PARAM, sequence.value());
+        parameters.setProperty(INCREMENT_PARAM, allocationSize == null ? String.valueOf(DEFAULT_ALLOCATION_SIZE) : allocationSize.toString());
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        parameters.setProperty(IdentifierGenerator.ENTITY_NAME, context.getPersistentClass().getEntityName());
+        parameters.setProperty(IdentifierGenerator.JPA_ENTITY_NAME, context.getPersistentClass().getJpaEntityName());
+        configure(context.getProperty().getType(), parameters, context.getServiceRegistry());
+    }
+}
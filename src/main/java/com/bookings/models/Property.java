@@ -12,7 +12,7 @@ import java.util.Objects;
 public class Property implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("properties_seq")
     private Long id;
 
     @Size(min = 3, max = 50)
@@ -0,0 +1,16 @@
+package com.bookings.models;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * A property with the upcoming bookings and blocks of its calendar. Both lists are bounded; {@code moreBookings}
+ * and {@code moreBlocks} tell whether a later page starting after the last entry has more.
+ */
+public record PropertyDetail(@JsonUnwrapped PropertyView property,
+                             List<BookingView> upcomingBookings,
+                             boolean moreBookings,
+                             List<BlockView> upcomingBlocks,
+                             boolean moreBlocks) {
+}
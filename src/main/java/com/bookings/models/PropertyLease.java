@@ -0,0 +1,56 @@
+package com.bookings.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cross-instance write lease on a property. Rows are acquired and released with single SQL statements by
+ * {@code PropertyLeaseService}; the mapping exists so the table is part of the schema and can be inspected.
+ */
+@Entity
+@Table(name = "property_leases")
+public class PropertyLease {
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "owner_id", length = 64)
+    private String ownerId;
+
+    @Column(name = "previous_owner_id", length = 64)
+    private String previousOwnerId;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Deprecated
+    public PropertyLease() {
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public String getPreviousOwnerId() {
+        return previousOwnerId;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
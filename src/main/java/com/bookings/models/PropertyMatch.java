@@ -0,0 +1,11 @@
+package com.bookings.models;
+
+import java.time.LocalDate;
+
+/**
+ * A property free for a stay close to the one asked for. {@code shiftDays} is how far the check-in moved from the
+ * requested date and {@code nights} how long the free stay is, never more than asked for.
+ */
+public record PropertyMatch(Long propertyId, String propertyName, LocalDate checkInDate, LocalDate checkOutDate,
+                            int shiftDays, int nights) {
+}
@@ -0,0 +1,10 @@
+package com.bookings.models;
+
+import java.util.List;
+
+/**
+ * Best matches first. {@code complete} is false when the search ran out of its CPU budget before every property was
+ * evaluated, so a better match may exist.
+ */
+public record PropertySearchResult(List<PropertyMatch> matches, boolean complete) {
+}
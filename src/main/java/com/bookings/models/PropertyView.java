@@ -0,0 +1,7 @@
+package com.bookings.models;
+
+/**
+ * Read model of a property with the names of its owner and manager, without any of its bookings or blocks.
+ */
+public record PropertyView(Long id, String name, Long ownerId, String ownerName, Long managerId, String managerName) {
+}
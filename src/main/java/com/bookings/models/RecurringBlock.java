@@ -0,0 +1,137 @@
+package com.bookings.models;
+
+import com.bookings.calendar.RecurrenceRule;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Days of a property blocked by a {@link RecurrenceRule}, such as every Monday for cleaning. The rule is stored, not
+ * its occurrences: availability checks evaluate it for the dates they look at.
+ */
+@Entity
+@Table(name = "recurring_blocks")
+public class RecurringBlock {
+    @Id
+    @PooledSequence("recurring_blocks_seq")
+    private Long id;
+
+    @Future(message = "Start date need to be in the future")
+    @NotNull(message = "Start date is required")
+    @Column(name = "start_date", columnDefinition = "DATE", nullable = false)
+    private LocalDate startDate;
+
+    /**
+     * Last day the rule may recur on, taken from its {@code UNTIL}; null when it recurs forever.
+     */
+    @Column(name = "until_date", columnDefinition = "DATE")
+    private LocalDate untilDate;
+
+    @NotBlank(message = "Rule is required")
+    @Column(nullable = false)
+    private String rule;
+
+    @JsonIgnore
+    @NotNull(message = "Property is required")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    @Deprecated
+    public RecurringBlock() {
+    }
+
+    public RecurringBlock(LocalDate startDate, String rule, Property property) {
+        this.startDate = startDate;
+        this.rule = rule;
+        this.property = property;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getUntilDate() {
+        return untilDate;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * Replaces the rule with its compiled form, written out in full, and takes its end date from it.
+     */
+    public void setRecurrence(RecurrenceRule recurrence) {
+        this.rule = recurrence.toString();
+        this.untilDate = recurrence.getUntil();
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
+    @JsonGetter("propertyId")
+    public Long getPropertyId() {
+        return property.getId();
+    }
+
+    @JsonSetter("propertyId")
+    public void setPropertyId(Long propertyId) {
+        if (property == null) {
+            this.property = new Property(propertyId);
+        } else {
+            property.setId(propertyId);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecurringBlock that = (RecurringBlock) o;
+        return Objects.equals(id, that.id) && Objects.equals(startDate, that.startDate) && Objects.equals(rule, that.rule);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, startDate, rule);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringBlock{" +
+                "id=" + id +
+                ", startDate=" + startDate +
+                ", rule=" + rule +
+                ", property=" + property +
+                '}';
+    }
+}
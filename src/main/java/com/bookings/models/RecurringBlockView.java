@@ -0,0 +1,14 @@
+package com.bookings.models;
+
+import com.bookings.calendar.RecurrenceRule;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a recurring block. Serialises like {@link RecurringBlock}.
+ */
+public record RecurringBlockView(Long id, LocalDate startDate, LocalDate untilDate, String rule, Long propertyId) {
+    public RecurrenceRule recurrence() {
+        return RecurrenceRule.parse(rule, startDate);
+    }
+}
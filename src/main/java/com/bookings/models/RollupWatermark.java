@@ -0,0 +1,34 @@
+package com.bookings.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * First day a rollup has not covered yet on this shard; every earlier day is rolled up.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "rolled_up_until", nullable = false, columnDefinition = "DATE")
+    private LocalDate rolledUpUntil;
+
+    @Deprecated
+    public RollupWatermark() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getRolledUpUntil() {
+        return rolledUpUntil;
+    }
+}
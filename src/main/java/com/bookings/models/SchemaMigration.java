@@ -0,0 +1,41 @@
+package com.bookings.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A migration script applied on top of the schema Hibernate generates. Mapping the history as an entity keeps it in
+ * step with that schema: when Hibernate recreates the tables, the history starts over with them.
+ */
+@Entity
+@Table(name = "schema_history")
+public class SchemaMigration {
+    @Id
+    private Integer version;
+
+    @Column(nullable = false)
+    private String script;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    @Deprecated
+    public SchemaMigration() {
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
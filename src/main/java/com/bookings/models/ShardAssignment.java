@@ -0,0 +1,37 @@
+package com.bookings.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Shard a property was moved to by the rebalancer. Properties without an assignment live on their default shard.
+ */
+@Entity
+@Table(name = "shard_directory")
+public class ShardAssignment {
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private int shard;
+
+    @Deprecated
+    public ShardAssignment() {
+    }
+
+    public ShardAssignment(Long propertyId, int shard) {
+        this.propertyId = propertyId;
+        this.shard = shard;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookings.repository;
+
+import com.bookings.models.ArchivedBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+}
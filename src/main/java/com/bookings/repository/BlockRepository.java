@@ -2,11 +2,13 @@ package com.bookings.repository;
 
 import com.bookings.models.Block;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Repository
 public interface BlockRepository extends JpaRepository<Block, Long> {
@@ -16,4 +18,34 @@ public interface BlockRepository extends JpaRepository<Block, Long> {
                 :blockDate <= b.endDate  and
                 b.property.id = :propertyId""")
     Boolean existsByBlockDateAndPropertyId(@Param("blockDate") LocalDate blockDate, @Param("propertyId") Long propertyId);
+
+    /**
+     * Blocks of the property, made here or imported, that last until {@code from} or later.
+     */
+    @Query("select b from Block b where b.property.id = :propertyId and b.endDate >= :from")
+    List<Block> findByPropertyIdEndingFrom(@Param("propertyId") Long propertyId, @Param("from") LocalDate from);
+
+    /**
+     * Blocks of the property made here, not imported, that end on or after {@code from} and start on or before
+     * {@code to}, in start order.
+     */
+    @Query("""
+            select b from Block b where b.property.id = :propertyId and b.endDate >= :from and b.startDate <= :to
+                and b.source is null order by b.startDate, b.id""")
+    List<Block> findMergeable(@Param("propertyId") Long propertyId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Blocks of the property made here, not imported, that end on or after {@code from}, in start order.
+     */
+    @Query("""
+            select b from Block b where b.property.id = :propertyId and b.endDate >= :from
+                and b.source is null order by b.startDate, b.id""")
+    List<Block> findMergeableEndingFrom(@Param("propertyId") Long propertyId, @Param("from") LocalDate from);
+
+    /**
+     * Sets the block's dates without validating them, so a block that has already started can be stretched.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Block b set b.startDate = :startDate, b.endDate = :endDate where b.id = :id")
+    int updateDates(@Param("id") Long id, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,28 @@
+package com.bookings.repository;
+
+import com.bookings.models.BookingNight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BookingNightRepository extends JpaRepository<BookingNight, BookingNight.Key> {
+    /**
+     * Inserts every night of a stay in one statement. Fails on the primary key if any of them is already taken.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_nights (property_id, night, booking_id)
+            SELECT CAST(:propertyId AS BIGINT), DATEADD(DAY, X, CAST(:checkInDate AS DATE)), CAST(:bookingId AS BIGINT)
+            FROM SYSTEM_RANGE(0, CAST(:nights AS INT) - 1)""", nativeQuery = true)
+    int occupy(@Param("propertyId") Long propertyId, @Param("checkInDate") LocalDate checkInDate,
+               @Param("nights") int nights, @Param("bookingId") Long bookingId);
+
+    @Modifying
+    @Query("delete from BookingNight n where n.bookingId = :bookingId")
+    int release(@Param("bookingId") Long bookingId);
+}
@@ -7,14 +7,34 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("""
             select case when count(b)> 0 then true else false end from Booking b where
-                 b.checkInDate >= :checkinDate and
-                 b.checkOutDate >= :checkoutDate and
+                 b.checkInDate < :checkoutDate and
+                 b.checkOutDate > :checkinDate and
                  b.property.id = :propertyId and
                  b.canceled = :canceled""")
     boolean isBooked(@Param("checkinDate") LocalDate checkinDate, @Param("checkoutDate") LocalDate checkoutDate, @Param("propertyId") Long propertyId, @Param("canceled") boolean canceled);
+
+    /**
+     * Whether a booking, canceled or not, already has exactly these dates; the stay is unique per property.
+     */
+    @Query("""
+            select case when count(b)> 0 then true else false end from Booking b where
+                 b.checkInDate = :checkinDate and
+                 b.checkOutDate = :checkoutDate and
+                 b.property.id = :propertyId""")
+    boolean hasStay(@Param("checkinDate") LocalDate checkinDate, @Param("checkoutDate") LocalDate checkoutDate, @Param("propertyId") Long propertyId);
+
+    @Query("select b.property.id as propertyId, count(b) as bookings from Booking b group by b.property.id")
+    List<PropertyLoad> countByProperty();
+
+    interface PropertyLoad {
+        Long getPropertyId();
+
+        long getBookings();
+    }
 }
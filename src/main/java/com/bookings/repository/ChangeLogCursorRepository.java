@@ -0,0 +1,17 @@
+package com.bookings.repository;
+
+import com.bookings.models.ChangeLogCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ChangeLogCursorRepository extends JpaRepository<ChangeLogCursor, String> {
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeLogCursor c where c.lastAppliedId < :id")
+    int deleteAppliedBefore(@Param("id") long id);
+}
@@ -0,0 +1,29 @@
+package com.bookings.repository;
+
+import com.bookings.models.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    List<ChangeLogEntry> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from ChangeLogEntry e")
+    long findLastId();
+
+    @Query("select coalesce(min(e.id), 0) from ChangeLogEntry e")
+    long findFirstId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,42 @@
+package com.bookings.repository;
+
+import com.bookings.models.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+    @Query("""
+            select case when count(h)> 0 then true else false end from Hold h where
+                 h.checkInDate < :checkoutDate and
+                 h.checkOutDate > :checkinDate and
+                 h.property.id = :propertyId and
+                 h.expiresAt > :now""")
+    boolean isHeld(@Param("checkinDate") LocalDate checkinDate, @Param("checkoutDate") LocalDate checkoutDate, @Param("propertyId") Long propertyId, @Param("now") LocalDateTime now);
+
+    List<Expiration> findByExpiresAtAfter(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Hold h where h.id = :id and h.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Hold h where h.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    interface Expiration {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,109 @@
+package com.bookings.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams the rows occupancy is computed from, one callback per row with primitive values, so neither the rollup
+ * job nor reports hold more than their running totals. Archived bookings are read along with live ones: archival
+ * must not change what a period's occupancy was. Every method runs in the caller's transaction on the current shard.
+ */
+@Repository
+public class OccupancyRepository {
+    public static final String OCCUPANCY = "occupancy";
+
+    private static final String STAYS_SQL = """
+            SELECT property_id, checkin_date, checkout_date, canceled FROM bookings WHERE checkin_date < ? AND checkout_date > ?
+            UNION ALL
+            SELECT property_id, checkin_date, checkout_date, canceled FROM bookings_archive WHERE checkin_date < ? AND checkout_date > ?""";
+    private static final String BLOCKS_SQL = """
+            SELECT property_id, start_date, end_date FROM blocks WHERE start_date < ? AND end_date >= ? ORDER BY start_date""";
+    private static final String ROLLUPS_SQL = """
+            SELECT property_id, SUM(booked_nights), SUM(blocked_nights), SUM(check_ins), SUM(canceled_check_ins)
+            FROM occupancy_rollups WHERE night >= ? AND night < ? GROUP BY property_id""";
+    private static final String SAVE_ROLLUP_SQL = """
+            MERGE INTO occupancy_rollups (property_id, night, booked_nights, blocked_nights, check_ins, canceled_check_ins)
+            KEY (property_id, night) VALUES (?, ?, ?, ?, ?, ?)""";
+    private static final String FIRST_DAY_SQL = """
+            SELECT MIN(first_day) FROM (
+                SELECT MIN(checkin_date) AS first_day FROM bookings
+                UNION ALL SELECT MIN(checkin_date) FROM bookings_archive
+                UNION ALL SELECT MIN(start_date) FROM blocks)""";
+    private static final String WATERMARK_SQL = "SELECT rolled_up_until FROM rollup_watermarks WHERE name = ?";
+    private static final String SAVE_WATERMARK_SQL = "MERGE INTO rollup_watermarks (name, rolled_up_until) KEY (name) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OccupancyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Bookings, canceled or not, with at least one night in {@code [from, to)}.
+     */
+    public void forEachStay(LocalDate from, LocalDate to, StayHandler handler) {
+        jdbcTemplate.query(STAYS_SQL, (RowCallbackHandler) rs -> handler.stay(rs.getLong(1),
+                        rs.getObject(2, LocalDate.class).toEpochDay(), rs.getObject(3, LocalDate.class).toEpochDay(), rs.getBoolean(4)),
+                to, from, to, from);
+    }
+
+    /**
+     * Blocks with at least one day in {@code [from, to)}, in start order; the end day is the last blocked one. Blocks
+     * of a property may overlap.
+     */
+    public void forEachBlock(LocalDate from, LocalDate to, BlockHandler handler) {
+        jdbcTemplate.query(BLOCKS_SQL, (RowCallbackHandler) rs -> handler.block(rs.getLong(1),
+                rs.getObject(2, LocalDate.class).toEpochDay(), rs.getObject(3, LocalDate.class).toEpochDay()), to, from);
+    }
+
+    /**
+     * Rolled-up days in {@code [from, to)}, summed per property by the database.
+     */
+    public void forEachRollupTotal(LocalDate from, LocalDate to, RollupHandler handler) {
+        jdbcTemplate.query(ROLLUPS_SQL, (RowCallbackHandler) rs -> handler.totals(rs.getLong(1),
+                rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)), from, to);
+    }
+
+    /**
+     * Writes rollup rows of {@code (property_id, night, booked, blocked, check_ins, canceled_check_ins)} in one batch,
+     * replacing rows of the same night.
+     */
+    public void saveRollups(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(SAVE_ROLLUP_SQL, rows);
+    }
+
+    /**
+     * Earliest day anything was booked or blocked, empty when nothing ever was.
+     */
+    public Optional<LocalDate> findFirstDay() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(FIRST_DAY_SQL, LocalDate.class));
+    }
+
+    public Optional<LocalDate> findWatermark(String name) {
+        return jdbcTemplate.queryForList(WATERMARK_SQL, LocalDate.class, name).stream().findFirst();
+    }
+
+    public void saveWatermark(String name, LocalDate rolledUpUntil) {
+        jdbcTemplate.update(SAVE_WATERMARK_SQL, name, rolledUpUntil);
+    }
+
+    @FunctionalInterface
+    public interface StayHandler {
+        void stay(long propertyId, long checkInDay, long checkOutDay, boolean canceled);
+    }
+
+    @FunctionalInterface
+    public interface BlockHandler {
+        void block(long propertyId, long startDay, long endDay);
+    }
+
+    @FunctionalInterface
+    public interface RollupHandler {
+        void totals(long propertyId, long bookedNights, long blockedNights, long checkIns, long canceledCheckIns);
+    }
+}
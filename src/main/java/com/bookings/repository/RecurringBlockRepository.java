@@ -0,0 +1,19 @@
+package com.bookings.repository;
+
+import com.bookings.models.RecurringBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RecurringBlockRepository extends JpaRepository<RecurringBlock, Long> {
+    /**
+     * Recurring blocks of the property that may still recur on {@code date} or later.
+     */
+    @Query("select r from RecurringBlock r where r.property.id = :propertyId and (r.untilDate is null or r.untilDate >= :date)")
+    List<RecurringBlock> findByPropertyIdRecurringFrom(@Param("propertyId") Long propertyId, @Param("date") LocalDate date);
+}
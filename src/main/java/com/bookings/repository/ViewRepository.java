@@ -0,0 +1,175 @@
+package com.bookings.repository;
+
+import com.bookings.models.BlockView;
+import com.bookings.models.BookingView;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.OccupancyTimeline;
+import com.bookings.models.PropertyView;
+import com.bookings.models.RecurringBlockView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the record views straight from the rows, bypassing the persistence context: no entity, proxy or
+ * dirty-checking snapshot is created. Plain JDBC rather than JPQL constructor expressions, because query methods
+ * re-process their query text on every call and allocate several times what the row itself needs. Each read runs in
+ * a read-only transaction, like Spring Data's own finders, so it is routed to a replica.
+ */
+@Repository
+public class ViewRepository {
+    private static final String BOOKING_COLUMNS =
+            "id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name, guest_age, guest_social_security_id, canceled";
+    private static final String BOOKING_SQL = "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE id = ?";
+    private static final String ARCHIVED_BOOKING_SQL = "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive WHERE id = ?";
+    private static final String UPCOMING_BOOKINGS_SQL = "SELECT " + BOOKING_COLUMNS + """
+             FROM bookings WHERE property_id = ? AND canceled = FALSE AND checkout_date > ?
+            ORDER BY checkin_date FETCH FIRST ? ROWS ONLY""";
+    private static final String BLOCK_COLUMNS = "id, start_date, end_date, property_id";
+    private static final String BLOCK_SQL = "SELECT " + BLOCK_COLUMNS + " FROM blocks WHERE id = ?";
+    private static final String UPCOMING_BLOCKS_SQL = "SELECT " + BLOCK_COLUMNS + """
+             FROM blocks WHERE property_id = ? AND end_date >= ?
+            ORDER BY start_date FETCH FIRST ? ROWS ONLY""";
+    private static final String RECURRING_BLOCK_COLUMNS = "id, start_date, until_date, rule, property_id";
+    private static final String RECURRING_BLOCK_SQL = "SELECT " + RECURRING_BLOCK_COLUMNS + " FROM recurring_blocks WHERE id = ?";
+    private static final String RECURRING_BLOCKS_SQL = "SELECT " + RECURRING_BLOCK_COLUMNS + """
+             FROM recurring_blocks WHERE property_id = ? AND (until_date IS NULL OR until_date >= ?)
+            ORDER BY id""";
+    private static final String OCCUPIED_SQL = """
+            SELECT checkin_date, checkout_date FROM bookings WHERE property_id = ? AND canceled = FALSE AND checkout_date > ?
+            UNION ALL
+            SELECT start_date, DATEADD(DAY, 1, end_date) FROM blocks WHERE property_id = ? AND end_date >= ?
+            ORDER BY 1""";
+    private static final String CALENDAR_SQL = """
+            SELECT 'BOOKING', id, checkin_date, checkout_date FROM bookings WHERE property_id = ? AND canceled = FALSE AND checkout_date > ?
+            UNION ALL
+            SELECT 'BLOCK', id, start_date, DATEADD(DAY, 1, end_date) FROM blocks WHERE property_id = ? AND end_date >= ?
+            ORDER BY 3, 2""";
+    private static final String PROPERTY_SQL = """
+            SELECT p.id, p.name, o.id, o.name, m.id, m.name
+            FROM properties p JOIN owners o ON o.id = p.owner_id LEFT JOIN managers m ON m.id = p.manager_id
+            WHERE p.id = ?""";
+    private static final String PROPERTIES_SQL = """
+            SELECT p.id, p.name, o.id, o.name, m.id, m.name
+            FROM properties p JOIN owners o ON o.id = p.owner_id LEFT JOIN managers m ON m.id = p.manager_id
+            WHERE (CAST(? AS BIGINT) IS NULL OR o.id = ?) AND (CAST(? AS BIGINT) IS NULL OR m.id = ?)
+            ORDER BY p.id""";
+
+    private static final RowMapper<BookingView> BOOKING = (rs, rowNum) -> new BookingView(
+            rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getObject(3, LocalDate.class), rs.getLong(4),
+            rs.getString(5), rs.getString(6), rs.getInt(7), rs.getString(8), rs.getObject(9, Boolean.class));
+    private static final RowMapper<BlockView> BLOCK = (rs, rowNum) -> new BlockView(
+            rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getObject(3, LocalDate.class), rs.getLong(4));
+    private static final RowMapper<RecurringBlockView> RECURRING_BLOCK = (rs, rowNum) -> new RecurringBlockView(
+            rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getObject(3, LocalDate.class), rs.getString(4), rs.getLong(5));
+    private static final RowMapper<PropertyView> PROPERTY = (rs, rowNum) -> new PropertyView(
+            rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4), rs.getObject(5, Long.class), rs.getString(6));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+
+    public ViewRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public Optional<BookingView> findBooking(Long id) {
+        return findOne(BOOKING_SQL, BOOKING, id);
+    }
+
+    public Optional<BookingView> findArchivedBooking(Long id) {
+        return findOne(ARCHIVED_BOOKING_SQL, BOOKING, id);
+    }
+
+    /**
+     * Bookings of the property that are not canceled and check out after {@code from}, in stay order.
+     */
+    public List<BookingView> findUpcomingBookings(Long propertyId, LocalDate from, int limit) {
+        return readOnly.execute(status -> jdbcTemplate.query(UPCOMING_BOOKINGS_SQL, BOOKING, propertyId, from, limit));
+    }
+
+    public Optional<BlockView> findBlock(Long id) {
+        return findOne(BLOCK_SQL, BLOCK, id);
+    }
+
+    /**
+     * Blocks of the property that end on or after {@code from}, in start order.
+     */
+    public List<BlockView> findUpcomingBlocks(Long propertyId, LocalDate from, int limit) {
+        return readOnly.execute(status -> jdbcTemplate.query(UPCOMING_BLOCKS_SQL, BLOCK, propertyId, from, limit));
+    }
+
+    public Optional<RecurringBlockView> findRecurringBlock(Long id) {
+        return findOne(RECURRING_BLOCK_SQL, RECURRING_BLOCK, id);
+    }
+
+    /**
+     * Recurring blocks of the property that may still recur on {@code from} or later. Runs in the caller's
+     * transaction when there is one.
+     */
+    public List<RecurringBlockView> findRecurringBlocks(Long propertyId, LocalDate from) {
+        return readOnly.execute(status -> jdbcTemplate.query(RECURRING_BLOCKS_SQL, RECURRING_BLOCK, propertyId, from));
+    }
+
+    /**
+     * Nights of the property taken from {@code from} on by bookings that are not canceled and by blocks, whose end
+     * date is the last blocked night, with the rules of its recurring blocks. Runs in the caller's transaction when
+     * there is one.
+     */
+    public OccupancyTimeline findOccupancy(Long propertyId, LocalDate from) {
+        return readOnly.execute(status -> {
+            OccupancyTimeline.Builder timeline = OccupancyTimeline.builder();
+            jdbcTemplate.query(OCCUPIED_SQL, (RowCallbackHandler) rs ->
+                    timeline.occupy(rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)),
+                    propertyId, from, propertyId, from);
+            findRecurringBlocks(propertyId, from).forEach(block -> timeline.recur(block.recurrence()));
+            return timeline.build();
+        });
+    }
+
+    /**
+     * Streams the bookings that are not canceled and the blocks of the property still ahead of {@code from}, in start
+     * order, each with an exclusive end date. Runs in the caller's transaction when there is one.
+     */
+    public void forEachCalendarEvent(Long propertyId, LocalDate from, CalendarEventHandler handler) {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(CALENDAR_SQL, (RowCallbackHandler) rs -> handler.event(
+                        EntityType.valueOf(rs.getString(1).trim()), rs.getLong(2), rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDate.class)),
+                propertyId, from, propertyId, from));
+    }
+
+    public Optional<PropertyView> findProperty(Long id) {
+        return findOne(PROPERTY_SQL, PROPERTY, id);
+    }
+
+    /**
+     * Every property, or only those of {@code ownerId} and managed by {@code managerId} when given.
+     */
+    public List<PropertyView> findProperties(Long ownerId, Long managerId) {
+        return readOnly.execute(status -> jdbcTemplate.query(PROPERTIES_SQL, PROPERTY, ownerId, ownerId, managerId, managerId));
+    }
+
+    /**
+     * Like {@link #findProperties(Long, Long)}, but at most the {@code limit} lowest ids.
+     */
+    public List<PropertyView> findProperties(Long ownerId, Long managerId, int limit) {
+        return readOnly.execute(status -> jdbcTemplate.query(PROPERTIES_SQL + " FETCH FIRST ? ROWS ONLY", PROPERTY,
+                ownerId, ownerId, managerId, managerId, limit));
+    }
+
+    private <T> Optional<T> findOne(String sql, RowMapper<T> rowMapper, Long id) {
+        return readOnly.execute(status -> jdbcTemplate.query(sql, rowMapper, id).stream().findFirst());
+    }
+
+    @FunctionalInterface
+    public interface CalendarEventHandler {
+        void event(EntityType entityType, long id, LocalDate start, LocalDate end);
+    }
+}
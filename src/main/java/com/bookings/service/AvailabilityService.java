@@ -0,0 +1,91 @@
+package com.bookings.service;
+
+import com.bookings.cache.BoundedCache;
+import com.bookings.config.AvailabilityProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.AvailableWindow;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.OccupancyTimeline;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers "when is this property next free for n nights" from an in-memory {@link OccupancyTimeline} per property,
+ * built with one query on first use and dropped whenever a booking, block or shard assignment of the property
+ * changes on any node, when it expires, or when it is the least recently used beyond the configured maximum. A search is then a binary search and a walk over the gaps, without touching the database.
+ * <p>
+ * Holds are not part of the timeline: they last minutes and are not in the change log, so a window may be held by
+ * someone else when it is booked, which the booking itself reports.
+ */
+@Service
+public class AvailabilityService implements ChangeLogListener {
+    public static final int DEFAULT_LIMIT = 5;
+    public static final int MAX_LIMIT = 50;
+    public static final int MAX_NIGHTS = 365;
+
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+    private final TransactionTemplate primary;
+    private final BoundedCache<Long, OccupancyTimeline> timelines;
+
+    public AvailabilityService(ViewRepository viewRepository, Shards shards, PlatformTransactionManager transactionManager,
+                               AvailabilityProperties properties) {
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+        // Read-write on purpose: a cached timeline outlives the replica lag a single read would tolerate.
+        this.primary = new TransactionTemplate(transactionManager);
+        this.timelines = new BoundedCache<>(properties.getMaximumTimelines(), properties.getExpireAfterWrite());
+    }
+
+    /**
+     * At most {@code limit} windows of {@code nights} nights checking in on or after {@code after}, or today if that
+     * is later. Empty when the property does not exist.
+     */
+    public Optional<List<AvailableWindow>> nextAvailable(Long propertyId, int nights, LocalDate after, int limit) {
+        if (nights < 1 || nights > MAX_NIGHTS) {
+            throw new BusinessException("Nights must be between 1 and %s".formatted(MAX_NIGHTS),
+                    ErrorCode.INVALID_AVAILABILITY_QUERY, false);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = after == null || after.isBefore(today) ? today : after;
+        int windows = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return timeline(propertyId).map(timeline -> timeline.nextAvailable(from, nights, windows));
+    }
+
+    /**
+     * The property's occupied nights from the day it was loaded on. Empty when the property does not exist.
+     */
+    public Optional<OccupancyTimeline> timeline(Long propertyId) {
+        // A change evicting the property while it loads drops the load, so a timeline that raced with it is not kept.
+        return Optional.ofNullable(timelines.get(propertyId, this::load));
+    }
+
+    /**
+     * The property's timeline if it is in memory, without loading it.
+     */
+    public Optional<OccupancyTimeline> cachedTimeline(Long propertyId) {
+        return Optional.ofNullable(timelines.getIfPresent(propertyId));
+    }
+
+    @Override
+    public void onChange(ChangeLogEntry entry) {
+        if (entry.getPropertyId() != null) {
+            timelines.invalidate(entry.getPropertyId());
+        }
+    }
+
+    private OccupancyTimeline load(Long propertyId) {
+        LocalDate today = LocalDate.now();
+        return shards.onPropertyShard(propertyId, () -> primary.execute(status -> viewRepository.findProperty(propertyId)
+                .map(property -> viewRepository.findOccupancy(propertyId, today))
+                .orElse(null)));
+    }
+}
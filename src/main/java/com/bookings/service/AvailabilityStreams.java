@@ -0,0 +1,286 @@
+package com.bookings.service;
+
+import com.bookings.config.StreamProperties;
+import com.bookings.exception.ServiceOverloadedException;
+import com.bookings.models.AvailabilityEvent;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent event streams of booking and block changes, per property or for every property. Changes arrive as
+ * change log entries: the mutations of {@link BookingService} and {@link BlockService} on this node right after they
+ * commit, and those of other nodes when the log is polled. Delivery is at least once and there is no replay; a client
+ * that reconnects reads the property again.
+ * <p>
+ * Fan-out runs on the thread that committed the change and never blocks it: each subscriber has a bounded buffer the
+ * event is offered to, and a subscriber with pending events is handed to the {@code streamSender} threads, at most
+ * once at a time, which write to its connection. A subscriber whose buffer is full has fallen too far behind; it is
+ * dropped at once, sent an {@code overflow} event when its connection allows, and completed. The senders are a small
+ * fixed pool; a write that has blocked for longer than {@code writeTimeout} is a slow consumer too, and
+ * {@link #dropStalled()} drops it and interrupts the sender thread writing to it, so stalled connections cannot hold
+ * the pool for the servlet container's much longer write timeout.
+ */
+@Service
+public class AvailabilityStreams implements ChangeLogListener {
+    static final String EVENT_NAME = "availability";
+    static final String OVERFLOW_EVENT_NAME = "overflow";
+
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService streamSender;
+    private final StreamProperties properties;
+    private final Map<Long, Set<Subscriber>> propertySubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> firehoseSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AvailabilityStreams(ViewRepository viewRepository, Shards shards, PlatformTransactionManager transactionManager,
+                               ExecutorService streamSender, StreamProperties properties,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.streamSender = streamSender;
+        this.properties = properties;
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("bookings.streams.subscribers", subscribers, AtomicInteger::get).register(registry);
+            FunctionCounter.builder("bookings.streams.dropped", dropped, AtomicLong::get).register(registry);
+        });
+    }
+
+    /**
+     * Streams the changes of one property. Empty when the property does not exist.
+     */
+    public Optional<SseEmitter> subscribe(Long propertyId) {
+        boolean exists = shards.onPropertyShard(propertyId, () ->
+                readOnly.execute(status -> viewRepository.findProperty(propertyId).isPresent()));
+        return exists ? Optional.of(open(propertyId)) : Optional.empty();
+    }
+
+    /**
+     * Streams the changes of every property.
+     */
+    public SseEmitter subscribeAll() {
+        return open(null);
+    }
+
+    @Override
+    public void onChange(ChangeLogEntry entry) {
+        if (entry.getEntityType() == EntityType.SHARD_ASSIGNMENT || subscribers.get() == 0) {
+            return;
+        }
+        AvailabilityEvent event = new AvailabilityEvent(sequence.incrementAndGet(), entry.getPropertyId(),
+                entry.getEntityType(), entry.getEntityId(), entry.getOperation(), entry.getChangedAt());
+        Set<Subscriber> watching = propertySubscribers.get(entry.getPropertyId());
+        if (watching != null) {
+            watching.forEach(subscriber -> subscriber.offer(event));
+        }
+        firehoseSubscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    /**
+     * Has a comment sent to every subscriber, so idle connections stay open and closed ones are noticed.
+     */
+    public void heartbeat() {
+        propertySubscribers.values().forEach(watching -> watching.forEach(Subscriber::heartbeat));
+        firehoseSubscribers.forEach(Subscriber::heartbeat);
+    }
+
+    /**
+     * Drops the subscribers whose current write has blocked for longer than {@code writeTimeout}.
+     */
+    public void dropStalled() {
+        long now = System.nanoTime();
+        propertySubscribers.values().forEach(watching -> watching.forEach(subscriber -> subscriber.dropIfStalled(now)));
+        firehoseSubscribers.forEach(subscriber -> subscriber.dropIfStalled(now));
+    }
+
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private SseEmitter open(Long propertyId) {
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ServiceOverloadedException("stream", properties.getRetryAfter());
+        }
+        SseEmitter emitter = newEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(propertyId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+        if (propertyId == null) {
+            firehoseSubscribers.add(subscriber);
+        } else {
+            propertySubscribers.compute(propertyId, (id, watching) -> {
+                Set<Subscriber> set = watching == null ? ConcurrentHashMap.newKeySet() : watching;
+                set.add(subscriber);
+                return set;
+            });
+        }
+        try {
+            // Held by the emitter until the request goes async, then flushed with the response headers.
+            emitter.send(SseEmitter.event().reconnectTime(properties.getRetryAfter().toMillis()).comment("subscribed"));
+        } catch (IOException e) {
+            subscriber.close();
+            throw new IllegalStateException("Could not open availability stream", e);
+        }
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private final class Subscriber implements Runnable {
+        private final Long propertyId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<AvailabilityEvent> buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean overflowSent = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+        private volatile Thread writer;
+        private volatile long writeStartedAt;
+
+        Subscriber(Long propertyId, SseEmitter emitter) {
+            this.propertyId = propertyId;
+            this.emitter = emitter;
+        }
+
+        void offer(AvailabilityEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflowed = true;
+                if (close()) {
+                    dropped.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            if (!closed.get()) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        /**
+         * Stops routing events to this subscriber. Returns whether this call closed it.
+         */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (propertyId == null) {
+                firehoseSubscribers.remove(this);
+            } else {
+                propertySubscribers.computeIfPresent(propertyId, (id, watching) -> {
+                    watching.remove(this);
+                    return watching.isEmpty() ? null : watching;
+                });
+            }
+            subscribers.decrementAndGet();
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    streamSender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        void dropIfStalled(long now) {
+            Thread stalledWriter = writer;
+            if (stalledWriter == null || now - writeStartedAt <= properties.getWriteTimeout().toNanos()) {
+                return;
+            }
+            // Nothing more can be written to it, not even the overflow event.
+            overflowSent.set(true);
+            if (close()) {
+                dropped.incrementAndGet();
+            }
+            if (writer == stalledWriter) {
+                stalledWriter.interrupt();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStartedAt = System.nanoTime();
+            writer = Thread.currentThread();
+            try {
+                emitter.send(event);
+            } finally {
+                writer = null;
+            }
+        }
+
+        private boolean hasWork() {
+            return overflowed ? !overflowSent.get() : !closed.get() && (!buffer.isEmpty() || heartbeatDue);
+        }
+
+        @Override
+        public void run() {
+            try {
+                AvailabilityEvent event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    send(SseEmitter.event().id(Long.toString(event.sequence())).name(EVENT_NAME).data(event));
+                }
+                if (heartbeatDue && !closed.get()) {
+                    heartbeatDue = false;
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+                if (overflowed && overflowSent.compareAndSet(false, true)) {
+                    send(SseEmitter.event().name(OVERFLOW_EVENT_NAME)
+                            .data("More than %s events behind, read the property again".formatted(properties.getBufferSize())));
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already completed; the container reports the error to the emitter.
+                overflowSent.set(true);
+                close();
+            } finally {
+                scheduled.set(false);
+                // Work offered while this run was finishing found it still scheduled and did not schedule it again.
+                if (hasWork()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.AdmissionControl;
+import com.bookings.config.CompactionProperties;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps every property down to one block per blocked stretch, so block lookups scan as few ranges as possible. Each
+ * run finds the properties with a block made here that overlaps or touches an earlier one still ending today or
+ * later, {@code batchSize} at a time, and has {@link BlockService#compactBlocks} merge them, one property per short
+ * transaction under its lease, with {@code pause} between batches. Like archival, it waits while admission control
+ * reports the foreground busier than {@code maxUtilization}. Imported blocks are left as their source sent them.
+ */
+@Service
+public class BlockCompactor {
+    private static final Logger log = LoggerFactory.getLogger(BlockCompactor.class);
+    // The latest end among the property's earlier blocks tells whether a block overlaps or touches any of them.
+    private static final String FRAGMENTED_SQL = """
+            SELECT DISTINCT property_id FROM (
+                SELECT property_id, start_date, MAX(end_date) OVER (PARTITION BY property_id ORDER BY start_date, id
+                    ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS reach
+                FROM blocks WHERE source IS NULL AND end_date >= ? AND property_id > ?)
+            WHERE start_date <= DATEADD(DAY, 1, reach)
+            ORDER BY property_id FETCH FIRST ? ROWS ONLY""";
+
+    private final BlockService blockService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate primary;
+    private final Shards shards;
+    private final ObjectProvider<AdmissionControl> admissionControl;
+    private final CompactionProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter merged;
+
+    public BlockCompactor(BlockService blockService, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          Shards shards, ObjectProvider<AdmissionControl> admissionControl, CompactionProperties properties,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.blockService = blockService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Read on the primary: a replica behind it would send properties back that were merged already.
+        this.primary = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.admissionControl = admissionControl;
+        this.properties = properties;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.merged = registry == null ? null : Counter.builder("bookings.compaction.merged").register(registry);
+    }
+
+    /**
+     * Compacts the blocks of every property on every shard. Returns the number of blocks merged away, or 0 if a run
+     * was already in progress.
+     */
+    public long compact() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long total = 0;
+            for (int shard = 0; shard < shards.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+                total += shards.onShard(shard, this::compactCurrentShard);
+            }
+            if (total > 0) {
+                log.info("Merged {} blocks", total);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long compactCurrentShard() {
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        long after = 0;
+        try {
+            while (true) {
+                awaitQuietForeground();
+                long from = after;
+                List<Long> propertyIds = primary.execute(status ->
+                        jdbcTemplate.queryForList(FRAGMENTED_SQL, Long.class, today, from, properties.getBatchSize()));
+                for (Long propertyId : propertyIds) {
+                    int batch = blockService.compactBlocks(propertyId, today);
+                    if (merged != null) {
+                        merged.increment(batch);
+                    }
+                    total += batch;
+                    after = propertyId;
+                }
+                if (propertyIds.size() < properties.getBatchSize()) {
+                    return total;
+                }
+                Thread.sleep(properties.getPause().toMillis());
+            }
+        } catch (InterruptedException e) {
+            // Shutting down: every property compacted so far is complete, the rest waits for the next run.
+            Thread.currentThread().interrupt();
+            return total;
+        }
+    }
+
+    private void awaitQuietForeground() throws InterruptedException {
+        AdmissionControl control = admissionControl.getIfAvailable();
+        while (control != null && control.utilization() > properties.getMaxUtilization()) {
+            Thread.sleep(properties.getPause().toMillis());
+        }
+    }
+}
@@ -1,42 +1,372 @@
 package com.bookings.service;
 
+import com.bookings.calendar.RecurrenceRule;
 import com.bookings.exception.BusinessException;
 import com.bookings.exception.ErrorCode;
 import com.bookings.exception.PropertyAlreadyBlockedException;
 import com.bookings.models.Block;
+import com.bookings.models.BlockView;
+import com.bookings.models.CalendarImportResult;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.models.RecurringBlock;
+import com.bookings.models.RecurringBlockView;
 import com.bookings.repository.BlockRepository;
+import com.bookings.repository.RecurringBlockRepository;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class BlockService {
+    private static final BusinessException INVALID_BLOCK_DATES =
+            new BusinessException("Block dates are invalid", ErrorCode.INVALID_BLOCK_DATES, false);
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+    // Ending after the start bounds the scan of blocks_conflict_idx to the blocks that can qualify.
+    private static final String PURGE_SQL = """
+            SELECT id FROM OLD TABLE (
+                DELETE FROM blocks WHERE property_id = ? AND end_date > ? AND start_date >= ? AND start_date < ?)
+            ORDER BY id""";
+
     private final BlockRepository blockRepository;
+    private final RecurringBlockRepository recurringBlockRepository;
+    private final ViewRepository viewRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeLogService changeLogService;
+    private final PropertyLeaseService propertyLeaseService;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
 
-    public BlockService(BlockRepository blockRepository) {
+    public BlockService(BlockRepository blockRepository, RecurringBlockRepository recurringBlockRepository,
+                        ViewRepository viewRepository, JdbcTemplate jdbcTemplate, ChangeLogService changeLogService,
+                        PropertyLeaseService propertyLeaseService, Shards shards, PlatformTransactionManager transactionManager) {
         this.blockRepository = blockRepository;
+        this.recurringBlockRepository = recurringBlockRepository;
+        this.viewRepository = viewRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLogService = changeLogService;
+        this.propertyLeaseService = propertyLeaseService;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Block createBlock(Block block) {
+        return shards.onPropertyShard(block.getPropertyId(), () -> transactionTemplate.execute(status -> {
+            checkBlockDates(block);
+            checkAlreadyBlocked(block);
+            return save(block, Operation.CREATED);
+        }));
+    }
+
+    /**
+     * Creates the block merged with the blocks made here that it overlaps or touches: the earliest of them is
+     * stretched over all of them and the others are deleted, so the property keeps one block per blocked stretch.
+     * Imported blocks are never merged, their source owns them. Without a block to merge with, this is
+     * {@link #createBlock}.
+     */
+    public Block createAndMergeBlock(Block block) {
+        checkBlockDates(block);
+        return underLease(block.getPropertyId(), () -> {
+            List<Block> touching = blockRepository.findMergeable(block.getPropertyId(),
+                    block.getStartDate().minusDays(1), block.getEndDate().plusDays(1));
+            if (touching.isEmpty()) {
+                checkAlreadyBlocked(block);
+                return save(block, Operation.CREATED);
+            }
+            Block survivor = touching.get(0);
+            merge(survivor, touching.subList(1, touching.size()), earliest(survivor.getStartDate(), block.getStartDate()),
+                    latest(survivor.getEndDate(), block.getEndDate()));
+            return blockRepository.findById(survivor.getId()).orElseThrow();
+        });
+    }
+
+    /**
+     * Updates the block and merges it with the blocks made here that its new dates overlap or touch, keeping its id.
+     * The blocks it absorbs are looked up against its new dates but deleted before those are written, so it may take
+     * exactly the dates of one of them. Without a block to merge with, this is {@link #updateBlock}.
+     */
+    public Block updateAndMergeBlock(Block block) {
         checkBlockDates(block);
-        checkAlreadyBlocked(block);
-        return this.blockRepository.save(block);
+        return underLease(block.getPropertyId(), () -> {
+            if (!blockRepository.existsById(block.getId())) {
+                throw new BusinessException("Couldn't update block with id=" + block.getId(), ErrorCode.UNEXPECTED_ERROR);
+            }
+            List<Block> touching = blockRepository.findMergeable(block.getPropertyId(),
+                    block.getStartDate().minusDays(1), block.getEndDate().plusDays(1));
+            touching.removeIf(other -> other.getId().equals(block.getId()));
+            if (touching.isEmpty()) {
+                return save(block, Operation.UPDATED);
+            }
+            merge(block, touching, block.getStartDate(), block.getEndDate());
+            return blockRepository.findById(block.getId()).orElseThrow();
+        });
     }
 
+    /**
+     * Merges every run of overlapping or touching blocks the property made here that end on or after {@code from}
+     * into its earliest block. Returns the number of blocks merged away.
+     */
+    public int compactBlocks(Long propertyId, LocalDate from) {
+        return underLease(propertyId, () -> {
+            int merged = 0;
+            List<Block> run = new ArrayList<>();
+            LocalDate reach = null;
+            for (Block block : blockRepository.findMergeableEndingFrom(propertyId, from)) {
+                if (reach != null && !block.getStartDate().isAfter(reach.plusDays(1))) {
+                    run.add(block);
+                    reach = block.getEndDate().isAfter(reach) ? block.getEndDate() : reach;
+                    continue;
+                }
+                merged += mergeRun(run);
+                run = new ArrayList<>(List.of(block));
+                reach = block.getEndDate();
+            }
+            return merged + mergeRun(run);
+        });
+    }
+
+    public Optional<BlockView> getBlock(Long id) {
+        return shards.findFirst(() -> viewRepository.findBlock(id));
+    }
+
+    /**
+     * Whether a block covers the date or a recurring block of the property falls on it. Recurring blocks are read as
+     * rules and tested against the date; their occurrences are never listed.
+     */
     public boolean isBlocked(LocalDate blockDate, Long propertyId) {
-        return blockRepository.existsByBlockDateAndPropertyId(blockDate, propertyId);
+        return blockRepository.existsByBlockDateAndPropertyId(blockDate, propertyId)
+                || recurringBlockRepository.findByPropertyIdRecurringFrom(propertyId, blockDate).stream()
+                .anyMatch(block -> RecurrenceRule.parse(block.getRule(), block.getStartDate()).matches(blockDate));
+    }
+
+    /**
+     * Whether a stay checking in and out on these dates is blocked: a block covers its check-in or a recurring block
+     * falls on any of its nights, as the occupancy timeline reads them. Each rule jumps straight to its next
+     * occurrence, so a long stay costs no more than a short one.
+     */
+    public boolean isBlocked(LocalDate checkIn, LocalDate checkOut, Long propertyId) {
+        int from = (int) checkIn.toEpochDay();
+        int limit = (int) checkOut.toEpochDay();
+        return blockRepository.existsByBlockDateAndPropertyId(checkIn, propertyId)
+                || recurringBlockRepository.findByPropertyIdRecurringFrom(propertyId, checkIn).stream()
+                .anyMatch(block -> RecurrenceRule.parse(block.getRule(), block.getStartDate()).next(from, limit) < limit);
+    }
+
+    /**
+     * Saves the block with its rule compiled and written out in full. A rule that is malformed, uses an unsupported
+     * part or never recurs is refused.
+     */
+    public RecurringBlock createRecurringBlock(RecurringBlock block) {
+        RecurrenceRule recurrence;
+        try {
+            recurrence = RecurrenceRule.parse(block.getRule(), block.getStartDate());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage(), ErrorCode.INVALID_RECURRENCE_RULE, false);
+        }
+        if (recurrence.first().isEmpty()) {
+            throw new BusinessException("Rule never recurs", ErrorCode.INVALID_RECURRENCE_RULE, false);
+        }
+        block.setRecurrence(recurrence);
+        return shards.onPropertyShard(block.getPropertyId(), () -> transactionTemplate.execute(status -> {
+            RecurringBlock savedBlock = recurringBlockRepository.save(block);
+            changeLogService.record(EntityType.RECURRING_BLOCK, savedBlock.getId(), savedBlock.getPropertyId(), Operation.CREATED);
+            return savedBlock;
+        }));
+    }
+
+    public Optional<RecurringBlockView> getRecurringBlock(Long id) {
+        return shards.findFirst(() -> viewRepository.findRecurringBlock(id));
+    }
+
+    public void deleteRecurringBlock(Long id) {
+        shards.locate(() -> recurringBlockRepository.existsById(id)).ifPresent(shard ->
+                shards.onShard(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                        recurringBlockRepository.findById(id).ifPresent(block -> {
+                            recurringBlockRepository.delete(block);
+                            changeLogService.record(EntityType.RECURRING_BLOCK, block.getId(), block.getPropertyId(), Operation.DELETED);
+                        }))));
     }
 
     public void deleteBlock(Long id) {
-        blockRepository.deleteById(id);
+        shards.locate(() -> blockRepository.existsById(id)).ifPresent(shard ->
+                shards.onShard(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                        blockRepository.findById(id).ifPresent(block -> {
+                            blockRepository.delete(block);
+                            changeLogService.record(EntityType.BLOCK, block.getId(), block.getPropertyId(), Operation.DELETED);
+                        }))));
+    }
+
+    /**
+     * Deletes every block of the property starting on or after {@code from} and before {@code to}, or with no end
+     * when {@code to} is null, imported ones included, and returns their ids. The blocks are deleted by one statement
+     * under the property's lease and the deletions logged as one batch. Recurring blocks are kept. Empty when the
+     * property does not exist.
+     */
+    public Optional<List<Long>> purgeBlocks(Long propertyId, LocalDate from, LocalDate to) {
+        if (from.isBefore(LocalDate.now()) || to != null && !to.isAfter(from)) {
+            throw INVALID_BLOCK_DATES;
+        }
+        LocalDate end = to == null ? OPEN_END : to;
+        return shards.onPropertyShard(propertyId, () -> viewRepository.findProperty(propertyId).map(property ->
+                underLease(propertyId, () -> {
+                    List<Long> ids = jdbcTemplate.queryForList(PURGE_SQL, Long.class, propertyId, from, from, end);
+                    changeLogService.recordAll(EntityType.BLOCK, ids, propertyId, Operation.DELETED);
+                    return ids;
+                })));
     }
 
     public Block updateBlock(Block block) {
-        checkBlockDates(block);
-        return blockRepository
-                .findById(block.getId())
-                .map(b -> blockRepository.save(block))
-                .orElseThrow(() -> new BusinessException("Couldn't update block with id=" + block.getId(), ErrorCode.UNEXPECTED_ERROR));
+        return shards.onPropertyShard(block.getPropertyId(), () -> transactionTemplate.execute(status -> {
+            checkBlockDates(block);
+            return blockRepository
+                    .findById(block.getId())
+                    .map(b -> save(block, Operation.UPDATED))
+                    .orElseThrow(() -> new BusinessException("Couldn't update block with id=" + block.getId(), ErrorCode.UNEXPECTED_ERROR));
+        }));
+    }
+
+    /**
+     * Makes the property's blocks imported from {@code source} that last until {@code from} or later match
+     * {@code imported}, new blocks carrying the source and event UID they come from. Blocks are matched on that UID in
+     * one pass; only the differences are written, in one transaction under the property's lease, deletes flushed
+     * before updates and updates before inserts so no statement trips over dates another one frees. Updates are
+     * flushed together, so a block moving to dates another updated block still holds, as when two events swap dates,
+     * is deleted and inserted again instead. Events whose dates another block already holds are skipped. Imported
+     * dates are taken as they are: a block may be a single day.
+     * <p>
+     * The diff runs once without the lease first: when the calendar has not changed, which is most syncs, the import
+     * reads the blocks once and writes nothing.
+     */
+    public CalendarImportResult syncImported(Long propertyId, String source, Collection<Block> imported, LocalDate from) {
+        return shards.onPropertyShard(propertyId, () -> {
+            CalendarImportResult unlocked = transactionTemplate.execute(status -> diff(propertyId, source, imported, from).result());
+            if (!unlocked.hasChanges()) {
+                return unlocked;
+            }
+            return propertyLeaseService.withLease(propertyId, lease -> transactionTemplate.execute(status -> {
+                propertyLeaseService.fence(lease);
+                ImportDiff diff = diff(propertyId, source, imported, from);
+                Set<Map.Entry<LocalDate, LocalDate>> vacated = new HashSet<>();
+                diff.updates.forEach(update -> vacated.add(Map.entry(update.getKey().getStartDate(), update.getKey().getEndDate())));
+                List<Block> deletes = new ArrayList<>(diff.deletes);
+                List<Block> inserts = new ArrayList<>();
+                List<Map.Entry<Block, Block>> updates = new ArrayList<>();
+                for (Map.Entry<Block, Block> update : diff.updates) {
+                    if (vacated.contains(Map.entry(update.getValue().getStartDate(), update.getValue().getEndDate()))) {
+                        deletes.add(update.getKey());
+                        inserts.add(update.getValue());
+                    } else {
+                        updates.add(update);
+                    }
+                }
+                inserts.addAll(diff.inserts);
+                deletes.forEach(block -> {
+                    blockRepository.delete(block);
+                    changeLogService.record(EntityType.BLOCK, block.getId(), propertyId, Operation.DELETED);
+                });
+                blockRepository.flush();
+                updates.forEach(update -> {
+                    Block block = update.getKey();
+                    block.setStartDate(update.getValue().getStartDate());
+                    block.setEndDate(update.getValue().getEndDate());
+                    save(block, Operation.UPDATED);
+                });
+                blockRepository.flush();
+                inserts.forEach(block -> save(block, Operation.CREATED));
+                return diff.result();
+            }));
+        });
+    }
+
+    private ImportDiff diff(Long propertyId, String source, Collection<Block> imported, LocalDate from) {
+        ImportDiff diff = new ImportDiff();
+        Map<String, Block> current = new HashMap<>();
+        Set<Map.Entry<LocalDate, LocalDate>> taken = new HashSet<>();
+        for (Block block : blockRepository.findByPropertyIdEndingFrom(propertyId, from)) {
+            if (!source.equals(block.getSource())) {
+                taken.add(Map.entry(block.getStartDate(), block.getEndDate()));
+            } else if (current.putIfAbsent(block.getExternalUid(), block) != null) {
+                diff.deletes.add(block);
+            }
+        }
+        for (Block event : imported) {
+            Block block = current.remove(event.getExternalUid());
+            if (!taken.add(Map.entry(event.getStartDate(), event.getEndDate()))) {
+                diff.skipped++;
+                if (block != null) {
+                    diff.deletes.add(block);
+                }
+            } else if (block == null) {
+                diff.inserts.add(event);
+            } else if (event.getEndDate().equals(block.getEndDate())
+                    && event.getStartDate().equals(block.getStartDate().isBefore(from) ? from : block.getStartDate())) {
+                // A block that started before from is compared from there on, as the imported events are.
+                diff.unchanged++;
+            } else {
+                diff.updates.add(Map.entry(block, event));
+            }
+        }
+        diff.deletes.addAll(current.values());
+        return diff;
+    }
+
+    /**
+     * Runs {@code work} in one transaction on the property's shard, holding and fencing the property's lease, so no
+     * other instance changes the property's blocks in between: two merges of the same stretch cannot both stretch a
+     * block over the one the other deletes, and a purge cannot miss a block merged into its range meanwhile.
+     */
+    private <T> T underLease(Long propertyId, Supplier<T> work) {
+        return shards.onPropertyShard(propertyId, () -> propertyLeaseService.withLease(propertyId, lease ->
+                transactionTemplate.execute(status -> {
+                    propertyLeaseService.fence(lease);
+                    return work.get();
+                })));
+    }
+
+    private int mergeRun(List<Block> run) {
+        if (run.size() < 2) {
+            return 0;
+        }
+        Block survivor = run.get(0);
+        merge(survivor, run.subList(1, run.size()), survivor.getStartDate(), survivor.getEndDate());
+        return run.size() - 1;
+    }
+
+    /**
+     * Sets the survivor's dates to {@code [start, end]} stretched over every absorbed block, and deletes those. The
+     * deletes run first, so the new dates never collide with a block about to go. The survivor's stored dates are not
+     * read: callers fold them into {@code [start, end]} when they still count.
+     */
+    private void merge(Block survivor, List<Block> absorbed, LocalDate start, LocalDate end) {
+        for (Block block : absorbed) {
+            start = earliest(block.getStartDate(), start);
+            end = latest(block.getEndDate(), end);
+        }
+        blockRepository.deleteAllInBatch(absorbed);
+        absorbed.forEach(block -> changeLogService.record(EntityType.BLOCK, block.getId(), survivor.getPropertyId(), Operation.DELETED));
+        blockRepository.updateDates(survivor.getId(), start, end);
+        changeLogService.record(EntityType.BLOCK, survivor.getId(), survivor.getPropertyId(), Operation.UPDATED);
+    }
+
+    private static LocalDate earliest(LocalDate date, LocalDate other) {
+        return date.isBefore(other) ? date : other;
+    }
+
+    private static LocalDate latest(LocalDate date, LocalDate other) {
+        return date.isAfter(other) ? date : other;
+    }
+
+    private Block save(Block block, Operation operation) {
+        Block savedBlock = blockRepository.save(block);
+        changeLogService.record(EntityType.BLOCK, savedBlock.getId(), savedBlock.getPropertyId(), operation);
+        return savedBlock;
     }
 
     private void checkAlreadyBlocked(Block block) {
@@ -47,7 +377,20 @@ public class BlockService {
 
     private void checkBlockDates(Block block) {
         if (!block.hasValidBlockDates()) {
-            throw new BusinessException("Block dates are invalid", ErrorCode.INVALID_BLOCK_DATES);
+            throw INVALID_BLOCK_DATES;
+        }
+    }
+
+    private static final class ImportDiff {
+        final List<Block> inserts = new ArrayList<>();
+        // Each stored block with the imported event it is to take the dates of.
+        final List<Map.Entry<Block, Block>> updates = new ArrayList<>();
+        final List<Block> deletes = new ArrayList<>();
+        int unchanged;
+        int skipped;
+
+        CalendarImportResult result() {
+            return new CalendarImportResult(inserts.size(), updates.size(), deletes.size(), unchanged, skipped);
         }
     }
 }
@@ -0,0 +1,139 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.AdmissionControl;
+import com.bookings.config.ArchiveProperties;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code bookings} down to the rows that can still conflict with a new booking. Stays that checked out more
+ * than {@code stayRetention} ago, and canceled bookings whose check-in has passed, are moved to
+ * {@code bookings_archive} in batches of {@code batchSize}, one short transaction each, with {@code pause} between
+ * batches. Before every batch the archiver waits while admission control reports the foreground busier than
+ * {@code maxUtilization}, so it only uses capacity requests leave idle.
+ */
+@Service
+public class BookingArchiver {
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiver.class);
+    private static final String COLUMNS =
+            "id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name, guest_age, guest_social_security_id, canceled";
+    /**
+     * Stays that checked out before the retention. Kept apart from {@link #SELECT_CANCELED_SQL}, as a disjunction of
+     * the two could not be answered from either index.
+     */
+    public static final String SELECT_CHECKED_OUT_SQL =
+            "SELECT id FROM bookings WHERE checkout_date < ? FETCH FIRST ? ROWS ONLY";
+    /**
+     * Canceled bookings whose check-in has passed, less those {@link #SELECT_CHECKED_OUT_SQL} already selects.
+     */
+    public static final String SELECT_CANCELED_SQL =
+            "SELECT id FROM bookings WHERE canceled = TRUE AND checkin_date < ? AND checkout_date >= ? FETCH FIRST ? ROWS ONLY";
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO bookings_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS + ", LOCALTIMESTAMP FROM bookings WHERE id IN (%s)";
+    private static final String DELETE_SQL = "DELETE FROM bookings WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+    private final ObjectProvider<AdmissionControl> admissionControl;
+    private final ArchiveProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter archived;
+
+    public BookingArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Shards shards,
+                           ObjectProvider<AdmissionControl> admissionControl, ArchiveProperties properties,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.admissionControl = admissionControl;
+        this.properties = properties;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.archived = registry == null ? null : Counter.builder("bookings.archive.archived").register(registry);
+    }
+
+    /**
+     * Archives everything that is due on every shard. Returns the number of bookings moved, or 0 if a run was
+     * already in progress.
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long total = 0;
+            for (int shard = 0; shard < shards.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+                total += shards.onShard(shard, this::archiveCurrentShard);
+            }
+            if (total > 0) {
+                log.info("Archived {} bookings", total);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long archiveCurrentShard() {
+        long total = 0;
+        try {
+            while (true) {
+                awaitQuietForeground();
+                int batch = archiveBatch();
+                total += batch;
+                if (batch < properties.getBatchSize()) {
+                    return total;
+                }
+                Thread.sleep(properties.getPause().toMillis());
+            }
+        } catch (InterruptedException e) {
+            // Shutting down: every committed batch is complete, the rest waits for the next run.
+            Thread.currentThread().interrupt();
+            return total;
+        }
+    }
+
+    private int archiveBatch() {
+        LocalDate today = LocalDate.now();
+        LocalDate checkedOutBefore = today.minusDays(properties.getStayRetention().toDays());
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(jdbcTemplate.queryForList(SELECT_CHECKED_OUT_SQL, Long.class,
+                    checkedOutBefore, properties.getBatchSize()));
+            if (ids.size() < properties.getBatchSize()) {
+                ids.addAll(jdbcTemplate.queryForList(SELECT_CANCELED_SQL, Long.class,
+                        today, checkedOutBefore, properties.getBatchSize() - ids.size()));
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.update(ARCHIVE_SQL.formatted(placeholders), ids.toArray());
+            return jdbcTemplate.update(DELETE_SQL.formatted(placeholders), ids.toArray());
+        });
+        if (archived != null) {
+            archived.increment(moved);
+        }
+        return moved;
+    }
+
+    private void awaitQuietForeground() throws InterruptedException {
+        AdmissionControl control = admissionControl.getIfAvailable();
+        while (control != null && control.utilization() > properties.getMaxUtilization()) {
+            Thread.sleep(properties.getPause().toMillis());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookings.service;
+
+import com.bookings.models.ChangeLogEntry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts bookings cached by {@link BookingService#getBooking(Long)} when they change on any node.
+ */
+@Component
+public class BookingCacheInvalidator implements ChangeLogListener {
+    private final CacheManager cacheManager;
+
+    public BookingCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onChange(ChangeLogEntry entry) {
+        Cache bookings = cacheManager.getCache(BookingService.BOOKINGS_CACHE);
+        if (entry.getEntityType() == ChangeLogEntry.EntityType.BOOKING && bookings != null) {
+            bookings.evict(entry.getEntityId());
+        }
+    }
+}
@@ -5,67 +5,252 @@ import com.bookings.exception.ErrorCode;
 import com.bookings.exception.PropertyBookingBlockedException;
 import com.bookings.exception.PropertyUnavailableException;
 import com.bookings.models.Booking;
+import com.bookings.models.BookingView;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.models.Guest;
+import com.bookings.models.Hold;
+import com.bookings.repository.BookingNightRepository;
 import com.bookings.repository.BookingRepository;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class BookingService {
+    public static final String BOOKINGS_CACHE = "bookings";
+    private static final BusinessException INVALID_BOOKING_DATES =
+            new BusinessException("Booking dates are invalid", ErrorCode.INVALID_BOOKING_DATES, false);
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+    // Both statements select the same bookings; checking out after the start bounds the scan of bookings_conflict_idx.
+    private static final String RELEASE_NIGHTS_SQL = """
+            DELETE FROM booking_nights WHERE property_id = ? AND booking_id IN (
+                SELECT id FROM bookings
+                WHERE property_id = ? AND canceled = FALSE AND checkout_date > ? AND checkin_date >= ? AND checkin_date < ?)""";
+    private static final String CANCEL_SQL = """
+            SELECT id FROM FINAL TABLE (
+                UPDATE bookings SET canceled = TRUE
+                WHERE property_id = ? AND canceled = FALSE AND checkout_date > ? AND checkin_date >= ? AND checkin_date < ?)
+            ORDER BY id""";
+
     private final BookingRepository bookingRepository;
+    private final ViewRepository viewRepository;
+    private final BookingNightRepository bookingNightRepository;
+    private final JdbcTemplate jdbcTemplate;
     private final BlockService blockService;
+    private final HoldService holdService;
+    private final PropertyLeaseService propertyLeaseService;
+    private final ChangeLogService changeLogService;
+    private final HotPropertyTracker hotPropertyTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
 
-    public BookingService(BookingRepository bookingRepository, BlockService blockService) {
+    public BookingService(BookingRepository bookingRepository, ViewRepository viewRepository,
+                          BookingNightRepository bookingNightRepository, JdbcTemplate jdbcTemplate,
+                          BlockService blockService, HoldService holdService,
+                          PropertyLeaseService propertyLeaseService, ChangeLogService changeLogService,
+                          HotPropertyTracker hotPropertyTracker, PlatformTransactionManager transactionManager, Shards shards) {
         this.bookingRepository = bookingRepository;
+        this.viewRepository = viewRepository;
+        this.bookingNightRepository = bookingNightRepository;
+        this.jdbcTemplate = jdbcTemplate;
         this.blockService = blockService;
+        this.holdService = holdService;
+        this.propertyLeaseService = propertyLeaseService;
+        this.changeLogService = changeLogService;
+        this.hotPropertyTracker = hotPropertyTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
     }
 
-    @Transactional
+    /**
+     * Inserts under the property's lease, so instances sharing the database cannot both pass the hold and block checks
+     * for the same dates. Overlap with other bookings is not read beforehand: the insert of the booking's nights
+     * fails on {@code booking_nights}' key instead. The lease is taken before the transaction opens, both on the
+     * property's shard.
+     */
     public Booking createBooking(Booking booking) {
-        validateBooking(booking);
-        if (canBookAProperty(booking, false)) {
-            return bookingRepository.save(booking);
+        hotPropertyTracker.requested(booking.getPropertyId());
+        try {
+            return shards.onPropertyShard(booking.getPropertyId(), () ->
+                    propertyLeaseService.withLease(booking.getPropertyId(), lease -> transactionTemplate.execute(status -> {
+                        validateBooking(booking);
+                        if (isHeld(booking)) {
+                            throw new PropertyUnavailableException(booking);
+                        }
+                        propertyLeaseService.fence(lease);
+                        return saveOccupying(booking, Operation.CREATED);
+                    })));
+        } catch (PropertyUnavailableException e) {
+            hotPropertyTracker.rejected(booking.getPropertyId());
+            throw e;
         }
-        throw new PropertyUnavailableException(booking);
     }
 
-    public Booking rebook(Booking booking) {
+    /**
+     * Runs the checks of {@link #createBooking(Booking)}, including the overlap with other bookings and the stay
+     * already taken by a canceled booking with the same dates, without writing. It is deliberately not transactional,
+     * so a rejection raised inside a caller's transaction does not mark that transaction rollback-only.
+     */
+    public void checkAvailability(Booking booking) {
         validateBooking(booking);
-        if (canBookAProperty(booking, true)) {
-            booking.setCanceled(false);
+        if (!canBookAProperty(booking, false)
+                || bookingRepository.hasStay(booking.getCheckInDate(), booking.getCheckOutDate(), booking.getPropertyId())) {
+            throw new PropertyUnavailableException(booking);
+        }
+    }
+
+    /**
+     * Checks and inserts a booking in the caller's transaction. Every conflict the insert could hit is rejected by
+     * {@link #checkAvailability} before anything is written, so the transaction stays usable for the caller's other
+     * bookings. The caller counts the request with {@link #recordRequest} once its transaction has committed.
+     */
+    Booking insertChecked(Booking booking) {
+        checkAvailability(booking);
+        return saveOccupying(booking, Operation.CREATED);
+    }
+
+    /**
+     * Counts a request for the property, and its rejection when the dates were {@code unavailable}, in the
+     * {@link HotPropertyTracker}.
+     */
+    void recordRequest(Booking booking, boolean unavailable) {
+        hotPropertyTracker.requested(booking.getPropertyId());
+        if (unavailable) {
+            hotPropertyTracker.rejected(booking.getPropertyId());
         }
-        return this.bookingRepository.save(booking);
+    }
+
+    /**
+     * Turns a live hold into a booking. The hold is removed in the same transaction, so its own dates do not count
+     * against it, and it is restored if the booking cannot be created.
+     */
+    public Booking confirmHold(Long holdId, Guest guest) {
+        Long propertyId = holdService.getLiveHold(holdId).getPropertyId();
+        return shards.onPropertyShard(propertyId, () ->
+                propertyLeaseService.withLease(propertyId, lease -> transactionTemplate.execute(status -> {
+                    Booking booking = holdService.consumeHold(holdId).toBooking(guest);
+                    validateBooking(booking);
+                    propertyLeaseService.fence(lease);
+                    return saveOccupying(booking, Operation.CREATED);
+                })));
+    }
+
+    public Booking rebook(Booking booking) {
+        return shards.onPropertyShard(booking.getPropertyId(), () ->
+                propertyLeaseService.withLease(booking.getPropertyId(), lease -> transactionTemplate.execute(status -> {
+                    validateBooking(booking);
+                    if (canBookAProperty(booking, true)) {
+                        booking.setCanceled(false);
+                    }
+                    propertyLeaseService.fence(lease);
+                    return saveOccupying(booking, Operation.UPDATED);
+                })));
     }
 
     public void deleteBooking(Long bookingId) {
-        this.bookingRepository.deleteById(bookingId);
+        shards.locate(() -> bookingRepository.existsById(bookingId)).ifPresent(shard ->
+                shards.onShard(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                        bookingRepository.findById(bookingId).ifPresent(booking -> {
+                            bookingRepository.delete(booking);
+                            changeLogService.record(EntityType.BOOKING, booking.getId(), booking.getPropertyId(), Operation.DELETED);
+                        }))));
     }
 
-    @Transactional
     public Booking updateBooking(Booking bookingToUpdate) {
-        validateBooking(bookingToUpdate);
-        return bookingRepository.findById(bookingToUpdate.getId())
-                .filter(b -> !b.isCanceled())
-                .map(b -> bookingRepository.save(bookingToUpdate))
-                .orElseThrow(() -> new PropertyUnavailableException(bookingToUpdate));
+        return shards.onPropertyShard(bookingToUpdate.getPropertyId(), () -> transactionTemplate.execute(status -> {
+            validateBooking(bookingToUpdate);
+            return bookingRepository.findById(bookingToUpdate.getId())
+                    .filter(b -> !b.isCanceled())
+                    .map(b -> saveOccupying(bookingToUpdate, Operation.UPDATED))
+                    .orElseThrow(() -> new PropertyUnavailableException(bookingToUpdate));
+        }));
     }
 
-    @Transactional(readOnly = true)
-    public Optional<Booking> getBooking(Long id) {
-        return bookingRepository.findById(id);
+    /**
+     * Cached per node. Entries are evicted by {@link BookingCacheInvalidator} when the booking changes on any node.
+     * Ids are unique across shards, so the first shard that has the booking answers. Bookings moved out by the
+     * {@link BookingArchiver} are read back from the archive.
+     * <p>
+     * Read on the primary: a cached booking outlives the replica lag a single read would tolerate, and a replica
+     * still behind the change that evicted it would put the old booking back. An eviction arriving while the booking
+     * loads drops the load.
+     */
+    @Cacheable(cacheNames = BOOKINGS_CACHE, sync = true)
+    public Optional<BookingView> getBooking(Long id) {
+        return shards.findFirst(() -> transactionTemplate.execute(status ->
+                viewRepository.findBooking(id).or(() -> viewRepository.findArchivedBooking(id))));
     }
 
     public void cancelBooking(Long id) {
-        bookingRepository.findById(id)
-                .map(booking -> {
-                    booking.setCanceled(true);
-                    return booking;
-                }).map(bookingRepository::save);
+        shards.locate(() -> bookingRepository.existsById(id)).ifPresent(shard ->
+                shards.onShard(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                        bookingRepository.findById(id).ifPresent(booking -> {
+                            booking.setCanceled(true);
+                            saveOccupying(booking, Operation.UPDATED);
+                        }))));
+    }
+
+    /**
+     * Cancels every booking of the property checking in on or after {@code from} and before {@code to}, or with no
+     * end when {@code to} is null, and returns their ids. Unlike {@link #cancelBooking(Long)} it does not load the
+     * bookings: their nights are released and the bookings updated by one statement each, under the property's lease,
+     * and the changes are logged as one batch. Empty when the property does not exist.
+     */
+    public Optional<List<Long>> cancelBookings(Long propertyId, LocalDate from, LocalDate to) {
+        if (from.isBefore(LocalDate.now()) || to != null && !to.isAfter(from)) {
+            throw INVALID_BOOKING_DATES;
+        }
+        LocalDate end = to == null ? OPEN_END : to;
+        return shards.onPropertyShard(propertyId, () -> viewRepository.findProperty(propertyId).map(property ->
+                propertyLeaseService.withLease(propertyId, lease -> transactionTemplate.execute(status -> {
+                    propertyLeaseService.fence(lease);
+                    jdbcTemplate.update(RELEASE_NIGHTS_SQL, propertyId, propertyId, from, from, end);
+                    List<Long> ids = jdbcTemplate.queryForList(CANCEL_SQL, Long.class, propertyId, from, from, end);
+                    changeLogService.recordAll(EntityType.BOOKING, ids, propertyId, Operation.UPDATED);
+                    return ids;
+                }))));
+    }
+
+    private Booking save(Booking booking, Operation operation) {
+        Booking savedBooking = bookingRepository.save(booking);
+        changeLogService.record(EntityType.BOOKING, savedBooking.getId(), savedBooking.getPropertyId(), operation);
+        return savedBooking;
+    }
+
+    /**
+     * Saves the booking and replaces the nights it occupies; a canceled booking occupies none. A night taken by
+     * another booking fails the insert, which is reported as the dates being unavailable.
+     */
+    private Booking saveOccupying(Booking booking, Operation operation) {
+        try {
+            Booking savedBooking = save(booking, operation);
+            if (operation != Operation.CREATED) {
+                bookingNightRepository.release(savedBooking.getId());
+            }
+            if (!Boolean.TRUE.equals(savedBooking.isCanceled())) {
+                int nights = (int) ChronoUnit.DAYS.between(savedBooking.getCheckInDate(), savedBooking.getCheckOutDate());
+                bookingNightRepository.occupy(savedBooking.getPropertyId(), savedBooking.getCheckInDate(), nights, savedBooking.getId());
+            }
+            return savedBooking;
+        } catch (DataIntegrityViolationException e) {
+            // Either a night of the stay or the exact stay itself is already taken on this property.
+            throw new PropertyUnavailableException(booking);
+        }
     }
 
     private boolean canBookAProperty(Booking booking, boolean canceled) {
-        return !isBooked(booking, canceled);
+        return !isBooked(booking, canceled) && !isHeld(booking);
     }
 
     private void validateBooking(Booking booking) {
@@ -74,13 +259,17 @@ public class BookingService {
     }
 
     private boolean isBlocked(Booking booking) {
-        return blockService.isBlocked(booking.getCheckInDate(), booking.getPropertyId());
+        return blockService.isBlocked(booking.getCheckInDate(), booking.getCheckOutDate(), booking.getPropertyId());
     }
 
     private boolean isBooked(Booking booking, boolean canceled) {
         return bookingRepository.isBooked(booking.getCheckInDate(), booking.getCheckOutDate(), booking.getProperty().getId(), canceled);
     }
 
+    private boolean isHeld(Booking booking) {
+        return holdService.isHeld(booking.getCheckInDate(), booking.getCheckOutDate(), booking.getPropertyId());
+    }
+
     private void checkBlockedProperty(Booking booking) {
         if (isBlocked(booking)) {
             throw new PropertyBookingBlockedException(booking);
@@ -89,7 +278,7 @@ public class BookingService {
 
     private static void hasValidBookingDates(Booking booking) {
         if (!booking.hasValidBookingDates()) {
-            throw new BusinessException("Booking dates are invalid", ErrorCode.INVALID_BOOKING_DATES);
+            throw INVALID_BOOKING_DATES;
         }
     }
 }
@@ -0,0 +1,307 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.HashedTimingWheel;
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.config.AsyncBookingProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.exception.ServiceOverloadedException;
+import com.bookings.models.Booking;
+import com.bookings.models.BookingTicket;
+import com.bookings.repository.BookingRepository;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for asynchronously submitted bookings. A single batcher thread collects submissions until either
+ * {@code maxBatchSize} is reached or the first one has lingered for {@code linger}, then validates and inserts the
+ * whole batch in one transaction. Each booking goes through the same checks as {@link BookingService#createBooking},
+ * and those checks see the batch's earlier inserts, so conflicts inside a batch are rejected just as conflicts
+ * between separate requests are. The batch holds the leases of all its properties, taken in property order before
+ * the transaction opens. If the batch fails to commit as a whole, its bookings are retried one transaction each so
+ * every ticket still gets an exact outcome. With several shards the batch is split by shard and each part commits
+ * on its own.
+ * <p>
+ * Tickets are kept in memory by the instance that accepted the submission, so they can only be polled there; clients
+ * behind a load balancer should rely on the callback or on sticky routing. Callbacks only go to public addresses, or
+ * to the hosts of {@code callbackHosts} when it is set, checked on submission and again before sending, so a
+ * submission cannot make the server call itself or the internal network.
+ */
+@Service
+public class BookingSubmissionService {
+    private static final Logger log = LoggerFactory.getLogger(BookingSubmissionService.class);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final PropertyLeaseService propertyLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final LaneScheduler laneScheduler;
+    private final HashedTimingWheel ticketExpiryWheel;
+    private final Shards shards;
+    private final RestClient restClient;
+    private final AsyncBookingProperties properties;
+    private final BlockingQueue<Submission> queue;
+    private final Map<String, BookingTicket> tickets = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+    private final Thread batcher = new Thread(this::runBatcher, "booking-group-commit");
+    private volatile boolean running = true;
+
+    public BookingSubmissionService(BookingService bookingService, BookingRepository bookingRepository,
+                                    PropertyLeaseService propertyLeaseService, PlatformTransactionManager transactionManager,
+                                    LaneScheduler laneScheduler,
+                                    @Qualifier("ticketExpiryWheel") HashedTimingWheel ticketExpiryWheel, Shards shards,
+                                    RestClient.Builder restClientBuilder, AsyncBookingProperties properties,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.propertyLeaseService = propertyLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.laneScheduler = laneScheduler;
+        this.ticketExpiryWheel = ticketExpiryWheel;
+        this.shards = shards;
+        this.restClient = restClientBuilder.build();
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.batchSizes = registry == null ? null : DistributionSummary.builder("bookings.async.batch.size").register(registry);
+    }
+
+    public BookingTicket submit(Booking booking, URI callbackUrl) {
+        checkCallbackUrl(callbackUrl);
+        BookingTicket ticket = BookingTicket.pending(UUID.randomUUID().toString());
+        tickets.put(ticket.id(), ticket);
+        if (!queue.offer(new Submission(ticket.id(), booking, callbackUrl))) {
+            tickets.remove(ticket.id());
+            throw new ServiceOverloadedException("async booking", RETRY_AFTER);
+        }
+        return ticket;
+    }
+
+    public Optional<BookingTicket> getTicket(String id) {
+        return Optional.ofNullable(tickets.get(id));
+    }
+
+    @PostConstruct
+    void start() {
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        batcher.interrupt();
+        batcher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void runBatcher() {
+        List<Submission> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                // Stop requested: keep looping until the queue is drained.
+            } catch (RuntimeException e) {
+                log.error("Group commit of {} bookings failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<Submission> batch) throws InterruptedException {
+        long lingerDeadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            long remaining = lingerDeadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+                return;
+            }
+            Submission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Submission> batch) {
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        Map<Integer, List<Submission>> batchesByShard = new TreeMap<>();
+        batch.forEach(submission -> batchesByShard
+                .computeIfAbsent(shards.shardFor(submission.booking().getPropertyId()), shard -> new ArrayList<>())
+                .add(submission));
+        // Every ticket is stored before any callback is dispatched, so a refused callback cannot strand the others.
+        Map<Submission, BookingTicket> outcomes = new LinkedHashMap<>();
+        batchesByShard.forEach((shard, shardBatch) -> outcomes.putAll(shards.onShard(shard, () -> commitOnShard(shardBatch))));
+        outcomes.forEach(this::complete);
+        outcomes.forEach(this::dispatchCallback);
+    }
+
+    private Map<Submission, BookingTicket> commitOnShard(List<Submission> batch) {
+        try {
+            return commitUnderLeases(batch);
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} bookings failed, committing them one by one", batch.size(), e);
+            return commitIndividually(batch);
+        }
+    }
+
+    private Map<Submission, BookingTicket> commitUnderLeases(List<Submission> batch) {
+        SortedSet<Long> propertyIds = new TreeSet<>();
+        batch.forEach(submission -> propertyIds.add(submission.booking().getPropertyId()));
+        List<PropertyLeaseService.Lease> leases = new ArrayList<>(propertyIds.size());
+        try {
+            propertyIds.forEach(propertyId -> leases.add(propertyLeaseService.acquire(propertyId)));
+            Map<Submission, BookingTicket> outcomes = transactionTemplate.execute(status -> validateAndInsert(batch, leases));
+            // Counted once committed, so bookings retried one by one after a failed batch are not counted twice.
+            outcomes.forEach((submission, ticket) -> bookingService.recordRequest(submission.booking(),
+                    ticket.errorCode() == ErrorCode.PROPERTY_UNAVAILABLE));
+            return outcomes;
+        } finally {
+            leases.forEach(propertyLeaseService::release);
+        }
+    }
+
+    private Map<Submission, BookingTicket> validateAndInsert(List<Submission> batch, List<PropertyLeaseService.Lease> leases) {
+        leases.forEach(propertyLeaseService::fence);
+        Map<Submission, BookingTicket> outcomes = new LinkedHashMap<>();
+        for (Submission submission : batch) {
+            BookingTicket ticket = tickets.get(submission.ticketId());
+            try {
+                outcomes.put(submission, ticket.confirmed(bookingService.insertChecked(submission.booking())));
+            } catch (BusinessException e) {
+                outcomes.put(submission, ticket.rejected(e));
+            }
+        }
+        bookingRepository.flush();
+        return outcomes;
+    }
+
+    private Map<Submission, BookingTicket> commitIndividually(List<Submission> batch) {
+        Map<Submission, BookingTicket> outcomes = new LinkedHashMap<>();
+        for (Submission submission : batch) {
+            BookingTicket ticket = tickets.get(submission.ticketId());
+            Booking booking = submission.booking();
+            // Ids handed out by the rolled back batch were never committed.
+            booking.setId(null);
+            try {
+                outcomes.put(submission, ticket.confirmed(bookingService.createBooking(booking)));
+            } catch (BusinessException e) {
+                outcomes.put(submission, ticket.rejected(e));
+            } catch (RuntimeException e) {
+                log.error("Could not commit booking for ticket {}", ticket.id(), e);
+                outcomes.put(submission, ticket.rejected(new BusinessException("Booking could not be committed", ErrorCode.UNEXPECTED_ERROR, false)));
+            }
+        }
+        return outcomes;
+    }
+
+    private void complete(Submission submission, BookingTicket ticket) {
+        tickets.put(ticket.id(), ticket);
+        ticketExpiryWheel.schedule(() -> tickets.remove(ticket.id()), properties.getTicketRetention());
+    }
+
+    private void dispatchCallback(Submission submission, BookingTicket ticket) {
+        if (submission.callbackUrl() == null) {
+            return;
+        }
+        try {
+            laneScheduler.run(Lane.BULK, TaskPriority.LOW, () -> notifyCallback(submission.callbackUrl(), ticket));
+        } catch (RejectedExecutionException e) {
+            // The ticket is stored; the client can still poll it.
+            log.warn("Callback to {} for ticket {} dropped, bulk lane is full", submission.callbackUrl(), ticket.id());
+        }
+    }
+
+    private void notifyCallback(URI callbackUrl, BookingTicket ticket) {
+        try {
+            // The host may resolve elsewhere by now.
+            checkCallbackUrl(callbackUrl);
+            restClient.post()
+                    .uri(callbackUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ticket)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RuntimeException e) {
+            log.warn("Callback to {} for ticket {} failed", callbackUrl, ticket.id(), e);
+        }
+    }
+
+    private void checkCallbackUrl(URI callbackUrl) {
+        if (callbackUrl == null) {
+            return;
+        }
+        if (!("http".equals(callbackUrl.getScheme()) || "https".equals(callbackUrl.getScheme())) || callbackUrl.getHost() == null) {
+            throw invalidCallbackUrl("Callback URL must be an absolute http or https URL");
+        }
+        String host = callbackUrl.getHost().toLowerCase(Locale.ROOT);
+        if (!properties.getCallbackHosts().isEmpty()) {
+            if (properties.getCallbackHosts().stream().noneMatch(allowed -> allowed.equalsIgnoreCase(host))) {
+                throw invalidCallbackUrl("Callback host %s is not allowed".formatted(host));
+            }
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw invalidCallbackUrl("Callback host %s cannot be resolved".formatted(host));
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw invalidCallbackUrl("Callback host %s is not a public address".formatted(host));
+            }
+        }
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        // Unique local IPv6 addresses (fc00::/7) are not covered by isSiteLocalAddress.
+        boolean uniqueLocal = address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+        return !(address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress() || uniqueLocal);
+    }
+
+    private static BusinessException invalidCallbackUrl(String message) {
+        return new BusinessException(message, ErrorCode.INVALID_CALLBACK_URL, false);
+    }
+
+    private record Submission(String ticketId, Booking booking, URI callbackUrl) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.bookings.service;
+
+import com.bookings.cache.BoundedCache;
+import com.bookings.calendar.ICalendarWriter;
+import com.bookings.calendar.RecurrenceRule;
+import com.bookings.config.CalendarProperties;
+import com.bookings.models.CalendarFeed;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.RecurringBlockView;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Serves each property's iCalendar feed from memory. A feed is rendered on first request by streaming the property's
+ * bookings and blocks row by row through an {@link ICalendarWriter}, hashing the bytes as they are written, and kept
+ * until a booking, block or shard assignment of the property changes on any node, the day changes, it expires, or it
+ * is the least recently requested beyond the configured maximum. Feeds carry no
+ * guest details: stays are "Reserved" and blocks "Not available". A recurring block is one event with its rule, not
+ * one per occurrence.
+ */
+@Service
+public class CalendarFeedService implements ChangeLogListener {
+    static final String PRODUCT_ID = "-//bookings//calendar feed//EN";
+    private static final int INITIAL_FEED_SIZE = 4096;
+
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+    private final TransactionTemplate primary;
+    private final CalendarProperties properties;
+    private final Counter renders;
+    private final BoundedCache<Long, Rendered> feeds;
+
+    public CalendarFeedService(ViewRepository viewRepository, Shards shards, PlatformTransactionManager transactionManager,
+                               CalendarProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+        // Read-write on purpose: a cached feed outlives the replica lag a single read would tolerate.
+        this.primary = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.feeds = new BoundedCache<>(properties.getMaximumFeeds(), properties.getExpireAfterWrite());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.renders = registry == null ? null : Counter.builder("bookings.calendar.renders").register(registry);
+    }
+
+    /**
+     * The property's feed, from its stays and blocks that ended at most {@code bookings.calendar.history} ago on.
+     * Empty when the property does not exist.
+     */
+    public Optional<CalendarFeed> feed(Long propertyId) {
+        LocalDate today = LocalDate.now();
+        // A change evicting the property while it renders drops the render, so a feed that raced with it is not kept.
+        Rendered rendered = feeds.get(propertyId, id -> render(id, today));
+        if (rendered != null && !rendered.day().equals(today)) {
+            feeds.invalidate(propertyId);
+            rendered = feeds.get(propertyId, id -> render(id, today));
+        }
+        return Optional.ofNullable(rendered).map(Rendered::feed);
+    }
+
+    @Override
+    public void onChange(ChangeLogEntry entry) {
+        if (entry.getPropertyId() != null) {
+            feeds.invalidate(entry.getPropertyId());
+        }
+    }
+
+    private Rendered render(Long propertyId, LocalDate today) {
+        return shards.onPropertyShard(propertyId, () -> primary.execute(status -> viewRepository.findProperty(propertyId)
+                .map(property -> {
+                    MessageDigest digest = sha256();
+                    ByteArrayOutputStream content = new ByteArrayOutputStream(INITIAL_FEED_SIZE);
+                    try (ICalendarWriter writer = new ICalendarWriter(new DigestOutputStream(content, digest))) {
+                        writer.beginCalendar(PRODUCT_ID, property.name());
+                        LocalDate from = today.minusDays(properties.getHistory().toDays());
+                        viewRepository.forEachCalendarEvent(propertyId, from,
+                                (entityType, id, start, end) -> {
+                                    try {
+                                        writer.event(uid(entityType, id), today, start, end,
+                                                entityType == EntityType.BOOKING ? "Reserved" : "Not available");
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                });
+                        for (RecurringBlockView block : viewRepository.findRecurringBlocks(propertyId, from)) {
+                            RecurrenceRule recurrence = block.recurrence();
+                            Optional<LocalDate> first = recurrence.first();
+                            if (first.isPresent()) {
+                                writer.recurringEvent(uid(EntityType.RECURRING_BLOCK, block.id()), today, first.get(),
+                                        "Not available", recurrence.toString());
+                            }
+                        }
+                        writer.endCalendar();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (renders != null) {
+                        renders.increment();
+                    }
+                    String etag = '"' + HexFormat.of().formatHex(digest.digest(), 0, 16) + '"';
+                    return new Rendered(new CalendarFeed(content.toByteArray(), etag), today);
+                })
+                .orElse(null)));
+    }
+
+    private static String uid(EntityType entityType, long id) {
+        return entityType.name().toLowerCase() + "-" + id + "@bookings";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Rendered(CalendarFeed feed, LocalDate day) {
+    }
+}
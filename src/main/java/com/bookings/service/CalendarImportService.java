@@ -0,0 +1,85 @@
+package com.bookings.service;
+
+import com.bookings.calendar.ICalendarException;
+import com.bookings.calendar.ICalendarReader;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.Block;
+import com.bookings.models.CalendarImportResult;
+import com.bookings.models.Property;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Mirrors an external calendar, such as an OTA's iCalendar feed, into the property's blocks. The calendar is read as
+ * a stream, keeping one block per event UID, then {@link BlockService#syncImported diffed} against the blocks imported
+ * from the same source before. Events over before tomorrow are ignored and those already running are cut to start
+ * tomorrow, since blocks only cover future dates; blocks imported earlier that have ended are left alone.
+ * <p>
+ * The calendar is read before any transaction opens, so a slow upload does not hold a connection.
+ */
+@Service
+public class CalendarImportService {
+    private static final Pattern SOURCE = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int MAX_UID_LENGTH = 255;
+
+    private final BlockService blockService;
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+
+    public CalendarImportService(BlockService blockService, ViewRepository viewRepository, Shards shards) {
+        this.blockService = blockService;
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+    }
+
+    /**
+     * Empty when the property does not exist.
+     */
+    public Optional<CalendarImportResult> importCalendar(Long propertyId, String source, Reader calendar) {
+        if (source == null || !SOURCE.matcher(source).matches()) {
+            throw invalid("Source must be 1 to 64 letters, digits, dots, dashes or underscores");
+        }
+        if (shards.onPropertyShard(propertyId, () -> viewRepository.findProperty(propertyId)).isEmpty()) {
+            return Optional.empty();
+        }
+        LocalDate from = LocalDate.now().plusDays(1);
+        Map<String, Block> imported = new LinkedHashMap<>();
+        int[] repeated = {0};
+        try {
+            ICalendarReader.read(calendar, (uid, start, end) -> {
+                if (uid.length() > MAX_UID_LENGTH) {
+                    throw invalid("Event UIDs must be at most %s characters".formatted(MAX_UID_LENGTH));
+                }
+                LocalDate last = end.minusDays(1);
+                if (last.isBefore(from)) {
+                    return;
+                }
+                Block block = new Block(start.isBefore(from) ? from : start, last, new Property(propertyId));
+                block.setImportedFrom(source, uid);
+                if (imported.putIfAbsent(uid, block) != null) {
+                    repeated[0]++;
+                }
+            });
+        } catch (ICalendarException e) {
+            throw invalid(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Optional.of(blockService.syncImported(propertyId, source, imported.values(), from).plusSkipped(repeated[0]));
+    }
+
+    private static BusinessException invalid(String message) {
+        return new BusinessException(message, ErrorCode.INVALID_CALENDAR, false);
+    }
+}
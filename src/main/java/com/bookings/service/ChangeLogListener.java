@@ -0,0 +1,12 @@
+package com.bookings.service;
+
+import com.bookings.models.ChangeLogEntry;
+
+/**
+ * Keeps node-local state, such as caches, in step with committed changes. Listeners receive every change made on
+ * this node right after it commits, and changes made on other nodes when the change log is polled. The same change
+ * may be delivered more than once, so handling must be idempotent.
+ */
+public interface ChangeLogListener {
+    void onChange(ChangeLogEntry entry);
+}
@@ -0,0 +1,177 @@
+package com.bookings.service;
+
+import com.bookings.config.ChangeLogProperties;
+import com.bookings.config.NodeProperties;
+import com.bookings.models.ChangeLogCursor;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.repository.ChangeLogCursorRepository;
+import com.bookings.repository.ChangeLogRepository;
+import com.bookings.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Broker-less change propagation between nodes sharing the database. Mutations append an entry to {@code change_log}
+ * in their own transaction, and every node tails the log from a cursor it persists under its node id.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a poll can see id n+1 before id n. The cursor never
+ * moves past such a hole until {@code gapTimeout} has passed since the entry after it was written; by then the
+ * missing id belongs to a rolled back transaction.
+ * <p>
+ * Every shard keeps its own log and cursors, written in the same transactions as the rows they describe.
+ */
+@Service
+public class ChangeLogService {
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogService.class);
+    private static final String INSERT_SQL = """
+            INSERT INTO change_log (entity_type, entity_id, property_id, operation, origin_node, changed_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogCursorRepository cursorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ChangeLogListener> listeners;
+    private final ChangeLogProperties properties;
+    private final String nodeId;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChangeLogService(ChangeLogRepository changeLogRepository, ChangeLogCursorRepository cursorRepository,
+                            JdbcTemplate jdbcTemplate, ObjectProvider<ChangeLogListener> listeners, ChangeLogProperties properties,
+                            NodeProperties nodeProperties, Shards shards, PlatformTransactionManager transactionManager) {
+        this.changeLogRepository = changeLogRepository;
+        this.cursorRepository = cursorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.nodeId = nodeProperties.getId();
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Appends a change in the caller's transaction. Listeners on this node are notified once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EntityType entityType, Long entityId, Long propertyId, Operation operation) {
+        ChangeLogEntry entry = changeLogRepository.save(new ChangeLogEntry(entityType, entityId, propertyId, operation, nodeId));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(List.of(entry));
+            }
+        });
+    }
+
+    /**
+     * Appends the same change to many entities of a property in the caller's transaction, as one JDBC batch rather
+     * than an insert per entity. Listeners on this node are notified of all of them at once when it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(EntityType entityType, Collection<Long> entityIds, Long propertyId, Operation operation) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        List<ChangeLogEntry> entries = entityIds.stream()
+                .map(entityId -> new ChangeLogEntry(entityType, entityId, propertyId, operation, nodeId))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getEntityType().name());
+            ps.setLong(2, entry.getEntityId());
+            ps.setLong(3, entry.getPropertyId());
+            ps.setString(4, entry.getOperation().name());
+            ps.setString(5, entry.getOriginNode());
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getChangedAt()));
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(entries);
+            }
+        });
+    }
+
+    /**
+     * Applies the next batch of changes made by other nodes and advances this node's cursor. A node without a cursor
+     * starts at the end of the log, since it has no state yet that could be stale. Each shard is polled in a
+     * read-write transaction so its log is always read from the primary.
+     */
+    public synchronized void poll() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            // Listeners may read other shards, which they cannot do inside this shard's transaction.
+            dispatch(shards.onShard(shard, () -> transactionTemplate.execute(status -> pollCurrentShard())));
+        }
+    }
+
+    /**
+     * Removes entries older than the retention, then the cursors left behind them: those of nodes that stopped, or
+     * restarted under a new id, since they will never poll again.
+     */
+    public void prune() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int pruned = shards.onShard(shard, () ->
+                    changeLogRepository.deleteChangedBefore(LocalDateTime.now().minus(properties.getRetention())));
+            if (pruned > 0) {
+                log.info("Pruned {} change log entries on shard {}", pruned, shard);
+            }
+            int abandoned = shards.onShard(shard, () -> {
+                long firstId = changeLogRepository.findFirstId();
+                return firstId == 0 ? 0 : cursorRepository.deleteAppliedBefore(firstId - 1);
+            });
+            if (abandoned > 0) {
+                log.info("Removed {} abandoned change log cursors on shard {}", abandoned, shard);
+            }
+        }
+    }
+
+    private List<ChangeLogEntry> pollCurrentShard() {
+        Optional<ChangeLogCursor> storedCursor = cursorRepository.findById(nodeId);
+        ChangeLogCursor cursor = storedCursor.orElseGet(() -> new ChangeLogCursor(nodeId, changeLogRepository.findLastId()));
+        long lastAppliedId = cursor.getLastAppliedId();
+        LocalDateTime gapDeadline = LocalDateTime.now().minus(properties.getGapTimeout());
+        List<ChangeLogEntry> remoteChanges = new ArrayList<>();
+        for (ChangeLogEntry entry : changeLogRepository.findByIdGreaterThanOrderByIdAsc(lastAppliedId, Limit.of(properties.getBatchSize()))) {
+            if (entry.getId() != lastAppliedId + 1 && entry.getChangedAt().isAfter(gapDeadline)) {
+                break;
+            }
+            lastAppliedId = entry.getId();
+            if (!nodeId.equals(entry.getOriginNode())) {
+                remoteChanges.add(entry);
+            }
+        }
+        if (storedCursor.isEmpty() || lastAppliedId != cursor.getLastAppliedId()) {
+            cursor.setLastAppliedId(lastAppliedId);
+            cursorRepository.save(cursor);
+        }
+        return remoteChanges;
+    }
+
+    private void dispatch(List<ChangeLogEntry> entries) {
+        listeners.orderedStream().forEach(listener -> entries.forEach(entry -> {
+            try {
+                listener.onChange(entry);
+            } catch (RuntimeException e) {
+                log.error("Change log listener {} failed on entry {}", listener.getClass().getSimpleName(), entry.getId(), e);
+            }
+        }));
+    }
+}
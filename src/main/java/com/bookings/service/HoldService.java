@@ -0,0 +1,147 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.HashedTimingWheel;
+import com.bookings.config.HoldProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.exception.PropertyBookingBlockedException;
+import com.bookings.exception.PropertyUnavailableException;
+import com.bookings.models.Booking;
+import com.bookings.models.Hold;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.HoldRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Tentative holds. Expiry is driven by a hashed timing wheel: each hold registers one O(1) timeout, and no job ever
+ * scans the table for expired rows while the application runs. Availability checks compare {@code expiresAt} with
+ * the current time, so a hold stops counting the moment it expires even if its row is removed a tick later.
+ * Holds live on their property's shard, and each expiry runs on the shard its hold was created on.
+ */
+@Service
+public class HoldService {
+    private static final BusinessException INVALID_HOLD_DATES =
+            new BusinessException("Hold dates are invalid", ErrorCode.INVALID_BOOKING_DATES, false);
+
+    private final HoldRepository holdRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockService blockService;
+    private final HashedTimingWheel holdExpiryWheel;
+    private final HoldProperties holdProperties;
+    private final PropertyLeaseService propertyLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+
+    public HoldService(HoldRepository holdRepository, BookingRepository bookingRepository, BlockService blockService,
+                       @Qualifier("holdExpiryWheel") HashedTimingWheel holdExpiryWheel, HoldProperties holdProperties,
+                       PropertyLeaseService propertyLeaseService, PlatformTransactionManager transactionManager,
+                       Shards shards) {
+        this.holdRepository = holdRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockService = blockService;
+        this.holdExpiryWheel = holdExpiryWheel;
+        this.holdProperties = holdProperties;
+        this.propertyLeaseService = propertyLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    public Hold createHold(Hold hold, Duration duration) {
+        Duration holdDuration = duration == null ? holdProperties.getDefaultDuration() : duration;
+        checkHoldDuration(holdDuration);
+        checkHoldDates(hold);
+        int shard = shards.shardFor(hold.getPropertyId());
+        Hold persistedHold = shards.onShard(shard, () ->
+                propertyLeaseService.withLease(hold.getPropertyId(), lease -> transactionTemplate.execute(status -> {
+                    Booking booking = hold.toBooking(null);
+                    if (blockService.isBlocked(hold.getCheckInDate(), hold.getCheckOutDate(), hold.getPropertyId())) {
+                        throw new PropertyBookingBlockedException(booking);
+                    }
+                    if (bookingRepository.isBooked(hold.getCheckInDate(), hold.getCheckOutDate(), hold.getPropertyId(), false)
+                            || isHeld(hold.getCheckInDate(), hold.getCheckOutDate(), hold.getPropertyId())) {
+                        throw new PropertyUnavailableException(booking);
+                    }
+                    hold.setExpiresAt(LocalDateTime.now().plus(holdDuration));
+                    propertyLeaseService.fence(lease);
+                    return holdRepository.save(hold);
+                })));
+        scheduleExpiry(shard, persistedHold.getId(), holdDuration);
+        return persistedHold;
+    }
+
+    public boolean isHeld(LocalDate checkInDate, LocalDate checkOutDate, Long propertyId) {
+        return holdRepository.isHeld(checkInDate, checkOutDate, propertyId, LocalDateTime.now());
+    }
+
+    public Hold getLiveHold(Long id) {
+        return shards.findFirst(() -> findLiveHold(id)).orElseThrow(() -> holdExpired(id));
+    }
+
+    /**
+     * Removes a live hold so its dates can be booked in the caller's transaction, which must run on the hold's shard.
+     * Rolling that transaction back restores the hold.
+     */
+    @Transactional
+    public Hold consumeHold(Long id) {
+        Hold hold = findLiveHold(id).orElseThrow(() -> holdExpired(id));
+        holdRepository.delete(hold);
+        return hold;
+    }
+
+    public void releaseHold(Long id) {
+        shards.locate(() -> holdRepository.existsById(id))
+                .ifPresent(shard -> shards.onShard(shard, () -> holdRepository.deleteById(id)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverExpirations() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int target = shard;
+            shards.onShard(target, () -> {
+                LocalDateTime now = LocalDateTime.now();
+                holdRepository.deleteExpired(now);
+                holdRepository.findByExpiresAtAfter(now).forEach(expiration ->
+                        scheduleExpiry(target, expiration.getId(), Duration.between(now, expiration.getExpiresAt())));
+            });
+        }
+    }
+
+    private Optional<Hold> findLiveHold(Long id) {
+        return holdRepository.findById(id).filter(h -> !h.isExpired(LocalDateTime.now()));
+    }
+
+    private void scheduleExpiry(int shard, Long id, Duration delay) {
+        // One extra tick keeps the delete from racing the wall clock at the exact expiry instant.
+        holdExpiryWheel.schedule(() -> shards.onShard(shard, () -> holdRepository.deleteIfExpired(id, LocalDateTime.now())),
+                delay.plus(holdProperties.getTick()));
+    }
+
+    private void checkHoldDuration(Duration duration) {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(holdProperties.getMaxDuration()) > 0) {
+            throw new BusinessException("Hold duration must be between 1 and %s minutes".formatted(holdProperties.getMaxDuration().toMinutes()),
+                    ErrorCode.INVALID_HOLD_DURATION, false);
+        }
+    }
+
+    private static BusinessException holdExpired(Long id) {
+        return new BusinessException("Hold id=%s does not exist or has expired".formatted(id), ErrorCode.HOLD_EXPIRED, false);
+    }
+
+    private static void checkHoldDates(Hold hold) {
+        if (!hold.hasValidHoldDates()) {
+            throw INVALID_HOLD_DATES;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bookings.service;
+
+import com.bookings.config.AnalyticsProperties;
+import com.bookings.models.HotProperties;
+import com.bookings.models.HotProperties.HotProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the most requested and most rejected properties of this node with two {@link SpaceSaving} sketches, fed by
+ * every booking attempt. Memory is fixed by {@code bookings.analytics.hot-properties-capacity}. Counts decay by
+ * {@code hot-properties-decay} per elapsed {@code hot-properties-window}, applied lazily on the next access, so the
+ * ranking follows recent demand rather than all-time totals.
+ */
+@Service
+public class HotPropertyTracker {
+    private final SpaceSaving requested;
+    private final SpaceSaving rejected;
+    private final long windowNanos;
+    private final double decay;
+    private final LongSupplier nanoClock;
+    private long windowStart;
+
+    @Autowired
+    public HotPropertyTracker(AnalyticsProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    HotPropertyTracker(AnalyticsProperties properties, LongSupplier nanoClock) {
+        this.requested = new SpaceSaving(properties.getHotPropertiesCapacity());
+        this.rejected = new SpaceSaving(properties.getHotPropertiesCapacity());
+        this.windowNanos = properties.getHotPropertiesWindow().toNanos();
+        this.decay = properties.getHotPropertiesDecay();
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    public synchronized void requested(Long propertyId) {
+        decayElapsedWindows();
+        requested.offer(propertyId, 1);
+    }
+
+    public synchronized void rejected(Long propertyId) {
+        decayElapsedWindows();
+        rejected.offer(propertyId, 1);
+    }
+
+    public synchronized HotProperties top(int limit) {
+        decayElapsedWindows();
+        return new HotProperties(hotProperties(requested, limit), hotProperties(rejected, limit));
+    }
+
+    private static List<HotProperty> hotProperties(SpaceSaving sketch, int limit) {
+        return sketch.top(limit).stream()
+                .map(counter -> new HotProperty(counter.key(), counter.count(), counter.error()))
+                .toList();
+    }
+
+    private void decayElapsedWindows() {
+        long windows = (nanoClock.getAsLong() - windowStart) / windowNanos;
+        if (windows > 0) {
+            double factor = Math.pow(decay, windows);
+            requested.decay(factor);
+            rejected.decay(factor);
+            windowStart += windows * windowNanos;
+        }
+    }
+}
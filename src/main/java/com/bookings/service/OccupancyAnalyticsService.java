@@ -0,0 +1,156 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.config.AnalyticsProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.OccupancyReport;
+import com.bookings.models.OccupancyReport.GroupBy;
+import com.bookings.models.OccupancyReport.Group;
+import com.bookings.models.OccupancyReport.PropertyOccupancy;
+import com.bookings.models.OccupancyReport.Stats;
+import com.bookings.models.PropertyView;
+import com.bookings.repository.OccupancyRepository;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Computes occupancy reports without loading entities. Every shard streams its rows into arrays of counters indexed
+ * by property: days before the shard's rollup watermark come from {@code occupancy_rollups}, already summed by the
+ * database, and only the days after it are clipped from raw bookings and blocks. The shards' counters are then added
+ * up and grouped.
+ */
+@Service
+public class OccupancyAnalyticsService {
+    private final OccupancyRepository occupancyRepository;
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate readOnly;
+
+    public OccupancyAnalyticsService(OccupancyRepository occupancyRepository, ViewRepository viewRepository, Shards shards,
+                                     AnalyticsProperties properties, PlatformTransactionManager transactionManager) {
+        this.occupancyRepository = occupancyRepository;
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public OccupancyReport report(LocalDate from, LocalDate to, GroupBy groupBy) {
+        if (from == null || to == null || !from.isBefore(to) || from.plusDays(properties.getMaxPeriod().toDays()).isBefore(to)) {
+            throw new BusinessException("Report period must end after it starts and cover at most %s days"
+                    .formatted(properties.getMaxPeriod().toDays()), ErrorCode.INVALID_REPORT_PERIOD, false);
+        }
+        List<PropertyView> propertyViews = viewRepository.findProperties(null, null);
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < propertyViews.size(); i++) {
+            index.put(propertyViews.get(i).id(), i);
+        }
+        Counters total = new Counters(propertyViews.size());
+        shards.scatter(Lane.BULK, () -> readOnly.execute(status -> count(from, to, index))).forEach(total::add);
+
+        long nights = to.toEpochDay() - from.toEpochDay();
+        // Keyed by owner or manager id; properties without a manager share the null key, listed last.
+        Map<Long, List<PropertyOccupancy>> groups = new LinkedHashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        propertyViews.stream()
+                .sorted(Comparator.comparingLong((PropertyView view) -> Objects.requireNonNullElse(groupId(view, groupBy), Long.MAX_VALUE))
+                        .thenComparing(PropertyView::id))
+                .forEach(view -> {
+                    int i = index.get(view.id());
+                    names.put(groupId(view, groupBy), groupBy == GroupBy.OWNER ? view.ownerName() : view.managerName());
+                    groups.computeIfAbsent(groupId(view, groupBy), id -> new ArrayList<>()).add(new PropertyOccupancy(view.id(), view.name(),
+                            Stats.of(nights, total.booked[i], total.blocked[i], total.bookings[i], total.canceled[i])));
+                });
+        List<Group> result = new ArrayList<>(groups.size());
+        groups.forEach((groupId, occupancies) -> result.add(new Group(groupId, names.get(groupId),
+                occupancies.stream().map(PropertyOccupancy::stats).reduce(Stats::plus).orElseThrow(), occupancies)));
+        return new OccupancyReport(from, to, groupBy, result);
+    }
+
+    private static Long groupId(PropertyView view, GroupBy groupBy) {
+        return groupBy == GroupBy.OWNER ? view.ownerId() : view.managerId();
+    }
+
+    private Counters count(LocalDate from, LocalDate to, Map<Long, Integer> index) {
+        Counters counters = new Counters(index.size());
+        LocalDate rolledUpUntil = occupancyRepository.findWatermark(OccupancyRepository.OCCUPANCY).orElse(from);
+        LocalDate rawFrom = rolledUpUntil.isAfter(from) ? rolledUpUntil : from;
+        if (rawFrom.isAfter(from)) {
+            occupancyRepository.forEachRollupTotal(from, rawFrom.isBefore(to) ? rawFrom : to,
+                    (propertyId, booked, blocked, checkIns, canceledCheckIns) -> {
+                        Integer i = index.get(propertyId);
+                        if (i != null) {
+                            counters.booked[i] += booked;
+                            counters.blocked[i] += blocked;
+                            counters.bookings[i] += checkIns;
+                            counters.canceled[i] += canceledCheckIns;
+                        }
+                    });
+        }
+        if (rawFrom.isBefore(to)) {
+            long first = rawFrom.toEpochDay();
+            long end = to.toEpochDay();
+            occupancyRepository.forEachStay(rawFrom, to, (propertyId, checkIn, checkOut, canceled) -> {
+                Integer i = index.get(propertyId);
+                if (i == null) {
+                    return;
+                }
+                if (!canceled) {
+                    counters.booked[i] += Math.min(checkOut, end) - Math.max(checkIn, first);
+                }
+                if (checkIn >= first) {
+                    counters.bookings[i]++;
+                    counters.canceled[i] += canceled ? 1 : 0;
+                }
+            });
+            // Blocks come in start order and may overlap, so each property's days are only counted past the end of
+            // the blocks already counted.
+            long[] blockedUntil = new long[index.size()];
+            Arrays.fill(blockedUntil, first);
+            occupancyRepository.forEachBlock(rawFrom, to, (propertyId, start, last) -> {
+                Integer i = index.get(propertyId);
+                if (i != null) {
+                    long blockEnd = Math.min(last + 1, end);
+                    counters.blocked[i] += Math.max(0, blockEnd - Math.max(start, blockedUntil[i]));
+                    blockedUntil[i] = Math.max(blockedUntil[i], blockEnd);
+                }
+            });
+        }
+        return counters;
+    }
+
+    /**
+     * Running totals of one report, one slot per property.
+     */
+    private static final class Counters {
+        final long[] booked;
+        final long[] blocked;
+        final long[] bookings;
+        final long[] canceled;
+
+        Counters(int size) {
+            booked = new long[size];
+            blocked = new long[size];
+            bookings = new long[size];
+            canceled = new long[size];
+        }
+
+        void add(Counters other) {
+            for (int i = 0; i < booked.length; i++) {
+                booked[i] += other.booked[i];
+                blocked[i] += other.blocked[i];
+                bookings[i] += other.bookings[i];
+                canceled[i] += other.canceled[i];
+            }
+        }
+    }
+}
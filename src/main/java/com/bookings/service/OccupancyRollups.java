@@ -0,0 +1,132 @@
+package com.bookings.service;
+
+import com.bookings.repository.OccupancyRepository;
+import com.bookings.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains {@code occupancy_rollups} incrementally: every run rolls up the days between the shard's watermark and
+ * today, {@link #CHUNK_DAYS} days per transaction, and moves the watermark past them in the same transaction. Only
+ * days that are over are rolled up, and each only once; later edits to past dates are not reflected.
+ */
+@Service
+public class OccupancyRollups {
+    private static final Logger log = LoggerFactory.getLogger(OccupancyRollups.class);
+    static final int CHUNK_DAYS = 31;
+    private static final int BOOKED = 0;
+    private static final int BLOCKED = 1;
+    private static final int CHECK_INS = 2;
+    private static final int CANCELED_CHECK_INS = 3;
+    private static final int COUNTERS = 4;
+
+    private final OccupancyRepository occupancyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Shards shards;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OccupancyRollups(OccupancyRepository occupancyRepository, PlatformTransactionManager transactionManager, Shards shards) {
+        this.occupancyRepository = occupancyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+    }
+
+    /**
+     * Rolls up every day that is over on every shard. Returns the number of days rolled up, or 0 if a run was
+     * already in progress.
+     */
+    public long rollUp() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long total = 0;
+            for (int shard = 0; shard < shards.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+                total += shards.onShard(shard, this::rollUpCurrentShard);
+            }
+            if (total > 0) {
+                log.info("Rolled up occupancy of {} days", total);
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long rollUpCurrentShard() {
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer days = transactionTemplate.execute(status -> {
+                LocalDate from = occupancyRepository.findWatermark(OccupancyRepository.OCCUPANCY)
+                        .or(occupancyRepository::findFirstDay)
+                        .orElse(today);
+                LocalDate to = from.plusDays(CHUNK_DAYS).isBefore(today) ? from.plusDays(CHUNK_DAYS) : today;
+                if (!from.isBefore(to)) {
+                    return 0;
+                }
+                occupancyRepository.saveRollups(rollUp(from, to));
+                occupancyRepository.saveWatermark(OccupancyRepository.OCCUPANCY, to);
+                return (int) (to.toEpochDay() - from.toEpochDay());
+            });
+            if (days == 0) {
+                break;
+            }
+            total += days;
+        }
+        return total;
+    }
+
+    /**
+     * Streams the stays and blocks touching {@code [from, to)} into one counter array per property, then turns the
+     * days with any activity into rollup rows.
+     */
+    private List<Object[]> rollUp(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long end = to.toEpochDay();
+        int days = (int) (end - first);
+        Map<Long, int[]> counters = new HashMap<>();
+        occupancyRepository.forEachStay(from, to, (propertyId, checkIn, checkOut, canceled) -> {
+            int[] property = counters.computeIfAbsent(propertyId, id -> new int[days * COUNTERS]);
+            if (!canceled) {
+                for (long day = Math.max(checkIn, first); day < Math.min(checkOut, end); day++) {
+                    property[(int) (day - first) * COUNTERS + BOOKED]++;
+                }
+            }
+            if (checkIn >= first) {
+                property[(int) (checkIn - first) * COUNTERS + CHECK_INS]++;
+                if (canceled) {
+                    property[(int) (checkIn - first) * COUNTERS + CANCELED_CHECK_INS]++;
+                }
+            }
+        });
+        occupancyRepository.forEachBlock(from, to, (propertyId, start, last) -> {
+            int[] property = counters.computeIfAbsent(propertyId, id -> new int[days * COUNTERS]);
+            for (long day = Math.max(start, first); day <= Math.min(last, end - 1); day++) {
+                // Blocks may overlap; a day is blocked once however many blocks cover it.
+                property[(int) (day - first) * COUNTERS + BLOCKED] = 1;
+            }
+        });
+        List<Object[]> rows = new ArrayList<>();
+        counters.forEach((propertyId, property) -> {
+            for (int day = 0; day < days; day++) {
+                int offset = day * COUNTERS;
+                if (property[offset + BOOKED] + property[offset + BLOCKED] + property[offset + CHECK_INS] > 0) {
+                    rows.add(new Object[]{propertyId, LocalDate.ofEpochDay(first + day), property[offset + BOOKED],
+                            property[offset + BLOCKED], property[offset + CHECK_INS], property[offset + CANCELED_CHECK_INS]});
+                }
+            }
+        });
+        return rows;
+    }
+}
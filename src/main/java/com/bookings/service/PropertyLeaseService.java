@@ -0,0 +1,249 @@
+package com.bookings.service;
+
+import com.bookings.config.LeaseProperties;
+import com.bookings.config.NodeProperties;
+import com.bookings.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Serialises check-then-write sequences on a property across every instance sharing the database. Threads of this
+ * instance queue on a local lock stripe first, so at most one of them competes for the database lease. The lease
+ * itself is taken with a single upsert that succeeds when the row is absent, released or expired, and every
+ * successful acquisition bumps the row's fencing token. A lease belongs to one acquisition, not to the node: fencing
+ * and release match the node id and that acquisition's token. Writers call {@link #fence(Lease)} inside their transaction:
+ * it locks the lease row and fails if the token moved on, so an instance that paused past its TTL and lost the lease
+ * to another one cannot commit.
+ * <p>
+ * Acquisition and release commit in their own transactions so other instances see them immediately; callers should
+ * take the lease before opening the transaction that writes, which keeps one connection per writer.
+ * <p>
+ * Leases live on the shard that holds the property. When the property moves, its lease on the old shard is
+ * {@link #retire retired} for good, so writers still routing there by a stale directory fail fast instead of writing
+ * to rows that are no longer read.
+ */
+@Service
+public class PropertyLeaseService {
+    private static final Logger log = LoggerFactory.getLogger(PropertyLeaseService.class);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final int LOCK_STRIPES = 64;
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private static final String ACQUIRE_SQL = """
+            SELECT fencing_token, previous_owner_id FROM FINAL TABLE (
+                MERGE INTO property_leases l
+                USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(64)))) AS r(property_id, owner_id)
+                ON l.property_id = r.property_id
+                WHEN MATCHED AND l.expires_at <= LOCALTIMESTAMP THEN
+                    UPDATE SET previous_owner_id = l.owner_id, owner_id = r.owner_id,
+                               fencing_token = l.fencing_token + 1, expires_at = DATEADD(MILLISECOND, ?, LOCALTIMESTAMP)
+                WHEN NOT MATCHED THEN
+                    INSERT (property_id, owner_id, fencing_token, expires_at)
+                    VALUES (r.property_id, r.owner_id, 1, DATEADD(MILLISECOND, ?, LOCALTIMESTAMP)))""";
+    private static final String FENCE_SQL = """
+            UPDATE property_leases SET fencing_token = fencing_token
+            WHERE property_id = ? AND owner_id = ? AND fencing_token = ? AND expires_at > LOCALTIMESTAMP""";
+    private static final String RELEASE_SQL = """
+            UPDATE property_leases SET owner_id = NULL, expires_at = LOCALTIMESTAMP
+            WHERE property_id = ? AND owner_id = ? AND fencing_token = ?""";
+
+    private static final String RETIRE_SQL = """
+            UPDATE property_leases SET owner_id = ?, expires_at = TIMESTAMP '9999-12-31 00:00:00'
+            WHERE property_id = ? AND owner_id = ? AND fencing_token = ? AND expires_at > LOCALTIMESTAMP""";
+    private static final String MOVED_SQL = """
+            SELECT owner_id FROM property_leases WHERE property_id = ? AND owner_id LIKE 'moved:%'""";
+    private static final String REINSTATE_SQL = """
+            DELETE FROM property_leases WHERE property_id = ? AND owner_id LIKE 'moved:%'""";
+    private static final String MOVED_PREFIX = "moved:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final LeaseProperties properties;
+    private final String nodeId;
+    private final ReentrantLock[] localLocks = new ReentrantLock[LOCK_STRIPES];
+    private final Timer acquireTimer;
+    private final Counter steals;
+
+    public PropertyLeaseService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                LeaseProperties properties, NodeProperties nodeProperties,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.nodeId = nodeProperties.getId();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            localLocks[i] = new ReentrantLock();
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.acquireTimer = registry == null ? null : Timer.builder("bookings.lease.acquire").register(registry);
+        this.steals = registry == null ? null : Counter.builder("bookings.lease.steals").register(registry);
+    }
+
+    /**
+     * Runs {@code action} while holding the lease on {@code propertyId}. The action receives the lease so it can
+     * {@link #fence(Lease) fence} its transaction.
+     */
+    public <T> T withLease(Long propertyId, Function<Lease, T> action) {
+        Lease lease = acquire(propertyId);
+        try {
+            return action.apply(lease);
+        } finally {
+            release(lease);
+        }
+    }
+
+    /**
+     * Waits up to {@code bookings.leases.acquire-timeout} for the lease. Every successful call must be paired with
+     * {@link #release(Lease)} on the same thread.
+     */
+    public Lease acquire(Long propertyId) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getAcquireTimeout().toNanos();
+        ReentrantLock localLock = localLocks[Math.floorMod(propertyId.hashCode(), LOCK_STRIPES)];
+        try {
+            if (!localLock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+        }
+        try {
+            Lease lease = acquireShared(propertyId, deadline);
+            if (acquireTimer != null) {
+                acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return lease;
+        } catch (RuntimeException e) {
+            localLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Single attempt at the database lease, without local queueing or waiting. Empty when another instance holds it.
+     */
+    public Optional<Lease> tryAcquire(Long propertyId) {
+        long ttlMillis = properties.getTtl().toMillis();
+        Optional<Lease> lease;
+        try {
+            lease = ownTransaction.execute(status -> jdbcTemplate.query(ACQUIRE_SQL,
+                    rs -> rs.next() ? Optional.of(new Lease(propertyId, rs.getLong(1), rs.getString(2))) : Optional.<Lease>empty(),
+                    propertyId, nodeId, ttlMillis, ttlMillis));
+        } catch (DuplicateKeyException e) {
+            // Another instance inserted the first lease row for this property between our MERGE's match and insert.
+            return Optional.empty();
+        }
+        lease.filter(this::isSteal).ifPresent(stolen -> {
+            log.warn("Took over expired lease on property {} from {}", propertyId, stolen.previousOwner());
+            if (steals != null) {
+                steals.increment();
+            }
+        });
+        return lease;
+    }
+
+    /**
+     * Verifies, inside the caller's transaction, that {@code lease} is still current, and locks the lease row until
+     * that transaction ends so it cannot be taken over before the write commits.
+     */
+    public void fence(Lease lease) {
+        if (jdbcTemplate.update(FENCE_SQL, lease.propertyId(), nodeId, lease.fencingToken()) == 0) {
+            throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+        }
+    }
+
+    public void release(Lease lease) {
+        try {
+            ownTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(RELEASE_SQL, lease.propertyId(), nodeId, lease.fencingToken()));
+        } catch (RuntimeException e) {
+            // The lease expires on its own; other instances only wait for its TTL.
+            log.warn("Could not release lease on property {}", lease.propertyId(), e);
+        } finally {
+            ReentrantLock localLock = localLocks[Math.floorMod(lease.propertyId().hashCode(), LOCK_STRIPES)];
+            if (localLock.isHeldByCurrentThread()) {
+                localLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Hands the property over to {@code targetShard} inside the caller's transaction on the current shard. Like
+     * {@link #fence(Lease)} it fails if {@code lease} is no longer current; once committed, the lease can never be
+     * acquired on this shard again until {@link #reinstate(Long) reinstated}.
+     */
+    public void retire(Lease lease, int targetShard) {
+        if (jdbcTemplate.update(RETIRE_SQL, MOVED_PREFIX + targetShard, lease.propertyId(), nodeId, lease.fencingToken()) == 0) {
+            throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+        }
+    }
+
+    /**
+     * Shard the property was moved to, if its lease on the current shard is retired.
+     */
+    public Optional<Integer> movedTo(Long propertyId) {
+        return jdbcTemplate.queryForList(MOVED_SQL, String.class, propertyId).stream()
+                .map(owner -> Integer.valueOf(owner.substring(MOVED_PREFIX.length())))
+                .findFirst();
+    }
+
+    /**
+     * Lifts a retirement on the current shard when the property moves back to it.
+     */
+    public void reinstate(Long propertyId) {
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(REINSTATE_SQL, propertyId));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private Lease acquireShared(Long propertyId, long deadline) {
+        long backoffMillis = 1;
+        while (true) {
+            Optional<Lease> lease = tryAcquire(propertyId);
+            if (lease.isPresent()) {
+                return lease.get();
+            }
+            if (backoffMillis == 1 && movedTo(propertyId).isPresent()) {
+                // Routed by a directory entry that is out of date; the change log catches up within a poll interval.
+                throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+            }
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) > deadline) {
+                throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceOverloadedException("property lease", RETRY_AFTER);
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private boolean isSteal(Lease lease) {
+        return lease.previousOwner() != null && !lease.previousOwner().equals(nodeId);
+    }
+
+    public record Lease(Long propertyId, long fencingToken, String previousOwner) {
+    }
+}
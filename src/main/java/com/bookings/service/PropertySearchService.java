@@ -0,0 +1,229 @@
+package com.bookings.service;
+
+import com.bookings.config.SearchProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.OccupancyTimeline;
+import com.bookings.models.PropertyMatch;
+import com.bookings.models.PropertySearchResult;
+import com.bookings.models.PropertyView;
+import com.bookings.repository.ViewRepository;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds properties free for a stay, allowing the check-in to move up to {@code flexDays} either way and the stay to
+ * shrink down to {@code minNights}. Up to {@code bookings.search.max-candidates} properties are split into chunks
+ * evaluated on the search fork-join pool against the {@link AvailabilityService} timelines. Timelines not in memory
+ * are loaded from the database up to {@code bookings.search.max-timeline-loads} per query; the properties past that
+ * are skipped.
+ * <p>
+ * Every worker charges the CPU time it spends to the query. Once the query has used {@code bookings.search.cpu-budget},
+ * or {@code bookings.search.time-budget} has elapsed, the remaining properties are skipped and the matches found so
+ * far are returned as incomplete; the caller never waits longer than the time budget, even on workers blocked on the
+ * database. The search also stops early once it holds {@code limit} exact matches, since nothing else can rank above
+ * them.
+ */
+@Service
+public class PropertySearchService {
+    public static final int DEFAULT_LIMIT = 10;
+    private static final int CHUNK_SIZE = 8;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Comparator<PropertyMatch> RANKING = Comparator.comparingInt(PropertyMatch::nights).reversed()
+            .thenComparingInt(match -> Math.abs(match.shiftDays()))
+            .thenComparingInt(PropertyMatch::shiftDays)
+            .thenComparing(PropertyMatch::propertyId);
+
+    private final ViewRepository viewRepository;
+    private final AvailabilityService availabilityService;
+    private final ForkJoinPool searchPool;
+    private final SearchProperties properties;
+
+    public PropertySearchService(ViewRepository viewRepository, AvailabilityService availabilityService,
+                                 ForkJoinPool searchPool, SearchProperties properties) {
+        this.viewRepository = viewRepository;
+        this.availabilityService = availabilityService;
+        this.searchPool = searchPool;
+        this.properties = properties;
+    }
+
+    /**
+     * Best {@code limit} matches for a stay from {@code checkIn} to {@code checkOut}, at most one per property:
+     * longest stay first, then smallest shift, earlier before later. {@code minNights} defaults to the full stay;
+     * {@code ownerId} and {@code managerId} narrow the properties searched.
+     */
+    public PropertySearchResult search(LocalDate checkIn, LocalDate checkOut, int flexDays, Integer minNights,
+                                       Long ownerId, Long managerId, int limit) {
+        int nights = checkIn == null || checkOut == null ? 0 : (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights < 1 || nights > AvailabilityService.MAX_NIGHTS) {
+            throw invalid("Check-out must be 1 to %s nights after check-in".formatted(AvailabilityService.MAX_NIGHTS));
+        }
+        if (flexDays < 0 || flexDays > properties.getMaxFlexDays()) {
+            throw invalid("Flexibility must be between 0 and %s days".formatted(properties.getMaxFlexDays()));
+        }
+        int shortest = minNights == null ? nights : minNights;
+        if (shortest < 1 || shortest > nights) {
+            throw invalid("Minimum nights must be between 1 and %s".formatted(nights));
+        }
+        Search search = new Search(checkIn, nights, shortest, flexDays, Math.max(1, Math.min(limit, properties.getMaxResults())));
+        List<PropertyView> candidates = viewRepository.findProperties(ownerId, managerId, properties.getMaxCandidates() + 1);
+        if (candidates.size() > properties.getMaxCandidates()) {
+            candidates = candidates.subList(0, properties.getMaxCandidates());
+            search.skipped = true;
+        }
+        ForkJoinTask<Void> evaluation = searchPool.submit(new Evaluation(search, candidates, 0, candidates.size()));
+        try {
+            evaluation.get(properties.getTimeBudget().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Workers stop at their next property; the matches they add meanwhile are not waited for.
+            search.exhausted = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            search.exhausted = true;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+        List<PropertyMatch> matches = List.copyOf(search.matches);
+        return new PropertySearchResult(matches.stream().sorted(RANKING).limit(search.limit).toList(),
+                !search.exhausted && !search.skipped);
+    }
+
+    private static BusinessException invalid(String message) {
+        return new BusinessException(message, ErrorCode.INVALID_AVAILABILITY_QUERY, false);
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * State shared by the workers of one query.
+     */
+    private final class Search {
+        final LocalDate checkIn;
+        final LocalDate today = LocalDate.now();
+        final int nights;
+        final int minNights;
+        final int flexDays;
+        final int limit;
+        final long cpuBudget = properties.getCpuBudget().toNanos();
+        final long deadline = System.nanoTime() + properties.getTimeBudget().toNanos();
+        final AtomicLong cpuUsed = new AtomicLong();
+        final AtomicInteger exactMatches = new AtomicInteger();
+        final AtomicInteger loads = new AtomicInteger();
+        final Queue<PropertyMatch> matches = new ConcurrentLinkedQueue<>();
+        volatile boolean exhausted;
+        volatile boolean skipped;
+
+        Search(LocalDate checkIn, int nights, int minNights, int flexDays, int limit) {
+            this.checkIn = checkIn;
+            this.nights = nights;
+            this.minNights = minNights;
+            this.flexDays = flexDays;
+            this.limit = limit;
+        }
+
+        boolean shouldStop(long chunkStart) {
+            if (exhausted || exactMatches.get() >= limit) {
+                return true;
+            }
+            if (cpuUsed.get() + cpuTime() - chunkStart >= cpuBudget || System.nanoTime() >= deadline) {
+                exhausted = true;
+            }
+            return exhausted;
+        }
+
+        /**
+         * The property's timeline from memory, or from the database while the query has loads left.
+         */
+        Optional<OccupancyTimeline> timeline(PropertyView property) {
+            Optional<OccupancyTimeline> cached = availabilityService.cachedTimeline(property.id());
+            if (cached.isPresent()) {
+                return cached;
+            }
+            if (loads.incrementAndGet() > properties.getMaxTimelineLoads()) {
+                skipped = true;
+                return Optional.empty();
+            }
+            return availabilityService.timeline(property.id());
+        }
+
+        /**
+         * Tries check-ins in order of distance from the requested one, earlier first, and keeps the longest stay;
+         * a full-length stay ends the search since no later shift can rank above it.
+         */
+        Optional<PropertyMatch> evaluate(PropertyView property, OccupancyTimeline timeline) {
+            PropertyMatch best = null;
+            for (int distance = 0; distance <= flexDays; distance++) {
+                for (int shift : distance == 0 ? new int[]{0} : new int[]{-distance, distance}) {
+                    LocalDate start = checkIn.plusDays(shift);
+                    if (start.isBefore(today)) {
+                        continue;
+                    }
+                    int free = timeline.freeNights(start, nights);
+                    if (free >= minNights && (best == null || free > best.nights())) {
+                        best = new PropertyMatch(property.id(), property.name(), start, start.plusDays(free), shift, free);
+                        if (free == nights) {
+                            if (shift == 0) {
+                                exactMatches.incrementAndGet();
+                            }
+                            return Optional.of(best);
+                        }
+                    }
+                }
+            }
+            return Optional.ofNullable(best);
+        }
+    }
+
+    private final class Evaluation extends RecursiveAction {
+        private final Search search;
+        private final List<PropertyView> candidates;
+        private final int from;
+        private final int to;
+
+        Evaluation(Search search, List<PropertyView> candidates, int from, int to) {
+            this.search = search;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Evaluation(search, candidates, from, middle), new Evaluation(search, candidates, middle, to));
+                return;
+            }
+            long chunkStart = cpuTime();
+            try {
+                for (int i = from; i < to && !search.shouldStop(chunkStart); i++) {
+                    PropertyView property = candidates.get(i);
+                    search.timeline(property)
+                            .flatMap(timeline -> search.evaluate(property, timeline))
+                            .ifPresent(search.matches::add);
+                }
+            } finally {
+                search.cpuUsed.addAndGet(cpuTime() - chunkStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bookings.service;
+
+import com.bookings.models.BlockView;
+import com.bookings.models.BookingView;
+import com.bookings.models.PropertyDetail;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PropertyService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final ViewRepository viewRepository;
+    private final Shards shards;
+    private final TransactionTemplate readOnly;
+
+    public PropertyService(ViewRepository viewRepository, Shards shards, PlatformTransactionManager transactionManager) {
+        this.viewRepository = viewRepository;
+        this.shards = shards;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Reads the property with its owner and manager, then at most {@code limit} bookings and blocks still ahead of
+     * {@code from}: three statements in one read-only transaction on the property's shard, however long its calendar.
+     * Each list is read one row past the limit to tell whether there is more.
+     */
+    public Optional<PropertyDetail> getProperty(Long id, LocalDate from, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return shards.onPropertyShard(id, () -> readOnly.execute(status -> viewRepository.findProperty(id).map(property -> {
+            List<BookingView> bookings = viewRepository.findUpcomingBookings(id, from, pageSize + 1);
+            List<BlockView> blocks = viewRepository.findUpcomingBlocks(id, from, pageSize + 1);
+            return new PropertyDetail(property,
+                    bookings.subList(0, Math.min(pageSize, bookings.size())), bookings.size() > pageSize,
+                    blocks.subList(0, Math.min(pageSize, blocks.size())), blocks.size() > pageSize);
+        })));
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookings.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch over {@code long} keys. It monitors at most {@code capacity} keys; an unmonitored
+ * key takes over the counter of the smallest one and inherits its count as possible overestimate. Any key counted
+ * more than total/capacity times is guaranteed to be monitored, and a monitored key's true count lies between
+ * {@code count - error} and {@code count}. Counters sit in an array-backed min-heap, so offering is O(log capacity)
+ * and memory stays fixed however many distinct keys arrive.
+ * <p>
+ * Counts are doubles so they can be {@link #decay decayed}; scaling every counter by the same factor keeps the heap
+ * order intact. Not thread-safe.
+ */
+final class SpaceSaving {
+    private final long[] keys;
+    private final double[] counts;
+    private final double[] errors;
+    /**
+     * Counter slots ordered as a min-heap on their count, and each slot's position in it.
+     */
+    private final int[] heap;
+    private final int[] positions;
+    private final Map<Long, Integer> slots;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        keys = new long[capacity];
+        counts = new double[capacity];
+        errors = new double[capacity];
+        heap = new int[capacity];
+        positions = new int[capacity];
+        slots = new HashMap<>(capacity * 2);
+    }
+
+    void offer(long key, double weight) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(positions[slot]);
+            return;
+        }
+        if (size < keys.length) {
+            int free = size++;
+            keys[free] = key;
+            counts[free] = weight;
+            errors[free] = 0;
+            heap[free] = free;
+            positions[free] = free;
+            slots.put(key, free);
+            siftUp(free);
+            return;
+        }
+        int smallest = heap[0];
+        slots.remove(keys[smallest]);
+        keys[smallest] = key;
+        errors[smallest] = counts[smallest];
+        counts[smallest] += weight;
+        slots.put(key, smallest);
+        siftDown(0);
+    }
+
+    void decay(double factor) {
+        for (int slot = 0; slot < size; slot++) {
+            counts[slot] *= factor;
+            errors[slot] *= factor;
+        }
+    }
+
+    /**
+     * The {@code limit} largest counters, largest first.
+     */
+    List<Counter> top(int limit) {
+        List<Counter> counters = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            counters.add(new Counter(keys[slot], counts[slot], errors[slot]));
+        }
+        counters.sort((a, b) -> Double.compare(b.count(), a.count()));
+        return counters.subList(0, Math.min(limit, counters.size()));
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[heap[position]]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+        positions[heap[i]] = i;
+        positions[heap[j]] = j;
+    }
+
+    record Counter(long key, double count, double error) {
+    }
+}
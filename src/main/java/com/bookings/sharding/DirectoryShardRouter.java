@@ -0,0 +1,61 @@
+package com.bookings.sharding;
+
+import com.bookings.datasource.ShardContext;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.ShardAssignment;
+import com.bookings.repository.ShardAssignmentRepository;
+import com.bookings.service.ChangeLogListener;
+import jakarta.annotation.PostConstruct;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default placement: property {@code p} lives on shard {@code p mod shardCount} unless the rebalancer moved it. Moves
+ * are kept in the {@code shard_directory} table on shard 0 and cached here; other nodes pick up a move from the change
+ * log.
+ */
+public class DirectoryShardRouter implements ShardRouter, ChangeLogListener {
+    private final int shardCount;
+    private final ShardAssignmentRepository assignmentRepository;
+    private final Map<Long, Integer> assignments = new ConcurrentHashMap<>();
+
+    public DirectoryShardRouter(int shardCount, ShardAssignmentRepository assignmentRepository) {
+        this.shardCount = shardCount;
+        this.assignmentRepository = assignmentRepository;
+    }
+
+    @PostConstruct
+    void loadDirectory() {
+        if (shardCount > 1) {
+            ShardContext.call(0, assignmentRepository::findAll)
+                    .forEach(assignment -> assignments.put(assignment.getPropertyId(), assignment.getShard()));
+        }
+    }
+
+    @Override
+    public int shardFor(Long propertyId) {
+        return assignments.getOrDefault(propertyId, defaultShard(propertyId));
+    }
+
+    /**
+     * Records a move. Must run in a transaction on shard 0, together with the change log entry announcing it.
+     */
+    public void assign(Long propertyId, int shard) {
+        assignmentRepository.save(new ShardAssignment(propertyId, shard));
+        assignments.put(propertyId, shard);
+    }
+
+    @Override
+    public void onChange(ChangeLogEntry entry) {
+        if (entry.getEntityType() == ChangeLogEntry.EntityType.SHARD_ASSIGNMENT) {
+            ShardContext.call(0, () -> assignmentRepository.findById(entry.getPropertyId()))
+                    .ifPresentOrElse(assignment -> assignments.put(assignment.getPropertyId(), assignment.getShard()),
+                            () -> assignments.remove(entry.getPropertyId()));
+        }
+    }
+
+    private int defaultShard(Long propertyId) {
+        return (int) Math.floorMod(propertyId, (long) shardCount);
+    }
+}
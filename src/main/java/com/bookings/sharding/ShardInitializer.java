@@ -0,0 +1,80 @@
+package com.bookings.sharding;
+
+import com.bookings.config.ShardingProperties;
+import com.bookings.datasource.SchemaMigrations;
+import com.bookings.datasource.ShardContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Prepares the extra shards once the application context is up. A shard without a schema yet gets the mapped schema,
+ * the {@link SchemaMigrations}, the reference data of {@code data.sql}, and every sequence and identity column moved
+ * into the shard's id range so rows keep their ids when the rebalancer moves them. A shard that already has one, as a
+ * persistent database does on every start after its first, only gets the pending migrations: its sequences already
+ * run past the rows it holds. Shard 0 is initialized by Spring Boot as usual.
+ */
+public class ShardInitializer implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ShardInitializer.class);
+    private static final String SEQUENCES_SQL =
+            "SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema = 'PUBLIC'";
+    private static final String SCHEMA_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_name = 'SCHEMA_HISTORY'";
+    private static final String IDENTITY_COLUMNS_SQL =
+            "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = 'PUBLIC' AND is_identity = 'YES'";
+
+    private final ShardingProperties properties;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SchemaMigrations schemaMigrations;
+
+    public ShardInitializer(ShardingProperties properties, DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                            SchemaMigrations schemaMigrations) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.schemaMigrations = schemaMigrations;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isInitializeSchema()) {
+            return;
+        }
+        for (int shard = 1; shard < properties.getShardCount(); shard++) {
+            int target = shard;
+            ShardContext.call(target, () -> {
+                initialize(target);
+                return null;
+            });
+        }
+    }
+
+    private void initialize(int shard) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (jdbcTemplate.queryForObject(SCHEMA_EXISTS_SQL, Integer.class) > 0) {
+            schemaMigrations.migrate();
+            return;
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+        schemaMigrations.migrate();
+        ClassPathResource referenceData = new ClassPathResource("data.sql");
+        if (referenceData.exists()) {
+            new ResourceDatabasePopulator(referenceData).execute(dataSource);
+        }
+        long firstId = shard * properties.getIdRangeSize() + 1;
+        jdbcTemplate.queryForList(SEQUENCES_SQL, String.class)
+                .forEach(sequence -> jdbcTemplate.execute("ALTER SEQUENCE \"%s\" RESTART WITH %d".formatted(sequence, firstId)));
+        jdbcTemplate.query(IDENTITY_COLUMNS_SQL, (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)})
+                .forEach(column -> jdbcTemplate.execute("ALTER TABLE \"%s\" ALTER COLUMN \"%s\" RESTART WITH %d"
+                        .formatted(column[0], column[1], firstId)));
+        log.info("Initialized shard {} with ids from {}", shard, firstId);
+    }
+}
@@ -0,0 +1,173 @@
+package com.bookings.sharding;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.BookingRepository.PropertyLoad;
+import com.bookings.service.ChangeLogService;
+import com.bookings.service.PropertyLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Moves properties, with their bookings, archived bookings, blocks and holds, between shards. A move copies the rows to the target
+ * while holding the property's lease on the source, then retires that lease in a fenced transaction, so no write can
+ * land on the source after the copy. Only then is the directory updated and announced through the change log, and
+ * the source rows removed. Every step can be repeated, so a move interrupted half way is finished by running it
+ * again. Expiry timers of moved holds stay behind; their rows stop counting when they expire and are removed at the
+ * next startup.
+ */
+@Component
+public class ShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+    /**
+     * Tables holding a property's rows, with their keys, in an order that satisfies their foreign keys.
+     */
+    private static final Map<String, String> PROPERTY_TABLES = orderedMap(
+            "bookings", "id", "bookings_archive", "id", "blocks", "id", "recurring_blocks", "id", "holds", "id", "booking_nights", "property_id, night",
+            "occupancy_rollups", "property_id, night");
+
+    private final Shards shards;
+    private final ShardRouter shardRouter;
+    private final PropertyLeaseService propertyLeaseService;
+    private final ChangeLogService changeLogService;
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardRebalancer(Shards shards, ShardRouter shardRouter, PropertyLeaseService propertyLeaseService,
+                           ChangeLogService changeLogService, BookingRepository bookingRepository,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.shards = shards;
+        this.shardRouter = shardRouter;
+        this.propertyLeaseService = propertyLeaseService;
+        this.changeLogService = changeLogService;
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<ShardLoad> loads() {
+        List<List<PropertyLoad>> loads = shards.scatter(Lane.BULK, bookingRepository::countByProperty);
+        List<ShardLoad> shardLoads = new ArrayList<>(loads.size());
+        for (int shard = 0; shard < loads.size(); shard++) {
+            shardLoads.add(new ShardLoad(shard, loads.get(shard).size(),
+                    loads.get(shard).stream().mapToLong(PropertyLoad::getBookings).sum()));
+        }
+        return shardLoads;
+    }
+
+    public Move moveProperty(Long propertyId, int targetShard) {
+        if (!(shardRouter instanceof DirectoryShardRouter directory)) {
+            throw new IllegalStateException("Moving properties needs the shard directory, not " + shardRouter.getClass().getSimpleName());
+        }
+        if (targetShard < 0 || targetShard >= shards.getShardCount()) {
+            throw new IllegalArgumentException("No shard " + targetShard);
+        }
+        int sourceShard = shards.shardFor(propertyId);
+        if (sourceShard != targetShard) {
+            shards.onShard(sourceShard, () -> {
+                if (propertyLeaseService.movedTo(propertyId).isEmpty()) {
+                    copyAndRetire(propertyId, targetShard);
+                }
+            });
+            shards.onShard(targetShard, () -> propertyLeaseService.reinstate(propertyId));
+            shards.onShard(0, () -> transactionTemplate.executeWithoutResult(status -> {
+                directory.assign(propertyId, targetShard);
+                changeLogService.record(EntityType.SHARD_ASSIGNMENT, propertyId, propertyId, Operation.UPDATED);
+            }));
+            log.info("Moved property {} from shard {} to shard {}", propertyId, sourceShard, targetShard);
+        }
+        removeCopiesOutside(propertyId, targetShard);
+        return new Move(propertyId, sourceShard, targetShard);
+    }
+
+    /**
+     * Moves properties from the shard with the most bookings to the one with the fewest, largest first, as long as a
+     * move narrows the gap between the two.
+     */
+    public List<Move> rebalance() {
+        List<List<PropertyLoad>> loads = shards.scatter(Lane.BULK, bookingRepository::countByProperty);
+        long[] shardLoads = new long[loads.size()];
+        List<Deque<PropertyLoad>> candidates = new ArrayList<>(loads.size());
+        for (int shard = 0; shard < loads.size(); shard++) {
+            shardLoads[shard] = loads.get(shard).stream().mapToLong(PropertyLoad::getBookings).sum();
+            candidates.add(loads.get(shard).stream()
+                    .sorted(Comparator.comparingLong(PropertyLoad::getBookings).reversed())
+                    .collect(ArrayDeque::new, ArrayDeque::add, ArrayDeque::addAll));
+        }
+        List<Move> moves = new ArrayList<>();
+        while (true) {
+            int heaviest = 0;
+            int lightest = 0;
+            for (int shard = 1; shard < shardLoads.length; shard++) {
+                heaviest = shardLoads[shard] > shardLoads[heaviest] ? shard : heaviest;
+                lightest = shardLoads[shard] < shardLoads[lightest] ? shard : lightest;
+            }
+            long gap = shardLoads[heaviest] - shardLoads[lightest];
+            Deque<PropertyLoad> movable = candidates.get(heaviest);
+            while (!movable.isEmpty() && movable.peekFirst().getBookings() >= gap) {
+                movable.removeFirst();
+            }
+            if (movable.isEmpty()) {
+                return moves;
+            }
+            PropertyLoad property = movable.removeFirst();
+            moves.add(moveProperty(property.getPropertyId(), lightest));
+            shardLoads[heaviest] -= property.getBookings();
+            shardLoads[lightest] += property.getBookings();
+        }
+    }
+
+    private void copyAndRetire(Long propertyId, int targetShard) {
+        int sourceShard = shards.shardFor(propertyId);
+        propertyLeaseService.withLease(propertyId, lease -> {
+            Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+            PROPERTY_TABLES.keySet().forEach(table -> rows.put(table,
+                    jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE property_id = ?", propertyId)));
+            shards.onShard(targetShard, () -> transactionTemplate.executeWithoutResult(status ->
+                    rows.forEach((table, tableRows) -> tableRows.forEach(row -> merge(table, row)))));
+            return shards.onShard(sourceShard, () -> transactionTemplate.execute(status -> {
+                propertyLeaseService.retire(lease, targetShard);
+                return null;
+            }));
+        });
+    }
+
+    private void removeCopiesOutside(Long propertyId, int targetShard) {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            if (shard != targetShard) {
+                shards.onShard(shard, () -> transactionTemplate.executeWithoutResult(status -> PROPERTY_TABLES.keySet().forEach(table ->
+                        jdbcTemplate.update("DELETE FROM " + table + " WHERE property_id = ?", propertyId))));
+            }
+        }
+    }
+
+    private void merge(String table, Map<String, Object> row) {
+        String columns = String.join(", ", row.keySet());
+        String placeholders = String.join(", ", Collections.nCopies(row.size(), "?"));
+        jdbcTemplate.update("MERGE INTO %s (%s) KEY (%s) VALUES (%s)".formatted(table, columns, PROPERTY_TABLES.get(table), placeholders),
+                row.values().toArray());
+    }
+
+    private static Map<String, String> orderedMap(String... keysAndValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    public record ShardLoad(int shard, int properties, long bookings) {
+    }
+
+    public record Move(Long propertyId, int fromShard, int toShard) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookings.sharding;
+
+/**
+ * Places a property, with all its bookings, blocks, holds and leases, on one shard. Declare a bean of this type to
+ * replace the default {@link DirectoryShardRouter}.
+ */
+public interface ShardRouter {
+    int shardFor(Long propertyId);
+}
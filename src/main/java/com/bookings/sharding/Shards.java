@@ -0,0 +1,129 @@
+package com.bookings.sharding;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.config.ShardingProperties;
+import com.bookings.datasource.ShardContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for code that touches sharded data. Work on one property runs on that property's shard; reads that
+ * cannot be narrowed to a property are scattered to every shard in parallel on the caller's lane and gathered in
+ * shard order. With a single shard everything runs inline on shard 0.
+ */
+@Component
+public class Shards {
+    private final int shardCount;
+    private final ShardRouter shardRouter;
+    private final LaneScheduler laneScheduler;
+
+    public Shards(ShardingProperties properties, ShardRouter shardRouter, LaneScheduler laneScheduler) {
+        this.shardCount = properties.getShardCount();
+        this.shardRouter = shardRouter;
+        this.laneScheduler = laneScheduler;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(Long propertyId) {
+        return shardRouter.shardFor(propertyId);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return ShardContext.call(shard, action);
+    }
+
+    public void onShard(int shard, Runnable action) {
+        ShardContext.call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T onPropertyShard(Long propertyId, Supplier<T> action) {
+        return onShard(shardFor(propertyId), action);
+    }
+
+    /**
+     * Runs {@code action} once on every shard, in parallel on {@code lane}, and returns the results in shard order.
+     * A shard whose task has not started by the time the caller needs it runs on the caller instead, so a bulk job
+     * scattering from a bulk lane thread neither waits on a lane its siblings keep busy nor fails on a full queue.
+     */
+    public <T> List<T> scatter(Lane lane, Supplier<T> action) {
+        if (shardCount == 1) {
+            return List.of(onShard(0, action));
+        }
+        List<ShardTask<T>> tasks = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardTask<T> task = new ShardTask<>(shard, action);
+            tasks.add(task);
+            try {
+                laneScheduler.run(lane, TaskPriority.HIGH, task::claimAndRun);
+            } catch (RejectedExecutionException e) {
+                // Left for the caller.
+            }
+        }
+        try {
+            return tasks.stream().map(task -> {
+                task.claimAndRun();
+                return task.result.join();
+            }).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * First non-empty result of {@code action} in shard order, for lookups by a globally unique id on behalf of a
+     * request.
+     */
+    public <T> Optional<T> findFirst(Supplier<Optional<T>> action) {
+        return scatter(Lane.INTERACTIVE, action).stream().flatMap(Optional::stream).findFirst();
+    }
+
+    /**
+     * Shard on which {@code exists} holds, for routing work on a row known only by its id.
+     */
+    public Optional<Integer> locate(BooleanSupplier exists) {
+        return findFirst(() -> exists.getAsBoolean() ? Optional.of(ShardContext.current()) : Optional.empty());
+    }
+
+    private final class ShardTask<T> {
+        private final int shard;
+        private final Supplier<T> action;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private ShardTask(int shard, Supplier<T> action) {
+            this.shard = shard;
+            this.action = action;
+        }
+
+        private void claimAndRun() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result.complete(onShard(shard, action));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookings.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Operator access to the {@link ShardRebalancer}: {@code GET /actuator/shards} lists the load of every shard,
+ * {@code POST /actuator/shards/{propertyId}} with {@code {"shard": n}} moves one property and
+ * {@code POST /actuator/shards} rebalances. Like every actuator endpoint it is not exposed over HTTP until listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+    private final ShardRebalancer rebalancer;
+
+    public ShardsEndpoint(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public List<ShardRebalancer.ShardLoad> loads() {
+        return rebalancer.loads();
+    }
+
+    @WriteOperation
+    public ShardRebalancer.Move move(@Selector Long propertyId, int shard) {
+        return rebalancer.moveProperty(propertyId, shard);
+    }
+
+    @WriteOperation
+    public List<ShardRebalancer.Move> rebalance() {
+        return rebalancer.rebalance();
+    }
+}
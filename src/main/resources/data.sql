@@ -11,3 +11,7 @@ INSERT INTO properties (id, name, owner_id, manager_id) VALUES (4, 'Fancy Beach
 INSERT INTO properties (id, name, owner_id, manager_id) VALUES (5, 'Fancy Beach House 2', 2, 1);
 INSERT INTO properties (id, name, owner_id, manager_id) VALUES (6, 'Fancy Beach House 3', 2, 1);
 
+
+ALTER SEQUENCE owners_seq RESTART WITH 4;
+ALTER SEQUENCE managers_seq RESTART WITH 2;
+ALTER SEQUENCE properties_seq RESTART WITH 7;
@@ -0,0 +1,16 @@
+-- Conflict checks compare a requested stay with the stays of one property. Leading with the end date bounds the
+-- range scan to stays that end after the requested check-in, so the history of the property is never read, and the
+-- trailing columns let the check be answered from the index alone.
+
+-- BookingRepository.isBooked: property_id = ? AND canceled = ? AND checkout_date > ? AND checkin_date < ?
+CREATE INDEX IF NOT EXISTS bookings_conflict_idx ON bookings (property_id, canceled, checkout_date, checkin_date);
+
+-- BlockRepository.existsByBlockDateAndPropertyId: property_id = ? AND end_date >= ? AND start_date <= ?
+CREATE INDEX IF NOT EXISTS blocks_conflict_idx ON blocks (property_id, end_date, start_date);
+
+-- HoldRepository.isHeld: property_id = ? AND checkout_date > ? AND checkin_date < ? AND expires_at > ?
+CREATE INDEX IF NOT EXISTS holds_conflict_idx ON holds (property_id, checkout_date, checkin_date, expires_at);
+
+-- Expiry recovery and change log pruning select by time alone.
+CREATE INDEX IF NOT EXISTS holds_expires_at_idx ON holds (expires_at);
+CREATE INDEX IF NOT EXISTS change_log_changed_at_idx ON change_log (changed_at);
@@ -0,0 +1,10 @@
+-- Nights go with their booking, however the booking is deleted: by the API, the archiver or a shard move.
+ALTER TABLE booking_nights ADD CONSTRAINT IF NOT EXISTS booking_nights_booking_fk
+    FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE CASCADE;
+
+-- Bookings written before the table existed.
+INSERT INTO booking_nights (property_id, night, booking_id)
+SELECT b.property_id, DATEADD(DAY, r.X, b.checkin_date), b.id
+FROM bookings b JOIN SYSTEM_RANGE(0, 3660) r ON DATEADD(DAY, r.X, b.checkin_date) < b.checkout_date
+WHERE b.canceled = FALSE
+  AND NOT EXISTS (SELECT 1 FROM booking_nights n WHERE n.booking_id = b.id);
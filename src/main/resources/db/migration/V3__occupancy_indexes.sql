@@ -0,0 +1,13 @@
+-- Occupancy reports read every property over a period. Leading with the end date bounds the scan to stays and blocks
+-- still running at the start of the period, and the trailing columns answer the report from the index alone.
+
+-- OccupancyRepository.forEachStay: checkin_date < ? AND checkout_date > ?
+CREATE INDEX IF NOT EXISTS bookings_period_idx ON bookings (checkout_date, checkin_date, property_id, canceled);
+CREATE INDEX IF NOT EXISTS bookings_archive_period_idx ON bookings_archive (checkout_date, checkin_date, property_id, canceled);
+
+-- OccupancyRepository.forEachBlock: start_date < ? AND end_date >= ?
+CREATE INDEX IF NOT EXISTS blocks_period_idx ON blocks (end_date, start_date, property_id);
+
+-- OccupancyRepository.forEachRollupTotal: night >= ? AND night < ?, summed per property
+CREATE INDEX IF NOT EXISTS occupancy_rollups_night_idx
+    ON occupancy_rollups (night, property_id, booked_nights, blocked_nights, check_ins, canceled_check_ins);
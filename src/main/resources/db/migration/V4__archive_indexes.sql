@@ -0,0 +1,5 @@
+-- The archiver selects due bookings by one date each. Stays past their retention come from bookings_period_idx, which
+-- leads with the check-out date; canceled bookings are found by their check-in date here.
+
+-- BookingArchiver.SELECT_CANCELED_SQL: canceled = TRUE AND checkin_date < ? AND checkout_date >= ?
+CREATE INDEX IF NOT EXISTS bookings_canceled_idx ON bookings (canceled, checkin_date, checkout_date);
@@ -0,0 +1,58 @@
+package com.bookings.benchmark;
+
+import com.bookings.models.AvailableWindow;
+import com.bookings.models.OccupancyTimeline;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches the {@link OccupancyTimeline} of a property booked back to back for {@link #years} years, with a one or
+ * two night gap between stays and a week-long gap every month, for the next five windows of a week.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Param({"10"})
+    private int years;
+
+    private OccupancyTimeline timeline;
+
+    @Setup
+    public void setUp() {
+        OccupancyTimeline.Builder builder = OccupancyTimeline.builder();
+        LocalDate day = START;
+        LocalDate end = START.plusYears(years);
+        while (day.isBefore(end)) {
+            LocalDate checkOut = day.plusDays(4);
+            builder.occupy(day, checkOut);
+            day = checkOut.plusDays(checkOut.getDayOfMonth() <= 4 ? 7 : 1 + checkOut.getDayOfMonth() % 2);
+        }
+        timeline = builder.build();
+    }
+
+    @Benchmark
+    public List<AvailableWindow> nextWeekFromStart() {
+        return timeline.nextAvailable(START, 7, 5);
+    }
+
+    @Benchmark
+    public List<AvailableWindow> nextWeekMidway() {
+        return timeline.nextAvailable(START.plusYears(years / 2), 7, 5);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AvailabilityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
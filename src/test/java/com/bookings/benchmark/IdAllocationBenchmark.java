@@ -0,0 +1,112 @@
+package com.bookings.benchmark;
+
+import com.bookings.models.PooledSequenceGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting rows the way Hibernate does with identity columns, one statement per row reading back its
+ * generated key, with the {@link PooledSequenceGenerator} path: one sequence call per allocation block and the rows
+ * sent in JDBC batches. Each invocation inserts {@link #ROWS} rows into an in-memory H2 database and commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdAllocationBenchmark {
+    static final int ROWS = 100;
+
+    @Param({"50"})
+    private int allocationSize;
+
+    private Connection connection;
+    private PreparedStatement identityInsert;
+    private PreparedStatement sequenceInsert;
+    private PreparedStatement nextBlock;
+    private long nextId;
+    private long blockEnd;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id-allocation", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_rows (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, checkin_date DATE)");
+            statement.execute("CREATE TABLE sequence_rows (id BIGINT PRIMARY KEY, checkin_date DATE)");
+            statement.execute("CREATE SEQUENCE rows_seq START WITH 1 INCREMENT BY " + allocationSize);
+        }
+        identityInsert = connection.prepareStatement("INSERT INTO identity_rows (checkin_date) VALUES (CURRENT_DATE)",
+                Statement.RETURN_GENERATED_KEYS);
+        sequenceInsert = connection.prepareStatement("INSERT INTO sequence_rows (id, checkin_date) VALUES (?, CURRENT_DATE)");
+        nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR rows_seq");
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_rows");
+            statement.execute("TRUNCATE TABLE sequence_rows");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long identityColumn() throws SQLException {
+        long lastId = 0;
+        for (int i = 0; i < ROWS; i++) {
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                lastId = keys.getLong(1);
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledSequence() throws SQLException {
+        long lastId = 0;
+        for (int i = 0; i < ROWS; i++) {
+            lastId = nextId();
+            sequenceInsert.setLong(1, lastId);
+            sequenceInsert.addBatch();
+            if ((i + 1) % allocationSize == 0) {
+                sequenceInsert.executeBatch();
+            }
+        }
+        sequenceInsert.executeBatch();
+        connection.commit();
+        return lastId;
+    }
+
+    /**
+     * Pooled-lo: the sequence value is the first id of a block of {@link #allocationSize} ids.
+     */
+    private long nextId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (ResultSet block = nextBlock.executeQuery()) {
+                block.next();
+                nextId = block.getLong(1);
+            }
+            blockEnd = nextId + allocationSize;
+        }
+        return nextId++;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdAllocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.bookings.benchmark;
+
+import com.bookings.BookingsApplication;
+import com.bookings.models.Property;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.ViewRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a booking and a property as managed entities, as the GET endpoints used to, with reading the
+ * record views of {@link ViewRepository} that replaced them. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes
+ * allocated per read: entities also allocate the persistence context, their dirty-checking snapshot and, for the
+ * property, its eagerly loaded owner and manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadModelBenchmark {
+    private static final long BOOKING_ID = 1L;
+    private static final long PROPERTY_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private ViewRepository viewRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookingsApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:read-model-benchmark",
+                "--spring.jpa.show-sql=false",
+                "--bookings.archive.enabled=false");
+        LocalDate checkInDate = LocalDate.now().plusMonths(1);
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO bookings (id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name,
+                                      guest_age, guest_social_security_id, canceled)
+                VALUES (?, ?, ?, ?, 'Paul', 'Leroy', 22, '123456', FALSE)""",
+                BOOKING_ID, checkInDate, checkInDate.plusDays(3), PROPERTY_ID);
+        bookingRepository = context.getBean(BookingRepository.class);
+        viewRepository = context.getBean(ViewRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object bookingEntity() {
+        return bookingRepository.findById(BOOKING_ID).orElseThrow();
+    }
+
+    @Benchmark
+    public Object bookingView() {
+        return viewRepository.findBooking(BOOKING_ID).orElseThrow();
+    }
+
+    @Benchmark
+    public Object propertyEntity() {
+        return readOnly.execute(status -> entityManager.find(Property.class, PROPERTY_ID));
+    }
+
+    @Benchmark
+    public Object propertyView() {
+        return viewRepository.findProperty(PROPERTY_ID).orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReadModelBenchmark.class.getSimpleName()).addProfiler("gc").build()).run();
+    }
+}
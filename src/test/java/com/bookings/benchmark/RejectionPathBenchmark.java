@@ -0,0 +1,85 @@
+package com.bookings.benchmark;
+
+import com.bookings.exception.ApiError;
+import com.bookings.exception.ErrorCode;
+import com.bookings.exception.PropertyUnavailableException;
+import com.bookings.exception.RestControllerExceptionHandler;
+import com.bookings.models.Booking;
+import com.bookings.models.Property;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of producing a 422 body for a {@link PropertyUnavailableException} with the previous
+ * implementation, which captured a stack trace, eagerly formatted the message and read the system clock per error.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+    private final RestControllerExceptionHandler handler = new RestControllerExceptionHandler();
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        booking = new Booking();
+        booking.setProperty(new Property(1L));
+        booking.setCheckInDate(LocalDate.of(2030, 1, 10));
+        booking.setCheckOutDate(LocalDate.of(2030, 1, 15));
+    }
+
+    @Benchmark
+    public byte[] legacyRejection() throws Exception {
+        LegacyUnavailableException exception = throwAndCatch(() -> {
+            throw new LegacyUnavailableException(booking);
+        });
+        return mapper.writeValueAsBytes(new ApiError(exception.errorCode, exception.getMessage()));
+    }
+
+    @Benchmark
+    public byte[] currentRejection() throws Exception {
+        PropertyUnavailableException exception = throwAndCatch(() -> {
+            throw new PropertyUnavailableException(booking);
+        });
+        return mapper.writeValueAsBytes(handler.handleValidationExceptions(exception));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends RuntimeException> T throwAndCatch(Runnable rejection) {
+        try {
+            rejection.run();
+        } catch (RuntimeException e) {
+            return (T) e;
+        }
+        throw new IllegalStateException("Rejection was not thrown");
+    }
+
+    /**
+     * Mirror of the exception hierarchy before rejections became stackless.
+     */
+    private static final class LegacyUnavailableException extends RuntimeException {
+        private final ErrorCode errorCode = ErrorCode.PROPERTY_UNAVAILABLE;
+
+        LegacyUnavailableException(Booking booking) {
+            super(PropertyUnavailableException.ERROR_MESSAGE_PATTERN.formatted(
+                    booking.getCheckInDate(),
+                    booking.getCheckOutDate()));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RejectionPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
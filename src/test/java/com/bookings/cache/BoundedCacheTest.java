@@ -0,0 +1,106 @@
+package com.bookings.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final BoundedCache<Integer, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1), now::get);
+
+    @Test
+    @DisplayName("Should evict the least recently used entry beyond the maximum size")
+    void shouldEvictTheLeastRecentlyUsedEntry() {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.getIfPresent(1);
+        cache.put(3, "three");
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getIfPresent(1), is("one"));
+        assertThat(cache.getIfPresent(2), nullValue());
+        assertThat(cache.getIfPresent(3), is("three"));
+    }
+
+    @Test
+    @DisplayName("Should reload an entry once it has expired")
+    void shouldReloadAnExpiredEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get(1, key -> "load-" + loads.incrementAndGet()), is("load-1"));
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertThat(cache.get(1, key -> "load-" + loads.incrementAndGet()), is("load-1"));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.getIfPresent(1), nullValue());
+        assertThat(cache.get(1, key -> "load-" + loads.incrementAndGet()), is("load-2"));
+    }
+
+    @Test
+    @DisplayName("Should load a key once for concurrent callers, outside the lock")
+    void shouldLoadAKeyOnceForConcurrentCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1, key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "one";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS), is(true));
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(1, key -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        assertThat(cache.get(2, key -> "two"), is("two"));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is("one"));
+        assertThat(second.get(5, TimeUnit.SECONDS), is("one"));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Should not keep a load that an invalidation raced with")
+    void shouldNotKeepALoadInvalidatedWhileLoading() {
+        String loaded = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertThat(loaded, is("stale"));
+        assertThat(cache.getIfPresent(1), nullValue());
+        assertThat(cache.get(1, key -> "fresh"), is("fresh"));
+    }
+
+    @Test
+    @DisplayName("Should not keep null or failed loads")
+    void shouldNotKeepNullOrFailedLoads() {
+        assertThat(cache.get(1, key -> null), nullValue());
+        assertThrows(IllegalStateException.class, () -> cache.get(2, key -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get(2, key -> "two"), is("two"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bookings.calendar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ICalendarReaderTest {
+
+    @Test
+    @DisplayName("Should read all-day and timed events, unfolding lines and ignoring nested components")
+    void shouldReadEvents() throws IOException {
+        List<Event> events = read("""
+                BEGIN:VCALENDAR\r
+                VERSION:2.0\r
+                BEGIN:VEVENT\r
+                UID:reservation-1@ota.example\r
+                DTSTART;VALUE=DATE:20240110\r
+                DTEND;VALUE=DATE:20240115\r
+                SUMMARY:Reserved\r
+                END:VEVENT\r
+                BEGIN:VEVENT\r
+                UID:reservation-2@ota\r
+                 .example\r
+                DTSTART;TZID="Europe/Paris":20240120T150000\r
+                DTEND;TZID="Europe/Paris":20240122T110000\r
+                BEGIN:VALARM\r
+                UID:alarm\r
+                TRIGGER:-PT15M\r
+                END:VALARM\r
+                END:VEVENT\r
+                BEGIN:VEVENT\r
+                UID:blocked\r
+                DTSTART;VALUE=DATE:20240201\r
+                DURATION:P1W\r
+                END:VEVENT\r
+                BEGIN:VEVENT\r
+                UID:one-day\r
+                DTSTART;VALUE=DATE:20240301\r
+                END:VEVENT\r
+                END:VCALENDAR\r
+                """);
+
+        assertThat(events, contains(
+                new Event("reservation-1@ota.example", LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15)),
+                new Event("reservation-2@ota.example", LocalDate.of(2024, 1, 20), LocalDate.of(2024, 1, 22)),
+                new Event("blocked", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 8)),
+                new Event("one-day", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2))));
+    }
+
+    @Test
+    @DisplayName("Should skip cancelled events")
+    void shouldSkipCancelledEvents() throws IOException {
+        List<Event> events = read("""
+                BEGIN:VCALENDAR
+                BEGIN:VEVENT
+                UID:canceled
+                STATUS:CANCELLED
+                DTSTART;VALUE=DATE:20240110
+                DTEND;VALUE=DATE:20240115
+                END:VEVENT
+                END:VCALENDAR
+                """);
+
+        assertThat(events, is(empty()));
+    }
+
+    @Test
+    @DisplayName("Should reject a calendar with an invalid date or a truncated event")
+    void shouldRejectInvalidCalendars() {
+        assertThrows(ICalendarException.class, () -> read("""
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:2024-01-10
+                END:VEVENT
+                """));
+        assertThrows(ICalendarException.class, () -> read("""
+                BEGIN:VEVENT
+                DTSTART;VALUE=DATE:20240110
+                """));
+    }
+
+    private static List<Event> read(String calendar) throws IOException {
+        List<Event> events = new ArrayList<>();
+        ICalendarReader.read(new StringReader(calendar), (uid, start, end) -> events.add(new Event(uid, start, end)));
+        return events;
+    }
+
+    private record Event(String uid, LocalDate start, LocalDate end) {
+    }
+}
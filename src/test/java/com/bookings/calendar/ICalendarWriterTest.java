@@ -0,0 +1,56 @@
+package com.bookings.calendar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ICalendarWriterTest {
+
+    @Test
+    @DisplayName("Should write all-day events with CRLF line endings")
+    void shouldWriteAllDayEvents() throws IOException {
+        String calendar = write("Beach House", "Reserved");
+
+        assertThat(calendar, startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\n"));
+        assertThat(calendar, containsString("""
+                BEGIN:VEVENT\r
+                UID:booking-1@bookings\r
+                DTSTAMP:20240101T000000Z\r
+                DTSTART;VALUE=DATE:20240110\r
+                DTEND;VALUE=DATE:20240115\r
+                SUMMARY:Reserved\r
+                END:VEVENT\r
+                """));
+        assertThat(calendar, endsWith("END:VCALENDAR\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should escape text values and fold lines longer than 75 octets")
+    void shouldEscapeAndFold() throws IOException {
+        String calendar = write("Maison; près de la plage, vue \\ mer ".repeat(3), "Reserved");
+
+        assertThat(calendar, containsString("X-WR-CALNAME:Maison\\; près de la plage\\, vue \\\\ mer "));
+        String[] lines = calendar.split("\r\n");
+        assertThat(Arrays.stream(lines).mapToInt(line -> line.getBytes(StandardCharsets.UTF_8).length).max().orElseThrow(),
+                lessThanOrEqualTo(75));
+        assertThat(Arrays.stream(lines).filter(line -> line.startsWith(" ")).count(), greaterThan(0L));
+    }
+
+    private static String write(String name, String summary) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ICalendarWriter writer = new ICalendarWriter(out)) {
+            writer.beginCalendar("-//test//EN", name);
+            writer.event("booking-1@bookings", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15), summary);
+            writer.endCalendar();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package com.bookings.calendar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurrenceRuleTest {
+    // A Wednesday. Not in a year the build may shift test dates out of, as the weekdays would move with it.
+    private static final LocalDate START = LocalDate.of(2019, 5, 1);
+
+    @Test
+    @DisplayName("Should recur on the weekdays of a weekly rule from its start until its end")
+    void shouldRecurWeekly() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TH;UNTIL=20190516", START);
+
+        assertThat(occurrences(rule, START.minusDays(7), START.plusDays(30)), contains(
+                LocalDate.of(2019, 5, 2), LocalDate.of(2019, 5, 6), LocalDate.of(2019, 5, 9),
+                LocalDate.of(2019, 5, 13), LocalDate.of(2019, 5, 16)));
+        assertThat(rule.matches(LocalDate.of(2019, 4, 29)), is(false));
+        assertThat(rule.matches(LocalDate.of(2019, 5, 20)), is(false));
+    }
+
+    @Test
+    @DisplayName("Should recur on the first week of every month and on Friday the 13th")
+    void shouldRecurOnMonthDays() {
+        RecurrenceRule firstWeek = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=1,2,3,4,5,6,7", START);
+        List<LocalDate> days = occurrences(firstWeek, START, LocalDate.of(2019, 8, 1));
+        assertThat(days.size(), is(21));
+        assertThat(days.stream().allMatch(day -> day.getDayOfMonth() <= 7), is(true));
+
+        RecurrenceRule friday13 = RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=FR;BYMONTHDAY=13", START);
+        assertThat(occurrences(friday13, START, LocalDate.of(2021, 1, 1)), contains(
+                LocalDate.of(2019, 9, 13), LocalDate.of(2019, 12, 13), LocalDate.of(2020, 3, 13), LocalDate.of(2020, 11, 13)));
+    }
+
+    @Test
+    @DisplayName("Should take the missing parts of weekly, monthly and yearly rules from the start date")
+    void shouldDefaultToTheStart() {
+        assertThat(RecurrenceRule.parse("FREQ=WEEKLY", START).toString(), is("FREQ=WEEKLY;BYDAY=WE"));
+        assertThat(RecurrenceRule.parse("FREQ=MONTHLY", START).toString(), is("FREQ=MONTHLY;BYMONTHDAY=1"));
+        assertThat(RecurrenceRule.parse("FREQ=YEARLY", START).toString(), is("FREQ=YEARLY;BYMONTH=5;BYMONTHDAY=1"));
+        assertThat(RecurrenceRule.parse("rrule:freq=yearly;bymonth=12;byday=su,sa", START).toString(),
+                is("FREQ=YEARLY;BYMONTH=12;BYDAY=SA,SU"));
+        assertThat(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR,SA,SU;UNTIL=20190601T000000Z", START).toString(),
+                is("FREQ=DAILY;UNTIL=20190601"));
+    }
+
+    @Test
+    @DisplayName("Should read back the same rule from its written form, whatever the start date")
+    void shouldReadBackItsWrittenForm() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=YEARLY", START);
+        RecurrenceRule readBack = RecurrenceRule.parse(rule.toString(), START.plusDays(40));
+
+        assertThat(occurrences(readBack, START, START.plusYears(3)), is(occurrences(rule, START.plusDays(40), START.plusYears(3))));
+    }
+
+    @Test
+    @DisplayName("Should find the next occurrence by jumping to it, or return the limit when there is none before it")
+    void shouldFindTheNextOccurrence() {
+        RecurrenceRule leapDay = RecurrenceRule.parse("FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=29", START);
+        int from = (int) START.toEpochDay();
+
+        assertThat(LocalDate.ofEpochDay(leapDay.next(from, from + 4000)), is(LocalDate.of(2020, 2, 29)));
+        assertThat(leapDay.next(from, from + 100), is(from + 100));
+        assertThat(leapDay.first(), is(Optional.of(LocalDate.of(2020, 2, 29))));
+        assertThat(RecurrenceRule.parse("FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=30", START).first(), is(Optional.empty()));
+        assertThat(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=SU;UNTIL=20190504", START).first(), is(Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("Should agree with a day by day walk for every weekday mask")
+    void shouldAgreeWithADayByDayWalk() {
+        for (int mask = 1; mask < 1 << 7; mask++) {
+            StringBuilder byDay = new StringBuilder();
+            for (DayOfWeek weekday : DayOfWeek.values()) {
+                if ((mask & 1 << weekday.ordinal()) != 0) {
+                    byDay.append(byDay.isEmpty() ? "" : ",").append(weekday.name(), 0, 2);
+                }
+            }
+            RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=1,15,31;BYDAY=" + byDay, START);
+            List<LocalDate> walked = START.datesUntil(START.plusYears(2)).filter(rule::matches).toList();
+            assertThat(byDay.toString(), occurrences(rule, START, START.plusYears(2)), is(walked));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "BYDAY=MO", "FREQ=HOURLY", "FREQ=WEEKLY;INTERVAL=2", "FREQ=WEEKLY;COUNT=3",
+            "FREQ=MONTHLY;BYDAY=1MO", "FREQ=MONTHLY;BYMONTHDAY=-1", "FREQ=YEARLY;BYMONTH=13", "FREQ=DAILY;UNTIL=20190401",
+            "FREQ=DAILY;UNTIL=tomorrow", "FREQ"})
+    @DisplayName("Should refuse rules that are malformed or use parts that are not supported")
+    void shouldRefuseUnsupportedRules(String rule) {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(rule, START));
+    }
+
+    private static List<LocalDate> occurrences(RecurrenceRule rule, LocalDate from, LocalDate to) {
+        List<LocalDate> days = new ArrayList<>();
+        int limit = (int) to.toEpochDay();
+        for (int day = rule.next((int) from.toEpochDay(), limit); day < limit; day = rule.next(day + 1, limit)) {
+            days.add(LocalDate.ofEpochDay(day));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookings.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should reject permits once the limit is reached and admit again after a release")
+    void shouldRejectPermitsOverTheLimit() {
+        var limiter = new ConcurrencyLimiter("write", new AimdLimit(2, 2, 2, Duration.ofSeconds(1), 0.5));
+        var first = limiter.tryAcquire();
+        var second = limiter.tryAcquire();
+        assertThat(first.isPresent() && second.isPresent(), is(true));
+        assertThat(limiter.tryAcquire().isPresent(), is(false));
+        assertThat(limiter.getRejected(), is(1L));
+
+        first.get().onSuccess();
+        first.get().onSuccess();
+        assertThat(limiter.getInflight(), is(1));
+        assertThat(limiter.tryAcquire().isPresent(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should grow the AIMD limit on fast samples and back off on slow ones")
+    void shouldAdaptAimdLimit() {
+        var limit = new AimdLimit(10, 1, 20, Duration.ofMillis(100), 0.5);
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(5), 10, false);
+        assertThat(limit.getLimit(), is(11));
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(500), 10, false);
+        assertThat(limit.getLimit(), is(5));
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(5), 1, true);
+        assertThat(limit.getLimit(), is(2));
+    }
+
+    @Test
+    @DisplayName("Should shrink the gradient limit when latency rises above its baseline")
+    void shouldShrinkGradientLimitWhenLatencyRises() {
+        var limit = new GradientLimit(50, 1, 200, 1.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 50, false);
+        }
+        int steady = limit.getLimit();
+        assertThat(steady, is(greaterThanOrEqualTo(50)));
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(200), steady, false);
+        }
+        assertThat(limit.getLimit(), is(lessThan(steady)));
+    }
+
+    @Test
+    @DisplayName("Should only shrink an under-utilised gradient limit")
+    void shouldOnlyShrinkAnUnderUtilisedGradientLimit() {
+        var limit = new GradientLimit(50, 1, 200, 1.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 5, false);
+        }
+        assertThat(limit.getLimit(), is(50));
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(200), 5, false);
+        }
+        assertThat(limit.getLimit(), is(lessThan(50)));
+    }
+}
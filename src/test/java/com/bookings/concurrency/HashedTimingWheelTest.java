@@ -0,0 +1,57 @@
+package com.bookings.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class HashedTimingWheelTest {
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-wheel", Duration.ofMillis(10), 8, Runnable::run);
+
+    @AfterEach
+    void stop() {
+        wheel.stop();
+    }
+
+    @Test
+    @DisplayName("Should expire every scheduled timeout, including those several wheel rotations away")
+    void shouldExpireScheduledTimeouts() throws InterruptedException {
+        int timeouts = 10_000;
+        CountDownLatch expired = new CountDownLatch(timeouts);
+        for (int i = 0; i < timeouts; i++) {
+            wheel.schedule(expired::countDown, Duration.ofMillis(i % 250));
+        }
+        assertThat(expired.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(wheel.pendingTimeouts(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Should not expire a timeout before its delay has elapsed")
+    void shouldNotExpireEarly() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        wheel.schedule(expired::countDown, Duration.ofMillis(200));
+        assertThat(expired.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(greaterThanOrEqualTo(200L)));
+    }
+
+    @Test
+    @DisplayName("Should not run a cancelled timeout")
+    void shouldNotRunCancelledTimeout() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        var cancelled = wheel.schedule(runs::incrementAndGet, Duration.ofMillis(50));
+        CountDownLatch later = new CountDownLatch(1);
+        wheel.schedule(later::countDown, Duration.ofMillis(150));
+        assertThat(cancelled.cancel(), is(true));
+        assertThat(later.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(runs.get(), is(0));
+        assertThat(cancelled.isExpired(), is(false));
+    }
+}
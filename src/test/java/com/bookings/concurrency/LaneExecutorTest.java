@@ -0,0 +1,75 @@
+package com.bookings.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LaneExecutorTest {
+    private final LaneExecutor executor = new LaneExecutor(Lane.BULK, 1, 3);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run queued tasks by priority and in submission order within a priority")
+    void shouldRunQueuedTasksByPriority() throws Exception {
+        CountDownLatch release = blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.submit(TaskPriority.LOW, () -> order.add("low"));
+        executor.submit(TaskPriority.NORMAL, () -> order.add("normal-1"));
+        var last = executor.submit(TaskPriority.HIGH, () -> order.add("high"));
+        release.countDown();
+        last.get(5, TimeUnit.SECONDS);
+        executor.submit(TaskPriority.LOW, () -> true).get(5, TimeUnit.SECONDS);
+        assertThat(order, contains("high", "normal-1", "low"));
+    }
+
+    @Test
+    @DisplayName("Should reject tasks once the lane queue is full")
+    void shouldRejectTasksWhenQueueIsFull() throws Exception {
+        CountDownLatch release = blockWorker();
+        for (int i = 0; i < 3; i++) {
+            executor.submit(TaskPriority.NORMAL, () -> true);
+        }
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(TaskPriority.HIGH, () -> true));
+        assertThat(executor.getRejected(), is(1L));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should fail the queued tasks on shutdown")
+    void shouldFailQueuedTasksOnShutdown() throws Exception {
+        blockWorker();
+        var queued = executor.submit(TaskPriority.NORMAL, () -> true);
+        executor.shutdown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertThat(failure.getCause(), instanceOf(RejectedExecutionException.class));
+    }
+
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(TaskPriority.NORMAL, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        return release;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookings.controller;
+
+import com.bookings.concurrency.AdmissionControl;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.Booking;
+import com.bookings.service.BookingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = BookingController.class, properties = {
+        "bookings.admission.algorithm=AIMD",
+        "bookings.admission.retry-after=2s",
+        "bookings.admission.write.initial-limit=1",
+        "bookings.admission.write.min-limit=1",
+        "bookings.admission.write.max-limit=1"
+})
+class AdmissionControlTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AdmissionControl admissionControl;
+
+    @MockBean
+    BookingService bookingService;
+
+    @Test
+    @DisplayName("Should shed writes with a status code 503 while reads are still admitted")
+    void shouldShedWritesAndKeepServingReads() throws Exception {
+        var permit = admissionControl.getWriteLimiter().tryAcquire().orElseThrow();
+        try {
+            mockMvc.perform(post("/bookings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                    .andExpect(jsonPath("$.errorCode").value(ErrorCode.SERVICE_OVERLOADED.name()));
+            verify(bookingService, never()).createBooking(any(Booking.class));
+
+            when(bookingService.getBooking(1L)).thenReturn(Optional.empty());
+            mockMvc.perform(get("/bookings/{id}", 1L))
+                    .andExpect(status().isNotFound());
+        } finally {
+            permit.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bookings.controller;
+
+import com.bookings.models.HotProperties;
+import com.bookings.models.HotProperties.HotProperty;
+import com.bookings.models.OccupancyReport;
+import com.bookings.models.OccupancyReport.GroupBy;
+import com.bookings.models.OccupancyReport.Stats;
+import com.bookings.service.HotPropertyTracker;
+import com.bookings.service.OccupancyAnalyticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    OccupancyAnalyticsService occupancyAnalyticsService;
+
+    @MockBean
+    HotPropertyTracker hotPropertyTracker;
+
+    @Test
+    @DisplayName("Should report occupancy grouped by manager and return a status code 200")
+    public void shouldReportOccupancy() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 1);
+        Stats stats = Stats.of(366, 183, 0, 10, 2);
+        when(occupancyAnalyticsService.report(from, to, GroupBy.MANAGER)).thenReturn(new OccupancyReport(from, to, GroupBy.MANAGER,
+                List.of(new OccupancyReport.Group(1L, "John Coffey ", stats,
+                        List.of(new OccupancyReport.PropertyOccupancy(1L, "Fancy House 1", stats))))));
+
+        mockMvc.perform(get("/analytics/occupancy").param("from", "2024-01-01").param("to", "2025-01-01").param("groupBy", "MANAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupBy").value("MANAGER"))
+                .andExpect(jsonPath("$.groups[0].occupancyRate").value(0.5))
+                .andExpect(jsonPath("$.groups[0].properties[0].bookedNights").value(183))
+                .andExpect(jsonPath("$.groups[0].properties[0].cancellationRate").value(0.2));
+    }
+
+    @Test
+    @DisplayName("Should return the most requested and most rejected properties and a status code 200")
+    public void shouldReturnHotProperties() throws Exception {
+        when(hotPropertyTracker.top(3)).thenReturn(new HotProperties(
+                List.of(new HotProperty(1L, 42.5, 0), new HotProperty(2L, 7, 1.5)), List.of(new HotProperty(1L, 12, 0))));
+
+        mockMvc.perform(get("/analytics/hot-properties").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested[0].propertyId").value(1))
+                .andExpect(jsonPath("$.requested[0].count").value(42.5))
+                .andExpect(jsonPath("$.requested[1].error").value(1.5))
+                .andExpect(jsonPath("$.rejected[0].count").value(12.0));
+    }
+}
@@ -4,7 +4,10 @@ import com.bookings.exception.BusinessException;
 import com.bookings.exception.ErrorCode;
 import com.bookings.exception.PropertyAlreadyBlockedException;
 import com.bookings.models.Block;
+import com.bookings.models.BlockView;
 import com.bookings.models.Property;
+import com.bookings.models.RecurringBlock;
+import com.bookings.models.RecurringBlockView;
 import com.bookings.service.BlockService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.Optional;
 
 import static com.bookings.controller.ControllerTestUtils.TIMESTAMP_REGEX;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
@@ -156,6 +160,28 @@ class BlockControllerTest {
         verify(blockService).updateBlock(block);
     }
 
+    @Test
+    @DisplayName("Should get a block by id and return a status code 200")
+    public void shouldGetABlockById() throws Exception {
+        Block block = new Block(LocalDate.of(2024, 4, 10), LocalDate.of(2024, 4, 12), new Property(1L));
+        block.setId(1L);
+        when(blockService.getBlock(1L)).thenReturn(Optional.of(new BlockView(1L, block.getStartDate(), block.getEndDate(), 1L)));
+
+        mockMvc.perform(get("/blocks/{id}", 1L))
+                .andExpect(content().json(mapper.writeValueAsString(block)))
+                .andExpect(status().isOk());
+        verify(blockService).getBlock(1L);
+    }
+
+    @Test
+    @DisplayName("Should return a status code 404 for a block that does not exist")
+    public void shouldNotFindAMissingBlock() throws Exception {
+        when(blockService.getBlock(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/blocks/{id}", 1L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Should delete a block and return a status code 204")
     public void shouldDeleteABlockWithSuccess() throws Exception {
@@ -166,4 +192,87 @@ class BlockControllerTest {
                 .andExpect(status().isNoContent());
         verify(blockService).deleteBlock(blockId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should create a recurring block and return a status code 201")
+    public void shouldCreateARecurringBlockWithSuccess() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        RecurringBlock newBlock = new RecurringBlock(startDate, "FREQ=WEEKLY;BYDAY=MO", new Property(1L));
+        RecurringBlock createdBlock = new RecurringBlock(startDate, "FREQ=WEEKLY;BYDAY=MO", new Property(1L));
+        createdBlock.setId(1L);
+
+        when(blockService.createRecurringBlock(newBlock)).thenReturn(createdBlock);
+
+        mockMvc.perform(post("/blocks/recurring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(newBlock))
+                )
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.rule").value("FREQ=WEEKLY;BYDAY=MO"))
+                .andExpect(jsonPath("$.propertyId").value(1))
+                .andExpect(status().isCreated());
+        verify(blockService).createRecurringBlock(newBlock);
+    }
+
+    @Test
+    @DisplayName("Should fail to create a recurring block and return a status code 422 if its rule is invalid")
+    public void shouldFailToCreateARecurringBlockIfItsRuleIsInvalid() throws Exception {
+        RecurringBlock block = new RecurringBlock(LocalDate.now().plusDays(1), "FREQ=HOURLY", new Property(1L));
+        when(blockService.createRecurringBlock(any(RecurringBlock.class))).thenThrow(
+                new BusinessException("FREQ must be DAILY, WEEKLY, MONTHLY or YEARLY", ErrorCode.INVALID_RECURRENCE_RULE, false));
+
+        mockMvc.perform(post("/blocks/recurring")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(block))
+                )
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_RECURRENCE_RULE.name()))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Should get a recurring block by id, return a status code 404 when it does not exist and delete it")
+    public void shouldGetAndDeleteARecurringBlock() throws Exception {
+        LocalDate startDate = LocalDate.of(2024, 4, 10);
+        when(blockService.getRecurringBlock(1L)).thenReturn(Optional.of(
+                new RecurringBlockView(1L, startDate, null, "FREQ=MONTHLY;BYMONTHDAY=1,2,3,4,5,6,7", 1L)));
+        when(blockService.getRecurringBlock(2L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/blocks/recurring/{id}", 1L))
+                .andExpect(jsonPath("$.startDate").value("2024-04-10"))
+                .andExpect(jsonPath("$.rule").value("FREQ=MONTHLY;BYMONTHDAY=1,2,3,4,5,6,7"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/blocks/recurring/{id}", 2L))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/blocks/recurring/{id}", 1L))
+                .andExpect(status().isNoContent());
+        verify(blockService).deleteRecurringBlock(1L);
+    }
+
+    @Test
+    @DisplayName("Should create and update a block in merge mode when asked to")
+    public void shouldMergeBlocksWhenAsked() throws Exception {
+        LocalDate startDate = LocalDate.now().plusMonths(1);
+        Block block = new Block(startDate, startDate.plusDays(2), new Property(1L));
+        Block merged = new Block(startDate.minusDays(2), startDate.plusDays(2), new Property(1L));
+        merged.setId(1L);
+        when(blockService.createAndMergeBlock(block)).thenReturn(merged);
+        when(blockService.updateAndMergeBlock(any(Block.class))).thenReturn(merged);
+
+        mockMvc.perform(post("/blocks").param("merge", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(block))
+                )
+                .andExpect(content().json(mapper.writeValueAsString(merged)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/blocks/{id}", 1L).param("merge", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(block))
+                )
+                .andExpect(jsonPath("$.startDate").value(startDate.minusDays(2).toString()))
+                .andExpect(status().isOk());
+        verify(blockService).createAndMergeBlock(block);
+        verify(blockService).updateAndMergeBlock(any(Block.class));
+        verify(blockService, never()).createBlock(any(Block.class));
+        verify(blockService, never()).updateBlock(any(Block.class));
+    }
+}
@@ -4,6 +4,7 @@ import com.bookings.exception.BusinessException;
 import com.bookings.exception.ErrorCode;
 import com.bookings.exception.PropertyBookingBlockedException;
 import com.bookings.models.Booking;
+import com.bookings.models.BookingView;
 import com.bookings.models.Guest;
 import com.bookings.models.Property;
 import com.bookings.service.BookingService;
@@ -106,7 +107,7 @@ class BookingControllerTest {
     public void shouldGetABookingById() throws Exception {
         var booking = validNewBooking(Month.APRIL);
         booking.setId(1L);
-        when(bookingService.getBooking(1L)).thenReturn(Optional.of(booking));
+        when(bookingService.getBooking(1L)).thenReturn(Optional.of(toView(booking)));
         mockMvc.perform(get("/bookings/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(toJson(booking)))
                 .andExpect(status().isOk());
@@ -215,6 +216,12 @@ class BookingControllerTest {
         return objectMapper.writeValueAsString(booking);
     }
 
+    private static BookingView toView(Booking booking) {
+        Guest guest = booking.getGuest();
+        return new BookingView(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate(), booking.getPropertyId(),
+                guest.getFirstName(), guest.getLastName(), guest.getAge(), guest.getSocialSecurityId(), booking.isCanceled());
+    }
+
     private static Booking validNewBooking(Month month) {
         var booking = new Booking();
         booking.setProperty(new Property(1L));
@@ -0,0 +1,85 @@
+package com.bookings.controller;
+
+import com.bookings.models.Booking;
+import com.bookings.models.BookingTicket;
+import com.bookings.models.Guest;
+import com.bookings.models.Property;
+import com.bookings.service.BookingSubmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BookingSubmissionController.class)
+class BookingSubmissionControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @MockBean
+    BookingSubmissionService bookingSubmissionService;
+
+    @Test
+    @DisplayName("Should accept an async booking and return a status code 202 with the ticket location")
+    public void shouldAcceptAnAsyncBooking() throws Exception {
+        var ticket = BookingTicket.pending("ticket-1");
+        var callbackUrl = URI.create("https://partner.example/bookings");
+        when(bookingSubmissionService.submit(any(Booking.class), eq(callbackUrl))).thenReturn(ticket);
+
+        mockMvc.perform(post("/bookings")
+                        .header("Prefer", "respond-async")
+                        .param("callbackUrl", callbackUrl.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(newBooking())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/bookings/tickets/ticket-1"))
+                .andExpect(jsonPath("$.id").value("ticket-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        verify(bookingSubmissionService).submit(any(Booking.class), eq(callbackUrl));
+    }
+
+    @Test
+    @DisplayName("Should get a ticket by id and return a status code 200")
+    public void shouldGetATicket() throws Exception {
+        when(bookingSubmissionService.getTicket("ticket-1")).thenReturn(Optional.of(BookingTicket.pending("ticket-1")));
+        mockMvc.perform(get("/bookings/tickets/{id}", "ticket-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("Should return a status code 404 for an unknown ticket")
+    public void shouldNotFindAnUnknownTicket() throws Exception {
+        when(bookingSubmissionService.getTicket("unknown")).thenReturn(Optional.empty());
+        mockMvc.perform(get("/bookings/tickets/{id}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static Booking newBooking() {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L));
+        LocalDate checkInDate = LocalDate.now().plusMonths(1);
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkInDate.plusDays(3));
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookings.controller;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.Booking;
+import com.bookings.models.Guest;
+import com.bookings.models.Hold;
+import com.bookings.models.Property;
+import com.bookings.service.BookingService;
+import com.bookings.service.HoldService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HoldController.class)
+class HoldControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @MockBean
+    HoldService holdService;
+
+    @MockBean
+    BookingService bookingService;
+
+    private final LocalDate checkInDate = LocalDate.now().plusMonths(1);
+
+    @Test
+    @DisplayName("Should create a hold for the requested minutes and return a status code 201")
+    public void shouldCreateAHold() throws Exception {
+        Hold hold = new Hold(checkInDate, checkInDate.plusDays(3), new Property(1L));
+        Hold createdHold = new Hold(checkInDate, checkInDate.plusDays(3), new Property(1L));
+        createdHold.setId(1L);
+        createdHold.setExpiresAt(LocalDateTime.now().plusMinutes(20));
+        when(holdService.createHold(any(Hold.class), eq(Duration.ofMinutes(20)))).thenReturn(createdHold);
+
+        mockMvc.perform(post("/bookings/holds")
+                        .param("minutes", "20")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(hold)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.propertyId").value(1))
+                .andExpect(jsonPath("$.expiresAt").exists());
+        verify(holdService).createHold(any(Hold.class), eq(Duration.ofMinutes(20)));
+    }
+
+    @Test
+    @DisplayName("Should fail to create a hold and return a status code 400 if hold dates are missing")
+    public void shouldFailToCreateAHoldIfDatesAreMissing() throws Exception {
+        mockMvc.perform(post("/bookings/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"propertyId\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.checkInDate").value("CheckIn date is required"));
+        verify(holdService, never()).createHold(any(Hold.class), any());
+    }
+
+    @Test
+    @DisplayName("Should confirm a hold and return a status code 201")
+    public void shouldConfirmAHold() throws Exception {
+        Guest guest = new Guest("Paul", "Leroy", 22, "123456");
+        Booking booking = new Hold(checkInDate, checkInDate.plusDays(3), new Property(1L)).toBooking(guest);
+        booking.setId(10L);
+        when(bookingService.confirmHold(eq(1L), any(Guest.class))).thenReturn(booking);
+
+        mockMvc.perform(post("/bookings/holds/{id}/confirm", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(guest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10));
+    }
+
+    @Test
+    @DisplayName("Should fail to confirm an expired hold and return a status code 422")
+    public void shouldFailToConfirmAnExpiredHold() throws Exception {
+        var exception = new BusinessException("Hold id=1 does not exist or has expired", ErrorCode.HOLD_EXPIRED, false);
+        when(bookingService.confirmHold(eq(1L), any(Guest.class))).thenThrow(exception);
+
+        mockMvc.perform(post("/bookings/holds/{id}/confirm", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new Guest("Paul", "Leroy", 22, "123456"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.HOLD_EXPIRED.name()));
+    }
+
+    @Test
+    @DisplayName("Should release a hold and return a status code 204")
+    public void shouldReleaseAHold() throws Exception {
+        mockMvc.perform(delete("/bookings/holds/{id}", 1L))
+                .andExpect(status().isNoContent());
+        verify(holdService).releaseHold(1L);
+    }
+}
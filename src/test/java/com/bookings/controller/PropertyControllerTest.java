@@ -0,0 +1,204 @@
+package com.bookings.controller;
+
+import com.bookings.models.AvailableWindow;
+import com.bookings.models.BookingView;
+import com.bookings.models.CalendarFeed;
+import com.bookings.models.CalendarImportResult;
+import com.bookings.models.PropertyDetail;
+import com.bookings.models.PropertyMatch;
+import com.bookings.models.PropertySearchResult;
+import com.bookings.models.PropertyView;
+import com.bookings.service.AvailabilityService;
+import com.bookings.service.AvailabilityStreams;
+import com.bookings.service.BlockService;
+import com.bookings.service.BookingService;
+import com.bookings.service.CalendarFeedService;
+import com.bookings.service.CalendarImportService;
+import com.bookings.service.PropertySearchService;
+import com.bookings.service.PropertyService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PropertyController.class)
+class PropertyControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    PropertyService propertyService;
+    @MockBean
+    AvailabilityService availabilityService;
+    @MockBean
+    PropertySearchService propertySearchService;
+    @MockBean
+    AvailabilityStreams availabilityStreams;
+    @MockBean
+    CalendarFeedService calendarFeedService;
+    @MockBean
+    CalendarImportService calendarImportService;
+    @MockBean
+    BookingService bookingService;
+    @MockBean
+    BlockService blockService;
+
+    @Test
+    @DisplayName("Should get a property with its upcoming bookings and return a status code 200")
+    public void shouldGetAProperty() throws Exception {
+        LocalDate from = LocalDate.of(2024, 4, 1);
+        BookingView booking = new BookingView(7L, LocalDate.of(2024, 4, 10), LocalDate.of(2024, 4, 15), 1L,
+                "Paul", "Leroy", 22, "123456", false);
+        when(propertyService.getProperty(1L, from, 5)).thenReturn(Optional.of(new PropertyDetail(
+                new PropertyView(1L, "Fancy House 1", 1L, "Ramon", null, null), List.of(booking), true, List.of(), false)));
+
+        mockMvc.perform(get("/properties/{id}", 1L).param("from", "2024-04-01").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fancy House 1"))
+                .andExpect(jsonPath("$.ownerName").value("Ramon"))
+                .andExpect(jsonPath("$.upcomingBookings[0].id").value(7))
+                .andExpect(jsonPath("$.moreBookings").value(true))
+                .andExpect(jsonPath("$.upcomingBlocks").isEmpty());
+        verify(propertyService).getProperty(1L, from, 5);
+    }
+
+    @Test
+    @DisplayName("Should return a status code 404 for a property that does not exist")
+    public void shouldNotFindAMissingProperty() throws Exception {
+        when(propertyService.getProperty(eq(1L), any(), anyInt())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/properties/{id}", 1L))
+                .andExpect(status().isNotFound());
+        verify(propertyService).getProperty(eq(1L), any(LocalDate.class), eq(PropertyService.DEFAULT_LIMIT));
+    }
+
+    @Test
+    @DisplayName("Should list the next available windows of a property and return a status code 200")
+    public void shouldListTheNextAvailableWindows() throws Exception {
+        LocalDate after = LocalDate.of(2024, 4, 1);
+        when(availabilityService.nextAvailable(1L, 5, after, 2)).thenReturn(Optional.of(List.of(
+                new AvailableWindow(LocalDate.of(2024, 4, 3), LocalDate.of(2024, 4, 8)),
+                new AvailableWindow(LocalDate.of(2024, 4, 20), LocalDate.of(2024, 4, 25)))));
+
+        mockMvc.perform(get("/properties/{id}/next-available", 1L).param("nights", "5").param("after", "2024-04-01").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].checkInDate").value("2024-04-03"))
+                .andExpect(jsonPath("$[1].checkOutDate").value("2024-04-25"));
+        verify(availabilityService).nextAvailable(1L, 5, after, 2);
+    }
+
+    @Test
+    @DisplayName("Should search properties around the requested dates and return a status code 200")
+    public void shouldSearchProperties() throws Exception {
+        LocalDate checkIn = LocalDate.of(2024, 4, 10);
+        LocalDate checkOut = LocalDate.of(2024, 4, 14);
+        when(propertySearchService.search(checkIn, checkOut, 2, null, 1L, null, PropertySearchService.DEFAULT_LIMIT))
+                .thenReturn(new PropertySearchResult(List.of(new PropertyMatch(2L, "Fancy House 2",
+                        LocalDate.of(2024, 4, 9), LocalDate.of(2024, 4, 13), -1, 4)), true));
+
+        mockMvc.perform(get("/properties/search").param("checkIn", "2024-04-10").param("checkOut", "2024-04-14")
+                        .param("flexDays", "2").param("ownerId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matches[0].propertyId").value(2))
+                .andExpect(jsonPath("$.matches[0].shiftDays").value(-1))
+                .andExpect(jsonPath("$.complete").value(true));
+    }
+
+    @Test
+    @DisplayName("Should serve a property's calendar feed with its ETag and return a status code 304 when it is unchanged")
+    public void shouldServeTheCalendarFeed() throws Exception {
+        byte[] content = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8);
+        when(calendarFeedService.feed(1L)).thenReturn(Optional.of(new CalendarFeed(content, "\"abc123\"")));
+
+        mockMvc.perform(get("/properties/{id}/calendar.ics", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/calendar;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().bytes(content));
+        mockMvc.perform(get("/properties/{id}/calendar.ics", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Should import a calendar sent as the body or as an uploaded file and return a status code 200")
+    public void shouldImportACalendar() throws Exception {
+        String calendar = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n";
+        when(calendarImportService.importCalendar(eq(1L), eq("ota"), any()))
+                .thenReturn(Optional.of(new CalendarImportResult(2, 1, 0, 5, 1)));
+
+        mockMvc.perform(put("/properties/{id}/calendars/{source}", 1L, "ota").contentType("text/calendar").content(calendar))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.unchanged").value(5))
+                .andExpect(jsonPath("$.skipped").value(1));
+        mockMvc.perform(multipart(HttpMethod.PUT, "/properties/{id}/calendars/{source}", 1L, "ota")
+                        .file(new MockMultipartFile("file", "ota.ics", "text/calendar", calendar.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+        verify(calendarImportService, times(2)).importCalendar(eq(1L), eq("ota"), any());
+    }
+
+    @Test
+    @DisplayName("Should answer a calendar import into an unknown property with a status code 404")
+    public void shouldNotImportIntoAnUnknownProperty() throws Exception {
+        when(calendarImportService.importCalendar(eq(404L), eq("ota"), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(put("/properties/{id}/calendars/{source}", 404L, "ota").contentType("text/calendar").content(""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should cancel a property's bookings in a period and stream back their ids")
+    public void shouldCancelBookings() throws Exception {
+        LocalDate from = LocalDate.of(2024, 5, 1);
+        when(bookingService.cancelBookings(1L, from, null)).thenReturn(Optional.of(List.of(7L, 9L)));
+
+        MvcResult result = mockMvc.perform(post("/properties/{id}/bookings/cancel", 1L).param("from", "2024-05-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[7, 9]"));
+        verify(bookingService).cancelBookings(1L, from, null);
+    }
+
+    @Test
+    @DisplayName("Should purge a property's blocks in a period, or return a status code 404 for an unknown property")
+    public void shouldPurgeBlocks() throws Exception {
+        LocalDate from = LocalDate.of(2024, 5, 1);
+        LocalDate to = LocalDate.of(2024, 6, 1);
+        when(blockService.purgeBlocks(1L, from, to)).thenReturn(Optional.of(List.of()));
+        when(blockService.purgeBlocks(eq(404L), any(), any())).thenReturn(Optional.empty());
+
+        MvcResult result = mockMvc.perform(post("/properties/{id}/blocks/purge", 1L).param("from", "2024-05-01").param("to", "2024-06-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+        mockMvc.perform(post("/properties/{id}/blocks/purge", 404L))
+                .andExpect(status().isNotFound());
+    }
+}
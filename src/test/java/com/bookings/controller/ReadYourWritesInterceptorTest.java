@@ -0,0 +1,52 @@
+package com.bookings.controller;
+
+import com.bookings.datasource.ReadRouting;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ReadYourWritesInterceptorTest {
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofSeconds(5));
+
+    @AfterEach
+    public void unpin() {
+        ReadRouting.clear();
+    }
+
+    @Test
+    @DisplayName("Should pin a write to the primary and remember it in a cookie")
+    public void shouldPinAWriteAndSetTheCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/bookings"), response, null);
+        assertThat(ReadRouting.isPinnedToPrimary(), is(true));
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE), startsWith(ReadYourWritesInterceptor.LAST_WRITE_COOKIE + "="));
+
+        interceptor.afterCompletion(null, response, null, null);
+        assertThat(ReadRouting.isPinnedToPrimary(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should pin reads to the primary only within the window after a write")
+    public void shouldPinReadsWithinTheWindow() {
+        assertThat(isPinned(System.currentTimeMillis() - 1_000), is(true));
+        assertThat(isPinned(System.currentTimeMillis() - 10_000), is(false));
+    }
+
+    private boolean isPinned(long lastWrite) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, Long.toString(lastWrite)));
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+        boolean pinned = ReadRouting.isPinnedToPrimary();
+        ReadRouting.clear();
+        return pinned;
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookings.datasource;
+
+import com.bookings.models.*;
+import com.bookings.repository.BookingRepository;
+import com.bookings.service.BookingService;
+import com.bookings.service.ChangeLogListener;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Runs against a primary and a replica H2 database. The replica starts as a copy of the primary and is then kept in
+ * sync by a change log listener that copies every changed booking and its log entry.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "bookings.datasource.replicas[0].url=" + ReadWriteDataSourceTest.REPLICA_URL,
+        "bookings.datasource.replicas[0].username=sa",
+        "bookings.datasource.health-check-interval=100ms"
+})
+class ReadWriteDataSourceTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    DataSource dataSource;
+
+    @AfterEach
+    public void unpin() {
+        ReadRouting.clear();
+    }
+
+    @Test
+    @DisplayName("Should run read-only transactions on a replica and writes on the primary")
+    public void shouldRunReadOnlyTransactionsOnAReplica() throws Exception {
+        Long bookingId = divergedBooking();
+        awaitHealthyReplicas(1);
+        assertThat(inTransaction(true, () -> isCanceled(bookingId)), is(true));
+        assertThat(inTransaction(false, () -> isCanceled(bookingId)), is(false));
+    }
+
+    @Test
+    @DisplayName("Should run read-only transactions on the primary while pinned after a write")
+    public void shouldReadYourWritesWhilePinned() throws Exception {
+        Long bookingId = divergedBooking();
+        awaitHealthyReplicas(1);
+        ReadRouting.pinToPrimary();
+        assertThat(inTransaction(true, () -> isCanceled(bookingId)), is(false));
+    }
+
+    @Test
+    @DisplayName("Should eject an unhealthy replica and read from the primary until it recovers")
+    public void shouldEjectAnUnhealthyReplica() throws Exception {
+        Long bookingId = divergedBooking();
+        REPLICA.execute("ALTER TABLE change_log RENAME TO change_log_paused");
+        try {
+            awaitHealthyReplicas(0);
+            assertThat(inTransaction(true, () -> isCanceled(bookingId)), is(false));
+        } finally {
+            REPLICA.execute("ALTER TABLE change_log_paused RENAME TO change_log");
+        }
+        awaitHealthyReplicas(1);
+        assertThat(inTransaction(true, () -> isCanceled(bookingId)), is(true));
+    }
+
+    @Test
+    @DisplayName("Should fill the bookings cache from the primary")
+    public void shouldFillTheBookingsCacheFromThePrimary() throws Exception {
+        Long bookingId = divergedBooking();
+        awaitHealthyReplicas(1);
+        assertThat(bookingService.getBooking(bookingId).orElseThrow().canceled(), is(false));
+    }
+
+    /**
+     * Books through the application, which replicates the booking, then cancels it on the replica only, so reads
+     * reveal which database served them.
+     */
+    private Long divergedBooking() {
+        var booking = new Booking();
+        booking.setProperty(new Property(2L, new Owner(1L)));
+        booking.setCheckInDate(LocalDate.now().plusMonths(4).plusDays(bookingRepository.count() * 10));
+        booking.setCheckOutDate(booking.getCheckInDate().plusDays(3));
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        Long bookingId = bookingService.createBooking(booking).getId();
+        REPLICA.update("UPDATE bookings SET canceled = TRUE WHERE id = ?", bookingId);
+        return bookingId;
+    }
+
+    private boolean isCanceled(Long bookingId) {
+        return bookingRepository.findById(bookingId).orElseThrow().isCanceled();
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private void awaitHealthyReplicas(int expected) throws SQLException, InterruptedException {
+        ReplicaSet replicaSet = dataSource.unwrap(ReadWriteDataSource.class).getReplicaSet();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (replicaSet.getHealthyCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(replicaSet.getHealthyCount(), is(expected));
+    }
+
+    @TestConfiguration
+    static class ReplicationConfig {
+        @Bean
+        ChangeStreamReplicator changeStreamReplicator(DataSource dataSource) throws SQLException {
+            return new ChangeStreamReplicator(new JdbcTemplate(dataSource.unwrap(HikariDataSource.class)));
+        }
+    }
+
+    static class ChangeStreamReplicator implements ChangeLogListener {
+        private final JdbcTemplate primary;
+
+        ChangeStreamReplicator(JdbcTemplate primary) {
+            this.primary = primary;
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void copyPrimary() {
+            REPLICA.execute("DROP ALL OBJECTS");
+            primary.queryForList("SCRIPT", String.class).forEach(REPLICA::execute);
+        }
+
+        @Override
+        public void onChange(ChangeLogEntry entry) {
+            if (entry.getEntityType() == ChangeLogEntry.EntityType.BOOKING) {
+                copyRow("bookings", entry.getEntityId());
+            }
+            copyRow("change_log", entry.getId());
+        }
+
+        private void copyRow(String table, Long id) {
+            List<Map<String, Object>> rows = primary.queryForList("SELECT * FROM " + table + " WHERE id = ?", id);
+            if (rows.isEmpty()) {
+                REPLICA.update("DELETE FROM " + table + " WHERE id = ?", id);
+                return;
+            }
+            Map<String, Object> row = rows.get(0);
+            String columns = String.join(", ", row.keySet());
+            String placeholders = String.join(", ", row.keySet().stream().map(column -> "?").toList());
+            REPLICA.update("MERGE INTO %s (%s) KEY (id) VALUES (%s)".formatted(table, columns, placeholders), row.values().toArray());
+        }
+    }
+}
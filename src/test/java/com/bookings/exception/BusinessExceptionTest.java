@@ -0,0 +1,48 @@
+package com.bookings.exception;
+
+import com.bookings.models.Booking;
+import com.bookings.models.Property;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BusinessExceptionTest {
+
+    @Test
+    @DisplayName("Should not capture a stack trace for expected rejections")
+    void shouldNotCaptureStackTraceForExpectedRejections() {
+        var exception = new PropertyUnavailableException(booking());
+        assertThat(exception.getStackTrace().length, is(0));
+        exception.addSuppressed(new IllegalStateException());
+        assertThat(exception.getSuppressed().length, is(0));
+    }
+
+    @Test
+    @DisplayName("Should format the rejection message on first read")
+    void shouldFormatRejectionMessageLazily() {
+        var booking = booking();
+        var exception = new PropertyBookingBlockedException(booking);
+        assertThat(exception.getMessage(), is(equalTo(PropertyBookingBlockedException.ERROR_MESSAGE_PATTERN.formatted(
+                booking.getPropertyId(), booking.getCheckInDate(), booking.getCheckOutDate()))));
+        assertThat(exception.getMessage(), is(sameInstance(exception.getMessage())));
+    }
+
+    @Test
+    @DisplayName("Should keep the stack trace for unexpected errors")
+    void shouldKeepStackTraceForUnexpectedErrors() {
+        var exception = new BusinessException("Couldn't update block with id=1", ErrorCode.UNEXPECTED_ERROR);
+        assertThat(exception.getStackTrace().length, is(greaterThan(0)));
+    }
+
+    private static Booking booking() {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L));
+        booking.setCheckInDate(LocalDate.of(2030, 1, 10));
+        booking.setCheckOutDate(LocalDate.of(2030, 1, 15));
+        return booking;
+    }
+}
@@ -0,0 +1,123 @@
+package com.bookings.models;
+
+import com.bookings.calendar.RecurrenceRule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OccupancyTimelineTest {
+    private static final LocalDate START = LocalDate.of(2024, 5, 1);
+
+    @Test
+    @DisplayName("Should merge overlapping and touching occupied ranges")
+    void shouldMergeOverlappingAndTouchingRanges() {
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .occupy(day(0), day(3))
+                .occupy(day(2), day(5))
+                .occupy(day(5), day(7))
+                .occupy(day(9), day(10))
+                .build();
+        assertThat(timeline.size(), is(2));
+        assertThat(timeline.nextAvailable(day(0), 2, 5), contains(window(7, 9), window(10, 12)));
+    }
+
+    @Test
+    @DisplayName("Should return the earliest window of every gap long enough, then the open end")
+    void shouldReturnTheFirstWindowsThatFit() {
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .occupy(day(0), day(4))
+                .occupy(day(6), day(10))
+                .occupy(day(13), day(20))
+                .occupy(day(25), day(26))
+                .build();
+        assertThat(timeline.nextAvailable(day(0), 3, 5), contains(window(10, 13), window(20, 23), window(26, 29)));
+        assertThat(timeline.nextAvailable(day(0), 3, 2), contains(window(10, 13), window(20, 23)));
+        assertThat(timeline.nextAvailable(day(0), 6, 5), contains(window(26, 32)));
+    }
+
+    @Test
+    @DisplayName("Should start searching from a date inside or between occupied ranges")
+    void shouldStartFromAnyDate() {
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .occupy(day(0), day(4))
+                .occupy(day(10), day(12))
+                .build();
+        assertThat(timeline.nextAvailable(day(2), 2, 1), contains(window(4, 6)));
+        assertThat(timeline.nextAvailable(day(4), 2, 1), contains(window(4, 6)));
+        assertThat(timeline.nextAvailable(day(9), 2, 1), contains(window(12, 14)));
+        assertThat(timeline.nextAvailable(day(11), 1, 2), contains(window(12, 13)));
+        assertThat(timeline.nextAvailable(day(40), 3, 2), contains(window(40, 43)));
+    }
+
+    @Test
+    @DisplayName("Should count the free nights from a date up to a maximum")
+    void shouldCountFreeNights() {
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .occupy(day(0), day(4))
+                .occupy(day(10), day(12))
+                .build();
+        assertThat(timeline.freeNights(day(2), 5), is(0));
+        assertThat(timeline.freeNights(day(4), 5), is(5));
+        assertThat(timeline.freeNights(day(7), 5), is(3));
+        assertThat(timeline.freeNights(day(12), 5), is(5));
+    }
+
+    @Test
+    @DisplayName("Should find the open end of an empty timeline")
+    void shouldSearchAnEmptyTimeline() {
+        assertThat(OccupancyTimeline.builder().build().nextAvailable(day(3), 4, 5), is(List.of(window(3, 7))));
+    }
+
+    @Test
+    @DisplayName("Should split free stretches at the days a recurring block falls on")
+    void shouldSplitStretchesAtRecurringBlocks() {
+        // Days 5, 12, 19 and so on.
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .occupy(day(0), day(2))
+                .occupy(day(15), day(17))
+                .recur(RecurrenceRule.parse("FREQ=WEEKLY", day(5)))
+                .build();
+        assertThat(timeline.nextAvailable(day(0), 2, 4), contains(window(2, 4), window(6, 8), window(13, 15), window(17, 19)));
+        assertThat(timeline.nextAvailable(day(0), 3, 2), contains(window(2, 5), window(6, 9)));
+        assertThat(timeline.freeNights(day(3), 5), is(2));
+        assertThat(timeline.freeNights(day(5), 5), is(0));
+        assertThat(timeline.freeNights(day(6), 10), is(6));
+        assertThat(timeline.freeNights(day(13), 10), is(2));
+    }
+
+    @Test
+    @DisplayName("Should give up past the horizon when recurring blocks leave no stretch long enough")
+    void shouldStopAtTheHorizon() {
+        OccupancyTimeline timeline = OccupancyTimeline.builder()
+                .recur(RecurrenceRule.parse("FREQ=WEEKLY", day(5)))
+                .build();
+        assertThat(timeline.nextAvailable(day(0), 7, 5), is(empty()));
+
+        OccupancyTimeline ending = OccupancyTimeline.builder()
+                .recur(RecurrenceRule.parse("FREQ=WEEKLY;UNTIL=" + day(12).format(DateTimeFormatter.BASIC_ISO_DATE), day(5)))
+                .build();
+        assertThat(ending.nextAvailable(day(0), 7, 1), contains(window(13, 20)));
+    }
+
+    @Test
+    @DisplayName("Should refuse ranges added out of order")
+    void shouldRefuseRangesOutOfOrder() {
+        OccupancyTimeline.Builder builder = OccupancyTimeline.builder().occupy(day(5), day(6));
+        assertThrows(IllegalArgumentException.class, () -> builder.occupy(day(1), day(2)));
+    }
+
+    private static LocalDate day(int offset) {
+        return START.plusDays(offset);
+    }
+
+    private static AvailableWindow window(int checkIn, int checkOut) {
+        return new AvailableWindow(day(checkIn), day(checkOut));
+    }
+}
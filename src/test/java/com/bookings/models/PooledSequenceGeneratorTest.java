@@ -0,0 +1,65 @@
+package com.bookings.models;
+
+import com.bookings.repository.BlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooled-ids",
+        "bookings.ids.allocation-size=10"
+})
+class PooledSequenceGeneratorTest {
+    private static final String SEQUENCE_SQL = """
+            SELECT base_value, increment FROM information_schema.sequences WHERE sequence_name = 'BLOCKS_SEQ'""";
+
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void cleanDB() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should take allocation size ids per call to the sequence")
+    public void shouldTakeABlockOfIdsPerSequenceCall() {
+        long baseBefore = jdbcTemplate.queryForObject(SEQUENCE_SQL, (rs, rowNum) -> rs.getLong(1));
+        List<Long> ids = saveBlocks(10);
+        long baseAfter = jdbcTemplate.queryForObject(SEQUENCE_SQL, (rs, rowNum) -> rs.getLong(1));
+
+        assertThat(jdbcTemplate.queryForObject(SEQUENCE_SQL, (rs, rowNum) -> rs.getLong(2)), is(10L));
+        assertThat(ids.stream().distinct().count(), is(10L));
+        // Ten ids straddle at most two blocks; a call per insert would have moved the sequence by a hundred.
+        assertThat(baseAfter - baseBefore, is(lessThanOrEqualTo(20L)));
+    }
+
+    @Test
+    @DisplayName("Should continue above a sequence restarted past the ids in use")
+    public void shouldContinueAboveARestartedSequence() {
+        long lastId = saveBlocks(10).get(9);
+        jdbcTemplate.execute("ALTER SEQUENCE blocks_seq RESTART WITH " + (lastId + 1_000));
+        List<Long> ids = saveBlocks(12);
+        assertThat(ids, everyItem(greaterThan(lastId)));
+        assertThat(ids.get(ids.size() - 1), is(greaterThanOrEqualTo(lastId + 1_000)));
+    }
+
+    private List<Long> saveBlocks(int count) {
+        LocalDate start = LocalDate.now().plusMonths(1).plusDays(blockRepository.count() * 2);
+        return IntStream.range(0, count)
+                .mapToObj(i -> blockRepository.save(new Block(start.plusDays(i * 2L), start.plusDays(i * 2L + 1), new Property(1L))).getId())
+                .toList();
+    }
+}
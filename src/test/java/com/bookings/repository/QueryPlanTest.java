@@ -0,0 +1,157 @@
+package com.bookings.repository;
+
+import com.bookings.service.BookingArchiver;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs every query method declared on a repository, captures the SQL Hibernate sends, and asks H2 for its plan. A
+ * plan that reads a whole table fails the build, so a new query, or a change to a query or to the indexes, cannot
+ * silently fall back to a full scan. Queries that aggregate a whole table on purpose are listed in
+ * {@link #FULL_SCANS}. Statements sent through JDBC rather than a repository are listed in {@link #JDBC_QUERIES}; their plans
+ * must bound the range of the index they read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bookings.repository.QueryPlanTest$RecordingStatementInspector"
+})
+class QueryPlanTest {
+    private static final Set<String> FULL_SCANS = Set.of(
+            // Per-property booking counts for the shard rebalancer, which run on operator request only.
+            "BookingRepository.countByProperty");
+    private static final Map<String, String> JDBC_QUERIES = Map.of(
+            "BookingArchiver.SELECT_CHECKED_OUT_SQL", BookingArchiver.SELECT_CHECKED_OUT_SQL,
+            "BookingArchiver.SELECT_CANCELED_SQL", BookingArchiver.SELECT_CANCELED_SQL);
+    private static final String TABLE_SCAN = ".tableScan";
+    // An index named with the condition bounding its range, e.g. "/* PUBLIC.BOOKINGS_PERIOD_IDX: CHECKOUT_DATE < ?1 */".
+    // Walking the primary key in order for ORDER BY id is no table scan to H2, but reads as much.
+    private static final String INDEX_LOOKUP = "(?s).*/\\* PUBLIC\\.\\w+: .*";
+
+    @Autowired
+    ApplicationContext applicationContext;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TestFactory
+    Stream<DynamicTest> shouldAnswerEveryRepositoryQueryFromAnIndex() {
+        Repositories repositories = new Repositories(applicationContext);
+        return StreamSupport.stream(repositories.spliterator(), false)
+                .map(repositories::getRequiredRepositoryInformation)
+                .sorted(Comparator.comparing(information -> information.getRepositoryInterface().getSimpleName()))
+                .flatMap(information -> information.getQueryMethods().stream()
+                        .filter(method -> !FULL_SCANS.contains(name(information, method)))
+                        .map(method -> DynamicTest.dynamicTest("Should use an index in " + name(information, method), () ->
+                                assertUsesIndexes(repositories.getRepositoryFor(information.getDomainType()).orElseThrow(), method))));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> shouldAnswerEveryJdbcQueryFromAnIndex() {
+        return JDBC_QUERIES.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(query -> DynamicTest.dynamicTest("Should use an index in " + query.getKey(), () ->
+                        assertThat(explain(query.getValue()), matchesRegex(INDEX_LOOKUP))));
+    }
+
+    private void assertUsesIndexes(Object repository, Method method) {
+        List<String> statements = RecordingStatementInspector.record(() -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                try {
+                    ReflectionUtils.invokeMethod(method, repository, sampleArguments(method));
+                } catch (DataIntegrityViolationException e) {
+                    // Sample arguments may point at rows that do not exist; only the statement's plan matters here.
+                }
+            });
+        });
+        assertThat(statements, is(not(empty())));
+        for (String statement : statements) {
+            String plan = explain(statement);
+            assertThat(plan, not(containsString(TABLE_SCAN)));
+        }
+    }
+
+    private String explain(String statement) {
+        int parameters = (int) statement.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + statement, ps -> {
+            for (int i = 1; i <= parameters; i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        return Arrays.stream(method.getParameterTypes()).map(type -> {
+            if (type == Long.class || type == long.class) {
+                return 1L;
+            }
+            if (type == Integer.class || type == int.class) {
+                return 1;
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return false;
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.now();
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.now();
+            }
+            if (type == Limit.class) {
+                return Limit.of(10);
+            }
+            throw new IllegalArgumentException("No sample value for " + type.getSimpleName() + " in " + method);
+        }).toArray();
+    }
+
+    private static String name(RepositoryInformation information, Method method) {
+        return information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> record(Runnable action) {
+            STATEMENTS.set(new ArrayList<>());
+            try {
+                action.run();
+                return STATEMENTS.get();
+            } finally {
+                STATEMENTS.remove();
+            }
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
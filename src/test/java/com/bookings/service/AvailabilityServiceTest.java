@@ -0,0 +1,94 @@
+package com.bookings.service;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.*;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AvailabilityServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    AvailabilityService availabilityService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        // Deleting through the repositories writes no change log entry, so drop the cached timeline by hand.
+        availabilityService.onChange(new ChangeLogEntry(EntityType.BOOKING, 0L, 1L, Operation.DELETED, "test"));
+    }
+
+    @Test
+    @DisplayName("Should find the windows left between bookings and blocks")
+    public void shouldFindTheWindowsBetweenBookingsAndBlocks() {
+        bookingService.createBooking(booking(TODAY.plusDays(10), TODAY.plusDays(14)));
+        Booking canceled = bookingService.createBooking(booking(TODAY.plusDays(16), TODAY.plusDays(20)));
+        bookingService.cancelBooking(canceled.getId());
+        blockService.createBlock(new Block(TODAY.plusDays(20), TODAY.plusDays(21), new Property(1L)));
+
+        assertThat(availabilityService.nextAvailable(1L, 5, TODAY.plusDays(8), 3).orElseThrow(), contains(
+                new AvailableWindow(TODAY.plusDays(14), TODAY.plusDays(19)),
+                new AvailableWindow(TODAY.plusDays(22), TODAY.plusDays(27))));
+    }
+
+    @Test
+    @DisplayName("Should see a new booking as soon as it is committed")
+    public void shouldSeeANewBooking() {
+        assertThat(availabilityService.nextAvailable(1L, 3, TODAY.plusDays(30), 1).orElseThrow(),
+                contains(new AvailableWindow(TODAY.plusDays(30), TODAY.plusDays(33))));
+
+        bookingService.createBooking(booking(TODAY.plusDays(31), TODAY.plusDays(35)));
+
+        assertThat(availabilityService.nextAvailable(1L, 3, TODAY.plusDays(30), 1).orElseThrow(),
+                contains(new AvailableWindow(TODAY.plusDays(35), TODAY.plusDays(38))));
+    }
+
+    @Test
+    @DisplayName("Should search from today at the earliest and not find a missing property")
+    public void shouldSearchFromTodayAtTheEarliest() {
+        assertThat(availabilityService.nextAvailable(1L, 2, TODAY.minusDays(10), 1).orElseThrow(),
+                contains(new AvailableWindow(TODAY, TODAY.plusDays(2))));
+        assertThat(availabilityService.nextAvailable(404L, 2, null, 1).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should reject a stay without nights")
+    public void shouldRejectAStayWithoutNights() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> availabilityService.nextAvailable(1L, 0, TODAY, 1));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_AVAILABILITY_QUERY));
+    }
+
+    private static Booking booking(LocalDate checkInDate, LocalDate checkOutDate) {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
@@ -0,0 +1,191 @@
+package com.bookings.service;
+
+import com.bookings.config.StreamConfig;
+import com.bookings.config.StreamProperties;
+import com.bookings.exception.ServiceOverloadedException;
+import com.bookings.models.Block;
+import com.bookings.models.ChangeLogEntry;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.models.Property;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.ViewRepository;
+import com.bookings.sharding.Shards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:streams")
+@AutoConfigureMockMvc
+class AvailabilityStreamsTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    BlockRepository blockRepository;
+
+    @BeforeEach
+    public void cleanDB() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should stream the committed changes of a property to its subscribers and of every property to the firehose")
+    public void shouldStreamCommittedChanges() throws Exception {
+        MvcResult property = mockMvc.perform(get("/properties/{id}/availability/stream", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult firehose = mockMvc.perform(get("/properties/availability/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Block first = blockService.createBlock(new Block(TODAY.plusDays(10), TODAY.plusDays(12), new Property(1L)));
+        Block second = blockService.createBlock(new Block(TODAY.plusDays(10), TODAY.plusDays(12), new Property(2L)));
+        blockService.deleteBlock(first.getId());
+
+        String all = awaitEvents(firehose, 3);
+        assertThat(all, containsString("\"propertyId\":2,\"entityType\":\"BLOCK\",\"entityId\":%d,\"operation\":\"CREATED\"".formatted(second.getId())));
+        String one = awaitEvents(property, 2);
+        assertThat(one, containsString("\"entityId\":%d,\"operation\":\"CREATED\"".formatted(first.getId())));
+        assertThat(one, containsString("\"entityId\":%d,\"operation\":\"DELETED\"".formatted(first.getId())));
+        assertThat(one, not(containsString("\"propertyId\":2")));
+    }
+
+    @Test
+    @DisplayName("Should answer a stream of an unknown property with a status code 404")
+    public void shouldNotStreamAnUnknownProperty() throws Exception {
+        mockMvc.perform(get("/properties/{id}/availability/stream", 404L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber whose buffer is full without blocking the committing thread")
+    public void shouldDropASlowSubscriber() {
+        ExecutorService sender = mock(ExecutorService.class);
+        AvailabilityStreams streams = streams(sender, 2, 10);
+        streams.subscribeAll();
+
+        for (long blockId = 1; blockId <= 4; blockId++) {
+            streams.onChange(new ChangeLogEntry(EntityType.BLOCK, blockId, 1L, Operation.CREATED, "test"));
+        }
+
+        assertThat(streams.getSubscribers(), is(0));
+        assertThat(streams.getDropped(), is(1L));
+        // Queued for the sender once, however many events were offered meanwhile.
+        ArgumentCaptor<Runnable> drain = ArgumentCaptor.forClass(Runnable.class);
+        verify(sender).execute(drain.capture());
+        drain.getValue().run();
+        verify(sender, times(1)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers past the limit")
+    public void shouldRefuseSubscribersPastTheLimit() {
+        AvailabilityStreams streams = streams(mock(ExecutorService.class), 2, 1);
+        streams.subscribeAll();
+
+        assertThrows(ServiceOverloadedException.class, streams::subscribeAll);
+        assertThat(streams.getSubscribers(), is(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should drop a subscriber whose write stalls past the write timeout and free its sender thread")
+    public void shouldDropAStalledSubscriber() throws Exception {
+        StreamProperties properties = new StreamProperties();
+        properties.setSenderThreads(1);
+        properties.setMaxSubscribers(10);
+        properties.setWriteTimeout(Duration.ofMillis(100));
+        ExecutorService sender = new StreamConfig(mock(ObjectProvider.class), properties).streamSender();
+        AtomicBoolean stall = new AtomicBoolean();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        AvailabilityStreams streams = new AvailabilityStreams(mock(ViewRepository.class), mock(Shards.class),
+                mock(PlatformTransactionManager.class), sender, properties, mock(ObjectProvider.class)) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder event) throws IOException {
+                        if (stall.get()) {
+                            writing.countDown();
+                            try {
+                                never.await();
+                            } catch (InterruptedException e) {
+                                throw new IOException("Write interrupted", e);
+                            }
+                        }
+                        super.send(event);
+                    }
+                };
+            }
+        };
+        try {
+            streams.subscribeAll();
+            stall.set(true);
+            streams.onChange(new ChangeLogEntry(EntityType.BLOCK, 1L, 1L, Operation.CREATED, "test"));
+            assertThat(writing.await(5, TimeUnit.SECONDS), is(true));
+
+            streams.dropStalled();
+            assertThat(streams.getSubscribers(), is(1));
+            Thread.sleep(200);
+            streams.dropStalled();
+
+            assertThat(streams.getSubscribers(), is(0));
+            assertThat(streams.getDropped(), is(1L));
+            assertThat(sender.submit(() -> true).get(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            sender.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AvailabilityStreams streams(ExecutorService sender, int bufferSize, int maxSubscribers) {
+        StreamProperties properties = new StreamProperties();
+        properties.setBufferSize(bufferSize);
+        properties.setMaxSubscribers(maxSubscribers);
+        return new AvailabilityStreams(mock(ViewRepository.class), mock(Shards.class), mock(PlatformTransactionManager.class),
+                sender, properties, mock(ObjectProvider.class));
+    }
+
+    private static String awaitEvents(MvcResult result, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (content.split("event:" + AvailabilityStreams.EVENT_NAME, -1).length - 1 < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookings.service;
+
+import com.bookings.repository.BlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Blocks are inserted with plain SQL, since the service refuses overlapping blocks and the entity's validation only
+ * accepts future dates.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:compaction", "bookings.compaction.batch-size=1",
+        "bookings.compaction.pause=10ms"})
+class BlockCompactorTest {
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final AtomicLong IDS = new AtomicLong(1_000_000);
+
+    @Autowired
+    BlockCompactor blockCompactor;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void cleanDB() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should merge the overlapping and touching blocks made here of every property, whether started or not")
+    public void shouldMergeFragmentedBlocks() {
+        Long started = insertBlock(1L, -2, 1, null);
+        insertBlock(1L, 2, 4, null);
+        insertBlock(1L, 3, 8, null);
+        insertBlock(1L, 20, 21, null);
+        insertBlock(1L, 9, 10, "ota");
+        insertBlock(1L, -10, -5, null);
+        insertBlock(1L, -4, -3, null);
+        Long second = insertBlock(2L, 5, 6, null);
+        insertBlock(2L, 6, 7, null);
+        insertBlock(3L, 1, 2, null);
+        long changes = changeLogSize();
+
+        assertThat(blockCompactor.compact(), is(3L));
+
+        assertThat(blocks(1L), contains("-10/-5/null", "-4/-3/null", "-2/8/null", "9/10/ota", "20/21/null"));
+        assertThat(blocks(2L), contains("5/7/null"));
+        assertThat(blocks(3L), contains("1/2/null"));
+        assertThat(blockRepository.existsById(started), is(true));
+        assertThat(blockRepository.existsById(second), is(true));
+        // Three deletions and the two stretched blocks.
+        assertThat(changeLogSize(), is(changes + 5));
+        assertThat(blockCompactor.compact(), is(0L));
+    }
+
+    private Long insertBlock(Long propertyId, int start, int end, String source) {
+        long id = IDS.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO blocks (id, start_date, end_date, property_id, source, external_uid) VALUES (?, ?, ?, ?, ?, ?)",
+                id, TODAY.plusDays(start), TODAY.plusDays(end), propertyId, source, source == null ? null : "event-" + id);
+        return id;
+    }
+
+    private List<String> blocks(Long propertyId) {
+        return jdbcTemplate.query("SELECT start_date, end_date, source FROM blocks WHERE property_id = ? ORDER BY start_date",
+                (rs, rowNum) -> TODAY.until(rs.getObject(1, LocalDate.class)).getDays() + "/"
+                        + TODAY.until(rs.getObject(2, LocalDate.class)).getDays() + "/" + rs.getString(3), propertyId);
+    }
+
+    private long changeLogSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_log", Long.class);
+    }
+}
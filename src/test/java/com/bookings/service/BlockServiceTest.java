@@ -4,8 +4,12 @@ import com.bookings.exception.BusinessException;
 import com.bookings.exception.ErrorCode;
 import com.bookings.exception.PropertyAlreadyBlockedException;
 import com.bookings.models.Block;
+import com.bookings.models.BlockView;
 import com.bookings.models.Property;
+import com.bookings.models.RecurringBlock;
+import com.bookings.models.RecurringBlockView;
 import com.bookings.repository.BlockRepository;
+import com.bookings.repository.RecurringBlockRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,9 +19,12 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,9 +37,13 @@ class BlockServiceTest {
     @Autowired
     BlockRepository blockRepository;
 
+    @Autowired
+    RecurringBlockRepository recurringBlockRepository;
+
     @BeforeEach
     public void cleanDB() {
         blockRepository.deleteAll();
+        recurringBlockRepository.deleteAll();
     }
 
 
@@ -155,4 +166,125 @@ class BlockServiceTest {
             assertThat(updated, is(equalTo(updatedBlock)));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should get a block by id")
+    public void shouldGetABlock() {
+        var startDate = LocalDate.now().plusMonths(2);
+        var endDate = startDate.plusDays(4);
+        Block persistedBlock = blockService.createBlock(new Block(startDate, endDate, new Property(1L)));
+
+        BlockView block = blockService.getBlock(persistedBlock.getId()).orElseThrow();
+        assertThat(block, is(equalTo(new BlockView(persistedBlock.getId(), startDate, endDate, 1L))));
+        assertThat(blockService.getBlock(persistedBlock.getId() + 1).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should block the days a recurring block falls on until it is deleted")
+    public void shouldBlockTheDaysOfARecurringBlock() {
+        LocalDate monday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        RecurringBlock block = blockService.createRecurringBlock(
+                new RecurringBlock(LocalDate.now().plusDays(1), "freq=weekly;byday=mo", new Property(1L)));
+
+        assertThat(blockService.getRecurringBlock(block.getId()).orElseThrow(), is(equalTo(new RecurringBlockView(
+                block.getId(), LocalDate.now().plusDays(1), null, "FREQ=WEEKLY;BYDAY=MO", 1L))));
+        assertThat(blockService.isBlocked(monday, 1L), is(true));
+        assertThat(blockService.isBlocked(monday.plusWeeks(10), 1L), is(true));
+        assertThat(blockService.isBlocked(monday.plusDays(1), 1L), is(false));
+        assertThat(blockService.isBlocked(monday, 2L), is(false));
+        // A stay is blocked when the rule falls on any of its nights, not only on its check-in.
+        assertThat(blockService.isBlocked(monday.minusDays(1), monday.plusDays(2), 1L), is(true));
+        assertThat(blockService.isBlocked(monday.plusDays(1), monday.plusDays(7), 1L), is(false));
+        assertThrows(PropertyAlreadyBlockedException.class,
+                () -> blockService.createBlock(new Block(monday, monday.plusDays(2), new Property(1L))));
+
+        blockService.deleteRecurringBlock(block.getId());
+        assertThat(blockService.isBlocked(monday, 1L), is(false));
+        assertThat(blockService.getRecurringBlock(block.getId()).isPresent(), is(false));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "FREQ=WEEKLY;INTERVAL=2",
+            "FREQ=MONTHLY;BYDAY=1MO",
+            "FREQ=YEARLY;BYMONTH=2;BYMONTHDAY=30"
+    })
+    @DisplayName("Should refuse a recurring block whose rule is not supported or never recurs")
+    public void shouldRefuseInvalidRecurrenceRules(String rule) {
+        RecurringBlock block = new RecurringBlock(LocalDate.now().plusDays(1), rule, new Property(1L));
+        BusinessException exception = assertThrows(BusinessException.class, () -> blockService.createRecurringBlock(block));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_RECURRENCE_RULE));
+    }
+
+    @Test
+    @DisplayName("Should merge a new block with the blocks it overlaps or touches into the earliest of them")
+    public void shouldMergeANewBlock() {
+        LocalDate today = LocalDate.now();
+        Block first = blockService.createBlock(new Block(today.plusDays(10), today.plusDays(12), new Property(1L)));
+        blockService.createBlock(new Block(today.plusDays(14), today.plusDays(16), new Property(1L)));
+        Block separate = blockService.createBlock(new Block(today.plusDays(20), today.plusDays(22), new Property(1L)));
+
+        Block merged = blockService.createAndMergeBlock(new Block(today.plusDays(13), today.plusDays(14), new Property(1L)));
+
+        assertThat(merged.getId(), is(first.getId()));
+        assertThat(merged.getStartDate(), is(today.plusDays(10)));
+        assertThat(merged.getEndDate(), is(today.plusDays(16)));
+        assertThat(blockRepository.count(), is(2L));
+        assertThat(blockRepository.findById(separate.getId()).isPresent(), is(true));
+
+        Block alone = blockService.createAndMergeBlock(new Block(today.plusDays(30), today.plusDays(31), new Property(1L)));
+        assertThat(blockRepository.count(), is(3L));
+        assertThat(alone.getStartDate(), is(today.plusDays(30)));
+    }
+
+    @Test
+    @DisplayName("Should merge an updated block with the blocks it now overlaps or touches, keeping its id")
+    public void shouldMergeAnUpdatedBlock() {
+        LocalDate today = LocalDate.now();
+        Block moved = blockService.createBlock(new Block(today.plusDays(10), today.plusDays(11), new Property(1L)));
+        blockService.createBlock(new Block(today.plusDays(20), today.plusDays(22), new Property(1L)));
+
+        Block update = new Block(today.plusDays(18), today.plusDays(21), new Property(1L));
+        update.setId(moved.getId());
+        Block merged = blockService.updateAndMergeBlock(update);
+
+        assertThat(merged.getId(), is(moved.getId()));
+        assertThat(merged.getStartDate(), is(today.plusDays(18)));
+        assertThat(merged.getEndDate(), is(today.plusDays(22)));
+        assertThat(blockRepository.count(), is(1L));
+
+        // Taking exactly the dates of the block it absorbs.
+        Block absorbed = blockService.createBlock(new Block(today.plusDays(30), today.plusDays(32), new Property(1L)));
+        Block same = new Block(today.plusDays(30), today.plusDays(32), new Property(1L));
+        same.setId(moved.getId());
+        Block taken = blockService.updateAndMergeBlock(same);
+
+        assertThat(taken.getId(), is(moved.getId()));
+        assertThat(taken.getStartDate(), is(today.plusDays(30)));
+        assertThat(taken.getEndDate(), is(today.plusDays(32)));
+        assertThat(blockRepository.existsById(absorbed.getId()), is(false));
+        assertThat(blockRepository.count(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Should purge the blocks of a property starting in a period, imported ones included")
+    public void shouldPurgeBlocks() {
+        LocalDate today = LocalDate.now();
+        Block kept = blockService.createBlock(new Block(today.plusDays(2), today.plusDays(4), new Property(1L)));
+        Block first = blockService.createBlock(new Block(today.plusDays(10), today.plusDays(12), new Property(1L)));
+        Block imported = new Block(today.plusDays(20), today.plusDays(22), new Property(1L));
+        imported.setImportedFrom("ota", "event-1");
+        imported = blockService.createBlock(imported);
+        Block other = blockService.createBlock(new Block(today.plusDays(10), today.plusDays(12), new Property(2L)));
+
+        assertThat(blockService.purgeBlocks(1L, today.plusDays(5), null).orElseThrow(), contains(first.getId(), imported.getId()));
+
+        assertThat(blockRepository.existsById(kept.getId()), is(true));
+        assertThat(blockRepository.existsById(other.getId()), is(true));
+        assertThat(blockRepository.count(), is(2L));
+        assertThat(blockService.purgeBlocks(404L, today, null).isPresent(), is(false));
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> blockService.purgeBlocks(1L, today.minusDays(1), null));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_BLOCK_DATES));
+    }
+}
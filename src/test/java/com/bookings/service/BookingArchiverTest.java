@@ -0,0 +1,115 @@
+package com.bookings.service;
+
+import com.bookings.concurrency.AdmissionControl;
+import com.bookings.concurrency.ConcurrencyLimiter;
+import com.bookings.models.ArchivedBooking;
+import com.bookings.models.Booking;
+import com.bookings.models.BookingView;
+import com.bookings.repository.ArchivedBookingRepository;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Past bookings are inserted with plain SQL, since the entity's validation only accepts future dates.
+ */
+@SpringBootTest(properties = {"bookings.archive.batch-size=2", "bookings.archive.pause=10ms"})
+class BookingArchiverTest {
+    private static final AtomicLong IDS = new AtomicLong(1_000_000);
+
+    @Autowired
+    BookingArchiver bookingArchiver;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    AdmissionControl admissionControl;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        archivedBookingRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should archive past stays and canceled bookings whose check-in has passed")
+    public void shouldArchivePastStaysAndCanceledBookings() {
+        Long pastStay = insertBooking(LocalDate.now().minusMonths(3), false);
+        Long olderStay = insertBooking(LocalDate.now().minusMonths(4), false);
+        Long canceled = insertBooking(LocalDate.now().minusDays(1), true);
+        Long recentStay = insertBooking(LocalDate.now().minusDays(10), false);
+        Long upcoming = insertBooking(LocalDate.now().plusMonths(1), true);
+
+        assertThat(bookingArchiver.archive(), is(3L));
+
+        assertThat(bookingRepository.findAll().stream().map(Booking::getId).toList(), containsInAnyOrder(recentStay, upcoming));
+        assertThat(archivedBookingRepository.findAll().stream().map(ArchivedBooking::getId).toList(),
+                containsInAnyOrder(pastStay, olderStay, canceled));
+        assertThat(bookingArchiver.archive(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Should read an archived booking back by id")
+    public void shouldReadAnArchivedBookingById() {
+        LocalDate checkInDate = LocalDate.now().minusMonths(3);
+        Long pastStay = insertBooking(checkInDate, false);
+        bookingArchiver.archive();
+
+        BookingView booking = bookingService.getBooking(pastStay).orElseThrow();
+        assertThat(booking.checkInDate(), is(checkInDate));
+        assertThat(booking.propertyId(), is(1L));
+        assertThat(booking.guestFirstName(), is("Paul"));
+    }
+
+    @Test
+    @DisplayName("Should wait while foreground requests keep admission control busy")
+    public void shouldPauseUnderForegroundLoad() throws Exception {
+        Long pastStay = insertBooking(LocalDate.now().minusMonths(3), false);
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        ConcurrencyLimiter writeLimiter = admissionControl.getWriteLimiter();
+        while (admissionControl.utilization() <= 0.5) {
+            permits.add(writeLimiter.tryAcquire().orElseThrow());
+        }
+        CompletableFuture<Long> run = CompletableFuture.supplyAsync(bookingArchiver::archive);
+        try {
+            Thread.sleep(200);
+            assertThat(run.isDone(), is(false));
+            assertThat(bookingRepository.existsById(pastStay), is(true));
+        } finally {
+            permits.forEach(ConcurrencyLimiter.Permit::onDropped);
+        }
+        assertThat(run.get(5, TimeUnit.SECONDS), is(1L));
+    }
+
+    private Long insertBooking(LocalDate checkInDate, boolean canceled) {
+        long id = IDS.incrementAndGet();
+        jdbcTemplate.update("""
+                INSERT INTO bookings (id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name,
+                                      guest_age, guest_social_security_id, canceled)
+                VALUES (?, ?, ?, 1, 'Paul', 'Leroy', 22, '123456', ?)""", id, checkInDate, checkInDate.plusDays(3), canceled);
+        return id;
+    }
+}
@@ -6,7 +6,9 @@ import com.bookings.exception.PropertyBookingBlockedException;
 import com.bookings.exception.PropertyUnavailableException;
 import com.bookings.models.*;
 import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingNightRepository;
 import com.bookings.repository.BookingRepository;
+import com.bookings.repository.RecurringBlockRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,11 +17,18 @@ import org.junit.jupiter.params.aggregator.ArgumentsAccessor;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,11 +41,20 @@ class BookingServiceTest {
     BookingRepository bookingRepository;
     @Autowired
     BlockRepository blockRepository;
+    @Autowired
+    BookingNightRepository bookingNightRepository;
+    @Autowired
+    RecurringBlockRepository recurringBlockRepository;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
 
     @BeforeEach
     public void cleanDB() {
         bookingRepository.deleteAll();
         blockRepository.deleteAll();
+        recurringBlockRepository.deleteAll();
     }
 
     @ParameterizedTest
@@ -108,7 +126,7 @@ class BookingServiceTest {
         Long persistedBookingId = persistedBooking.getId();
         bookingService.cancelBooking(persistedBookingId);
         var canceledBooking = bookingService.getBooking(persistedBookingId).get();
-        assertThat(canceledBooking.isCanceled(), is(true));
+        assertThat(canceledBooking.canceled(), is(true));
     }
 
     @Test
@@ -171,7 +189,11 @@ class BookingServiceTest {
         Booking persistedBooking = bookingService.createBooking(newBooking);
         assertThat(newBooking, is(equalTo(persistedBooking)));
         var booking = bookingService.getBooking(persistedBooking.getId()).get();
-        assertThat(booking, is(equalTo(persistedBooking)));
+        assertThat(booking.id(), is(equalTo(persistedBooking.getId())));
+        assertThat(booking.checkInDate(), is(equalTo(persistedBooking.getCheckInDate())));
+        assertThat(booking.checkOutDate(), is(equalTo(persistedBooking.getCheckOutDate())));
+        assertThat(booking.propertyId(), is(equalTo(persistedBooking.getPropertyId())));
+        assertThat(booking.guestSocialSecurityId(), is(equalTo(persistedBooking.getGuest().getSocialSecurityId())));
     }
 
     @Test
@@ -216,6 +238,68 @@ class BookingServiceTest {
         assertThat(updatedBooking.getCheckOutDate(), is(updatedCheckOutDate));
     }
 
+    @Test
+    @DisplayName("Should occupy one night per day of the stay and free them when canceled")
+    public void shouldOccupyTheNightsOfABooking() {
+        LocalDate checkIn = LocalDate.now().plusMonths(2);
+        Booking booking = bookingService.createBooking(validNewBooking(checkIn, checkIn.plusDays(5)));
+        assertThat(bookingNightRepository.findAll().stream().map(BookingNight::getNight).toList(), contains(
+                checkIn, checkIn.plusDays(1), checkIn.plusDays(2), checkIn.plusDays(3), checkIn.plusDays(4)));
+
+        bookingService.cancelBooking(booking.getId());
+        assertThat(bookingNightRepository.count(), is(0L));
+        assertDoesNotThrow(() -> bookingService.createBooking(validNewBooking(checkIn.plusDays(1), checkIn.plusDays(4))));
+    }
+
+    @Test
+    @DisplayName("Should refuse a second booking of a night at the database level")
+    public void shouldRefuseASecondBookingOfANightInTheDatabase() {
+        LocalDate checkIn = LocalDate.now().plusMonths(2);
+        bookingService.createBooking(validNewBooking(checkIn, checkIn.plusDays(5)));
+        // Written without the service, as a bug or a node skipping the checks would.
+        Booking unchecked = bookingRepository.save(validNewBooking(checkIn.plusDays(10), checkIn.plusDays(12)));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                bookingNightRepository.occupy(1L, checkIn.plusDays(3), 2, unchecked.getId())));
+    }
+
+    @Test
+    @DisplayName("Should cancel the bookings of a property checking in during a period and release their nights")
+    public void shouldCancelBookingsInAPeriod() {
+        LocalDate today = LocalDate.now();
+        Booking first = bookingService.createBooking(validNewBooking(today.plusDays(5), today.plusDays(8)));
+        Booking second = bookingService.createBooking(validNewBooking(today.plusDays(20), today.plusDays(25)));
+        Booking canceled = bookingService.createBooking(validNewBooking(today.plusDays(30), today.plusDays(32)));
+        bookingService.cancelBooking(canceled.getId());
+        Booking later = bookingService.createBooking(validNewBooking(today.plusDays(40), today.plusDays(42)));
+
+        assertThat(bookingService.cancelBookings(1L, today, today.plusDays(40)).orElseThrow(),
+                containsInAnyOrder(first.getId(), second.getId()));
+
+        assertThat(bookingRepository.findById(first.getId()).orElseThrow().isCanceled(), is(true));
+        assertThat(bookingRepository.findById(later.getId()).orElseThrow().isCanceled(), is(false));
+        assertThat(bookingService.getBooking(second.getId()).orElseThrow().canceled(), is(true));
+        // The nights are free again; the exact stay stays taken by the canceled booking, as after a single cancel.
+        assertDoesNotThrow(() -> bookingService.createBooking(validNewBooking(today.plusDays(6), today.plusDays(9))));
+        assertThat(bookingService.cancelBookings(404L, today, null).isPresent(), is(false));
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> bookingService.cancelBookings(1L, today.plusDays(10), today.plusDays(10)));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_BOOKING_DATES));
+    }
+
+    @Test
+    @DisplayName("Should prevent create a booking when a recurring block falls on any of its nights")
+    public void shouldPreventCreateABookingOverARecurringBlock() {
+        LocalDate monday = LocalDate.now().plusDays(7).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        blockService.createRecurringBlock(new RecurringBlock(LocalDate.now().plusDays(1), "FREQ=WEEKLY;BYDAY=MO", new Property(1L)));
+
+        assertThrowsExactly(PropertyBookingBlockedException.class,
+                () -> bookingService.createBooking(validNewBooking(monday.minusDays(1), monday.plusDays(2))));
+        // Checking out on the Monday leaves its night free.
+        assertDoesNotThrow(() -> bookingService.createBooking(validNewBooking(monday.minusDays(3), monday)));
+    }
+
     private static Booking validNewBooking(Month month) {
         var booking = new Booking();
         booking.setProperty(new Property(1L, new Owner(1L)));
@@ -0,0 +1,143 @@
+package com.bookings.service;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.*;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.HoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Hot property counts must not decay while a test compares them.
+@SpringBootTest(properties = "bookings.analytics.hot-properties-window=1h")
+class BookingSubmissionServiceTest {
+    @Autowired
+    BookingSubmissionService bookingSubmissionService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    HoldRepository holdRepository;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    HotPropertyTracker hotPropertyTracker;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        holdRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should confirm distinct bookings and reject conflicting ones submitted in the same batch")
+    public void shouldResolveConflictsInsideABatch() throws InterruptedException {
+        LocalDate firstCheckIn = LocalDate.now().plusMonths(3);
+        List<BookingTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            LocalDate checkIn = firstCheckIn.plusDays(i * 10L);
+            tickets.add(bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(3)), null));
+            tickets.add(bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(3)), null));
+        }
+
+        List<BookingTicket> outcomes = awaitOutcomes(tickets);
+        assertThat(outcomes.stream().filter(t -> t.status() == BookingTicket.Status.CONFIRMED).count(), is(10L));
+        assertThat(outcomes.stream().filter(t -> t.status() == BookingTicket.Status.REJECTED)
+                .allMatch(t -> t.errorCode() == ErrorCode.PROPERTY_UNAVAILABLE), is(true));
+        assertThat(bookingRepository.count(), is(10L));
+    }
+
+    @Test
+    @DisplayName("Should reject in the batch a stay taken by a canceled booking, counting each submission once")
+    public void shouldRejectACanceledStayInsideTheBatch() throws InterruptedException {
+        LocalDate checkIn = LocalDate.now().plusMonths(5);
+        Booking canceled = bookingService.createBooking(newBooking(checkIn, checkIn.plusDays(3)));
+        bookingService.cancelBooking(canceled.getId());
+        double requestedBefore = requestedCount(2L);
+
+        List<BookingTicket> outcomes = awaitOutcomes(List.of(
+                bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(3)), null),
+                bookingSubmissionService.submit(newBooking(checkIn.plusDays(10), checkIn.plusDays(12)), null)));
+
+        assertThat(outcomes.get(0).errorCode(), is(ErrorCode.PROPERTY_UNAVAILABLE));
+        assertThat(outcomes.get(1).status(), is(BookingTicket.Status.CONFIRMED));
+        assertThat(requestedCount(2L), is(requestedBefore + 2));
+    }
+
+    @Test
+    @DisplayName("Should reject a submission with a callback URL that is not http or https")
+    public void shouldRejectAnInvalidCallbackUrl() {
+        LocalDate checkIn = LocalDate.now().plusMonths(3);
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(2)), URI.create("file:///etc/passwd")));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_CALLBACK_URL));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http://localhost:8080/admin", "http://127.0.0.1/", "http://169.254.169.254/latest/meta-data",
+            "http://10.0.0.5/", "http://192.168.1.1/", "http://0.0.0.0/", "http://[::1]/", "http://[fd00::1]/"})
+    @DisplayName("Should reject a submission with a callback URL to the server itself or an internal address")
+    public void shouldRejectAnInternalCallbackUrl(String callbackUrl) {
+        LocalDate checkIn = LocalDate.now().plusMonths(3);
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(2)), URI.create(callbackUrl)));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_CALLBACK_URL));
+    }
+
+    @Test
+    @DisplayName("Should accept a submission with a callback URL to a public address")
+    public void shouldAcceptAPublicCallbackUrl() throws InterruptedException {
+        LocalDate checkIn = LocalDate.now().plusMonths(4);
+        BookingTicket ticket = assertDoesNotThrow(() ->
+                bookingSubmissionService.submit(newBooking(checkIn, checkIn.plusDays(2)), URI.create("http://203.0.113.10/bookings")));
+        awaitOutcomes(List.of(ticket));
+    }
+
+    private double requestedCount(Long propertyId) {
+        return hotPropertyTracker.top(256).requested().stream()
+                .filter(property -> property.propertyId().equals(propertyId))
+                .mapToDouble(HotProperties.HotProperty::count)
+                .sum();
+    }
+
+    private List<BookingTicket> awaitOutcomes(List<BookingTicket> tickets) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<BookingTicket> outcomes = tickets.stream()
+                    .map(ticket -> bookingSubmissionService.getTicket(ticket.id()).orElseThrow())
+                    .toList();
+            if (outcomes.stream().allMatch(BookingTicket::isCompleted)) {
+                return outcomes;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Tickets were not completed in time");
+    }
+
+    private static Booking newBooking(LocalDate checkInDate, LocalDate checkOutDate) {
+        var booking = new Booking();
+        booking.setProperty(new Property(2L, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
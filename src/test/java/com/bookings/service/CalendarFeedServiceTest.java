@@ -0,0 +1,111 @@
+package com.bookings.service;
+
+import com.bookings.models.*;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.RecurringBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:calendar")
+class CalendarFeedServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    CalendarFeedService calendarFeedService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    RecurringBlockRepository recurringBlockRepository;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        recurringBlockRepository.deleteAll();
+        // Deleting through the repositories writes no change log entry, so drop the cached feed by hand.
+        calendarFeedService.onChange(new ChangeLogEntry(ChangeLogEntry.EntityType.BOOKING, 0L, 1L, ChangeLogEntry.Operation.DELETED, "test"));
+    }
+
+    @Test
+    @DisplayName("Should render the bookings and blocks of a property without guest details")
+    public void shouldRenderBookingsAndBlocks() {
+        Booking booking = bookingService.createBooking(booking(TODAY.plusDays(10), TODAY.plusDays(14)));
+        Booking canceled = bookingService.createBooking(booking(TODAY.plusDays(20), TODAY.plusDays(22)));
+        bookingService.cancelBooking(canceled.getId());
+        Block block = blockService.createBlock(new Block(TODAY.plusDays(30), TODAY.plusDays(31), new Property(1L)));
+
+        String feed = new String(calendarFeedService.feed(1L).orElseThrow().content(), StandardCharsets.UTF_8);
+
+        assertThat(feed, containsString("X-WR-CALNAME:Fancy House 1\r\n"));
+        assertThat(feed, containsString("UID:booking-%d@bookings\r\nDTSTAMP:%sT000000Z\r\nDTSTART;VALUE=DATE:%s\r\nDTEND;VALUE=DATE:%s\r\nSUMMARY:Reserved\r\n"
+                .formatted(booking.getId(), date(TODAY), date(TODAY.plusDays(10)), date(TODAY.plusDays(14)))));
+        assertThat(feed, containsString("UID:block-%d@bookings\r\nDTSTAMP:%sT000000Z\r\nDTSTART;VALUE=DATE:%s\r\nDTEND;VALUE=DATE:%s\r\nSUMMARY:Not available\r\n"
+                .formatted(block.getId(), date(TODAY), date(TODAY.plusDays(30)), date(TODAY.plusDays(32)))));
+        assertThat(feed, not(containsString("booking-" + canceled.getId() + "@")));
+        assertThat(feed, not(containsString("Leroy")));
+    }
+
+    @Test
+    @DisplayName("Should render a recurring block as one event with its rule, starting on its first occurrence")
+    public void shouldRenderRecurringBlocks() {
+        LocalDate start = TODAY.plusDays(1);
+        LocalDate firstOfMonth = start.getDayOfMonth() == 1 ? start : start.withDayOfMonth(1).plusMonths(1);
+        RecurringBlock block = blockService.createRecurringBlock(new RecurringBlock(start, "FREQ=MONTHLY;BYMONTHDAY=1", new Property(1L)));
+
+        String feed = new String(calendarFeedService.feed(1L).orElseThrow().content(), StandardCharsets.UTF_8);
+
+        assertThat(feed, containsString("UID:recurring_block-%d@bookings\r\nDTSTAMP:%sT000000Z\r\nDTSTART;VALUE=DATE:%s\r\nDTEND;VALUE=DATE:%s\r\nRRULE:FREQ=MONTHLY;BYMONTHDAY=1\r\nSUMMARY:Not available\r\n"
+                .formatted(block.getId(), date(TODAY), date(firstOfMonth), date(firstOfMonth.plusDays(1)))));
+    }
+
+    @Test
+    @DisplayName("Should serve the cached feed until a booking or block of the property changes")
+    public void shouldCacheTheFeedUntilTheCalendarChanges() {
+        CalendarFeed first = calendarFeedService.feed(1L).orElseThrow();
+
+        assertThat(calendarFeedService.feed(1L).orElseThrow(), sameInstance(first));
+        blockService.createBlock(new Block(TODAY.plusDays(5), TODAY.plusDays(6), new Property(2L)));
+        assertThat(calendarFeedService.feed(1L).orElseThrow(), sameInstance(first));
+
+        blockService.createBlock(new Block(TODAY.plusDays(5), TODAY.plusDays(6), new Property(1L)));
+        CalendarFeed changed = calendarFeedService.feed(1L).orElseThrow();
+        assertThat(changed.etag(), not(first.etag()));
+        assertThat(new String(changed.content(), StandardCharsets.UTF_8), containsString("SUMMARY:Not available"));
+    }
+
+    @Test
+    @DisplayName("Should not render a feed for a property that does not exist")
+    public void shouldNotRenderAMissingProperty() {
+        assertThat(calendarFeedService.feed(404L).isPresent(), is(false));
+    }
+
+    private static Booking booking(LocalDate checkInDate, LocalDate checkOutDate) {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+
+    private static String date(LocalDate date) {
+        return date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
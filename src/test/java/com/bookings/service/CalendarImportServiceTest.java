@@ -0,0 +1,153 @@
+package com.bookings.service;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.models.Block;
+import com.bookings.models.CalendarImportResult;
+import com.bookings.models.Property;
+import com.bookings.repository.BlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:calendar-import")
+class CalendarImportServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    CalendarImportService calendarImportService;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void cleanDB() {
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should import events as blocks and write nothing when an unchanged calendar of 2000 events is synced again")
+    public void shouldWriteNothingForAnUnchangedCalendar() {
+        StringBuilder calendar = new StringBuilder("BEGIN:VCALENDAR\r\n");
+        for (int i = 0; i < 2000; i++) {
+            calendar.append(event("stay-" + i, TODAY.plusDays(1 + 2L * i), TODAY.plusDays(3 + 2L * i)));
+        }
+        String feed = calendar.append("END:VCALENDAR\r\n").toString();
+
+        assertThat(importCalendar(feed), is(new CalendarImportResult(2000, 0, 0, 0, 0)));
+        long changes = changeLogSize();
+        assertThat(importCalendar(feed), is(new CalendarImportResult(0, 0, 0, 2000, 0)));
+        assertThat(changeLogSize(), is(changes));
+        assertThat(blockRepository.count(), is(2000L));
+    }
+
+    @Test
+    @DisplayName("Should apply only the differences and leave blocks made here alone")
+    public void shouldApplyOnlyTheDifferences() {
+        Block manual = blockService.createBlock(new Block(TODAY.plusDays(40), TODAY.plusDays(42), new Property(1L)));
+        importCalendar(calendar(
+                event("kept", TODAY.plusDays(10), TODAY.plusDays(12)),
+                event("moved", TODAY.plusDays(20), TODAY.plusDays(25)),
+                event("removed", TODAY.plusDays(30), TODAY.plusDays(31))));
+
+        CalendarImportResult result = importCalendar(calendar(
+                event("kept", TODAY.plusDays(10), TODAY.plusDays(12)),
+                event("moved", TODAY.plusDays(21), TODAY.plusDays(26)),
+                event("added", TODAY.plusDays(50), TODAY.plusDays(51)),
+                event("same-dates-as-manual", TODAY.plusDays(40), TODAY.plusDays(43)),
+                event("over", TODAY.minusDays(10), TODAY.minusDays(5))));
+
+        assertThat(result, is(new CalendarImportResult(1, 1, 1, 1, 1)));
+        List<Block> blocks = blockRepository.findAll().stream().sorted(Comparator.comparing(Block::getStartDate)).toList();
+        assertThat(blocks.stream().map(block -> block.getStartDate() + "/" + block.getEndDate() + "/" + block.getExternalUid()).toList(), contains(
+                TODAY.plusDays(10) + "/" + TODAY.plusDays(11) + "/kept",
+                TODAY.plusDays(21) + "/" + TODAY.plusDays(25) + "/moved",
+                TODAY.plusDays(40) + "/" + TODAY.plusDays(42) + "/null",
+                TODAY.plusDays(50) + "/" + TODAY.plusDays(50) + "/added"));
+        assertThat(blocks.get(2).getId(), is(manual.getId()));
+    }
+
+    @Test
+    @DisplayName("Should start a running event's block tomorrow and keep it unchanged on the next sync")
+    public void shouldClipRunningEvents() {
+        String feed = calendar(event("running", TODAY.minusDays(3), TODAY.plusDays(4)));
+
+        assertThat(importCalendar(feed), is(new CalendarImportResult(1, 0, 0, 0, 0)));
+        Block block = blockRepository.findAll().get(0);
+        assertThat(block.getStartDate(), is(TODAY.plusDays(1)));
+        assertThat(block.getEndDate(), is(TODAY.plusDays(3)));
+        assertThat(importCalendar(feed), is(new CalendarImportResult(0, 0, 0, 1, 0)));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid source or calendar and ignore a property that does not exist")
+    public void shouldRejectInvalidImports() {
+        BusinessException source = assertThrows(BusinessException.class,
+                () -> calendarImportService.importCalendar(1L, "a/b", new StringReader(calendar())));
+        assertThat(source.getErrorCode(), is(ErrorCode.INVALID_CALENDAR));
+        BusinessException content = assertThrows(BusinessException.class,
+                () -> calendarImportService.importCalendar(1L, "ota", new StringReader("BEGIN:VEVENT\r\nnot a content line\r\n")));
+        assertThat(content.getErrorCode(), is(ErrorCode.INVALID_CALENDAR));
+        assertThat(calendarImportService.importCalendar(404L, "ota", new StringReader(calendar())).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should sync events that swap dates, and a chain of events each taking the next one's dates")
+    public void shouldSyncEventsThatSwapDates() {
+        importCalendar(calendar(
+                event("first", TODAY.plusDays(10), TODAY.plusDays(12)),
+                event("second", TODAY.plusDays(20), TODAY.plusDays(22)),
+                event("third", TODAY.plusDays(30), TODAY.plusDays(32)),
+                event("fourth", TODAY.plusDays(40), TODAY.plusDays(42))));
+
+        CalendarImportResult result = importCalendar(calendar(
+                event("first", TODAY.plusDays(20), TODAY.plusDays(22)),
+                event("second", TODAY.plusDays(10), TODAY.plusDays(12)),
+                event("third", TODAY.plusDays(40), TODAY.plusDays(42)),
+                event("fourth", TODAY.plusDays(50), TODAY.plusDays(52))));
+
+        assertThat(result, is(new CalendarImportResult(0, 4, 0, 0, 0)));
+        List<Block> blocks = blockRepository.findAll().stream().sorted(Comparator.comparing(Block::getStartDate)).toList();
+        assertThat(blocks.stream().map(block -> block.getStartDate() + "/" + block.getExternalUid()).toList(), contains(
+                TODAY.plusDays(10) + "/second", TODAY.plusDays(20) + "/first", TODAY.plusDays(40) + "/third",
+                TODAY.plusDays(50) + "/fourth"));
+        assertThat(importCalendar(calendar(
+                event("first", TODAY.plusDays(20), TODAY.plusDays(22)),
+                event("second", TODAY.plusDays(10), TODAY.plusDays(12)),
+                event("third", TODAY.plusDays(40), TODAY.plusDays(42)),
+                event("fourth", TODAY.plusDays(50), TODAY.plusDays(52)))), is(new CalendarImportResult(0, 0, 0, 4, 0)));
+    }
+
+    private CalendarImportResult importCalendar(String calendar) {
+        return calendarImportService.importCalendar(1L, "ota", new StringReader(calendar)).orElseThrow();
+    }
+
+    private long changeLogSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_log", Long.class);
+    }
+
+    private static String calendar(String... events) {
+        return "BEGIN:VCALENDAR\r\n" + String.join("", events) + "END:VCALENDAR\r\n";
+    }
+
+    private static String event(String uid, LocalDate start, LocalDate end) {
+        return "BEGIN:VEVENT\r\nUID:%s\r\nDTSTART;VALUE=DATE:%s\r\nDTEND;VALUE=DATE:%s\r\nEND:VEVENT\r\n"
+                .formatted(uid, start.format(DateTimeFormatter.BASIC_ISO_DATE), end.format(DateTimeFormatter.BASIC_ISO_DATE));
+    }
+}
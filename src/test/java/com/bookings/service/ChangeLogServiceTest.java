@@ -0,0 +1,136 @@
+package com.bookings.service;
+
+import com.bookings.config.NodeProperties;
+import com.bookings.models.*;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.ChangeLogCursorRepository;
+import com.bookings.repository.ChangeLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+class ChangeLogServiceTest {
+    @Autowired
+    ChangeLogService changeLogService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ChangeLogRepository changeLogRepository;
+    @Autowired
+    ChangeLogCursorRepository cursorRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    NodeProperties nodeProperties;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should append a change for every booking mutation")
+    public void shouldAppendAChangeForEveryBookingMutation() {
+        long lastId = changeLogRepository.findLastId();
+        Booking booking = bookingService.createBooking(newBooking());
+        bookingService.cancelBooking(booking.getId());
+        bookingService.deleteBooking(booking.getId());
+
+        List<ChangeLogEntry> entries = changeLogRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.unlimited());
+        assertThat(entries.stream().map(ChangeLogEntry::getOperation).toList(),
+                contains(Operation.CREATED, Operation.UPDATED, Operation.DELETED));
+        assertThat(entries, everyItem(hasProperty("entityId", is(booking.getId()))));
+        assertThat(entries, everyItem(hasProperty("propertyId", is(1L))));
+        assertThat(entries, everyItem(hasProperty("originNode", is(nodeProperties.getId()))));
+    }
+
+    @Test
+    @DisplayName("Should evict a cached booking changed by another node")
+    public void shouldEvictACachedBookingChangedByAnotherNode() {
+        Booking booking = bookingService.createBooking(newBooking());
+        assertThat(bookingService.getBooking(booking.getId()).orElseThrow().canceled(), is(false));
+
+        Booking changedElsewhere = bookingRepository.findById(booking.getId()).orElseThrow();
+        changedElsewhere.setCanceled(true);
+        bookingRepository.save(changedElsewhere);
+        assertThat(bookingService.getBooking(booking.getId()).orElseThrow().canceled(), is(false));
+
+        changeLogRepository.save(new ChangeLogEntry(EntityType.BOOKING, booking.getId(), 1L, Operation.UPDATED, "other-node"));
+        changeLogService.poll();
+        assertThat(bookingService.getBooking(booking.getId()).orElseThrow().canceled(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should store the cursor of the last applied change")
+    public void shouldStoreTheCursorOfTheLastAppliedChange() {
+        bookingService.createBooking(newBooking());
+        changeLogService.poll();
+        ChangeLogCursor cursor = cursorRepository.findById(nodeProperties.getId()).orElseThrow();
+        assertThat(cursor.getLastAppliedId(), is(changeLogRepository.findLastId()));
+    }
+
+    @Test
+    @DisplayName("Should append a change for every booking of a bulk cancellation and evict them from the cache")
+    public void shouldAppendAChangeForEveryBookingOfABulkCancellation() {
+        Booking first = bookingService.createBooking(newBooking());
+        Booking second = newBooking();
+        second.setCheckInDate(first.getCheckOutDate());
+        second.setCheckOutDate(first.getCheckOutDate().plusDays(2));
+        second = bookingService.createBooking(second);
+        assertThat(bookingService.getBooking(first.getId()).orElseThrow().canceled(), is(false));
+        long lastId = changeLogRepository.findLastId();
+
+        bookingService.cancelBookings(1L, LocalDate.now(), null);
+
+        List<ChangeLogEntry> entries = changeLogRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.unlimited());
+        assertThat(entries.stream().map(ChangeLogEntry::getEntityId).toList(), contains(first.getId(), second.getId()));
+        assertThat(entries, everyItem(hasProperty("operation", is(Operation.UPDATED))));
+        assertThat(entries, everyItem(hasProperty("entityType", is(EntityType.BOOKING))));
+        assertThat(entries, everyItem(hasProperty("originNode", is(nodeProperties.getId()))));
+        assertThat(bookingService.getBooking(first.getId()).orElseThrow().canceled(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should remove the cursors of nodes left behind by pruned entries")
+    public void shouldRemoveAbandonedCursors() {
+        Booking booking = bookingService.createBooking(newBooking());
+        changeLogService.poll();
+        long lastId = changeLogRepository.findLastId();
+        cursorRepository.save(new ChangeLogCursor("stopped-node", lastId));
+        changeLogRepository.deleteAllInBatch();
+        bookingService.cancelBooking(booking.getId());
+        bookingService.deleteBooking(booking.getId());
+        changeLogService.poll();
+        changeLogRepository.delete(changeLogRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(1)).get(0));
+
+        changeLogService.prune();
+
+        assertThat(cursorRepository.existsById("stopped-node"), is(false));
+        assertThat(cursorRepository.existsById(nodeProperties.getId()), is(true));
+    }
+
+    private Booking newBooking() {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L, new Owner(1L)));
+        booking.setCheckInDate(LocalDate.now().plusMonths(5));
+        booking.setCheckOutDate(LocalDate.now().plusMonths(5).plusDays(3));
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
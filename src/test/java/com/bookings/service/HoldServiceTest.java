@@ -0,0 +1,103 @@
+package com.bookings.service;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.exception.ErrorCode;
+import com.bookings.exception.PropertyUnavailableException;
+import com.bookings.models.*;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.HoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HoldServiceTest {
+    @Autowired
+    HoldService holdService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    HoldRepository holdRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+
+    private final LocalDate checkInDate = LocalDate.now().plusMonths(2);
+    private final LocalDate checkOutDate = checkInDate.plusDays(4);
+
+    @BeforeEach
+    public void cleanDB() {
+        holdRepository.deleteAll();
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should make held dates unavailable for bookings")
+    public void shouldMakeHeldDatesUnavailableForBookings() {
+        holdService.createHold(newHold(), Duration.ofMinutes(10));
+        assertThrowsExactly(PropertyUnavailableException.class, () -> bookingService.createBooking(newBooking()));
+        assertThrowsExactly(PropertyUnavailableException.class, () -> holdService.createHold(newHold(), Duration.ofMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("Should confirm a hold into a booking")
+    public void shouldConfirmAHoldIntoABooking() {
+        Hold hold = holdService.createHold(newHold(), Duration.ofMinutes(10));
+        Booking booking = bookingService.confirmHold(hold.getId(), new Guest("Paul", "Leroy", 22, "123456"));
+        assertThat(booking.getId(), is(notNullValue()));
+        assertThat(booking.getCheckInDate(), is(checkInDate));
+        assertThat(holdRepository.findById(hold.getId()).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should prevent confirming a hold that does not exist")
+    public void shouldPreventConfirmingAnUnknownHold() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> bookingService.confirmHold(-1L, new Guest("Paul", "Leroy", 22, "123456")));
+        assertThat(exception.getErrorCode(), is(ErrorCode.HOLD_EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Should release the dates and remove the hold once it expires")
+    public void shouldExpireAHold() throws InterruptedException {
+        Hold hold = holdService.createHold(newHold(), Duration.ofMillis(200));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (holdRepository.existsById(hold.getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(holdRepository.existsById(hold.getId()), is(false));
+        assertDoesNotThrow(() -> bookingService.createBooking(newBooking()));
+    }
+
+    @Test
+    @DisplayName("Should prevent a hold longer than the maximum duration")
+    public void shouldPreventAHoldLongerThanTheMaximumDuration() {
+        BusinessException exception = assertThrows(BusinessException.class, () -> holdService.createHold(newHold(), Duration.ofDays(1)));
+        assertThat(exception.getErrorCode(), is(ErrorCode.INVALID_HOLD_DURATION));
+    }
+
+    private Hold newHold() {
+        return new Hold(checkInDate, checkOutDate, new Property(1L, new Owner(1L)));
+    }
+
+    private Booking newBooking() {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
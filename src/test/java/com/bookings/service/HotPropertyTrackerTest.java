@@ -0,0 +1,41 @@
+package com.bookings.service;
+
+import com.bookings.config.AnalyticsProperties;
+import com.bookings.models.HotProperties;
+import com.bookings.models.HotProperties.HotProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+class HotPropertyTrackerTest {
+
+    @Test
+    @DisplayName("Should rank requested and rejected properties and decay their counts every window")
+    void shouldRankAndDecay() {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setHotPropertiesWindow(Duration.ofMinutes(1));
+        properties.setHotPropertiesDecay(0.5);
+        AtomicLong now = new AtomicLong();
+        HotPropertyTracker tracker = new HotPropertyTracker(properties, now::get);
+
+        for (int i = 0; i < 8; i++) {
+            tracker.requested(1L);
+        }
+        tracker.requested(2L);
+        tracker.rejected(1L);
+        HotProperties hot = tracker.top(5);
+        assertThat(hot.requested(), contains(new HotProperty(1L, 8, 0), new HotProperty(2L, 1, 0)));
+        assertThat(hot.rejected(), contains(new HotProperty(1L, 1, 0)));
+
+        now.addAndGet(Duration.ofMinutes(2).plusSeconds(30).toNanos());
+        for (int i = 0; i < 3; i++) {
+            tracker.requested(2L);
+        }
+        assertThat(tracker.top(1).requested(), contains(new HotProperty(2L, 3.25, 0)));
+    }
+}
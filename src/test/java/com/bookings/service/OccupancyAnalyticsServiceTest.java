@@ -0,0 +1,126 @@
+package com.bookings.service;
+
+import com.bookings.exception.BusinessException;
+import com.bookings.models.OccupancyReport;
+import com.bookings.models.OccupancyReport.GroupBy;
+import com.bookings.models.OccupancyReport.Stats;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:occupancy",
+        "bookings.analytics.rollup-enabled=false"
+})
+class OccupancyAnalyticsServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final AtomicLong IDS = new AtomicLong(1_000_000);
+
+    @Autowired
+    OccupancyAnalyticsService occupancyAnalyticsService;
+    @Autowired
+    OccupancyRollups occupancyRollups;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM bookings_archive");
+        jdbcTemplate.update("DELETE FROM occupancy_rollups");
+        jdbcTemplate.update("DELETE FROM rollup_watermarks");
+    }
+
+    @Test
+    @DisplayName("Should report booked, blocked and canceled nights per property grouped by owner")
+    public void shouldReportOccupancyGroupedByOwner() {
+        insertBooking(1L, TODAY.plusDays(10), TODAY.plusDays(14), false);
+        insertBooking(1L, TODAY.plusDays(20), TODAY.plusDays(22), true);
+        insertBooking(4L, TODAY.plusDays(5), TODAY.plusDays(45), false);
+        insertBlock(1L, TODAY.plusDays(30), TODAY.plusDays(31));
+
+        OccupancyReport report = occupancyAnalyticsService.report(TODAY, TODAY.plusDays(40), GroupBy.OWNER);
+
+        assertThat(report.groups().stream().map(OccupancyReport.Group::name).toList(), contains("Ramon", "Jimmy Leroy"));
+        OccupancyReport.Group ramon = report.groups().get(0);
+        assertThat(ramon.properties().stream().map(OccupancyReport.PropertyOccupancy::propertyId).toList(), contains(1L, 2L, 3L));
+        Stats house1 = ramon.properties().get(0).stats();
+        assertThat(house1, is(Stats.of(40, 4, 2, 2, 1)));
+        assertThat(house1.occupancyRate(), is(closeTo(4 / 38.0, 1e-9)));
+        assertThat(house1.cancellationRate(), is(0.5));
+        assertThat(ramon.stats(), is(Stats.of(120, 4, 2, 2, 1)));
+        assertThat(report.groups().get(1).properties().get(0).stats(), is(Stats.of(40, 35, 0, 1, 0)));
+    }
+
+    @Test
+    @DisplayName("Should report days that are over from the rollups once they are rolled up")
+    public void shouldReportRolledUpDaysFromTheRollups() {
+        insertBooking(2L, TODAY.minusDays(20), TODAY.minusDays(15), false);
+        insertBooking(2L, TODAY.minusDays(12), TODAY.minusDays(11), true);
+        insertBlock(2L, TODAY.minusDays(10), TODAY.minusDays(9));
+        insertBooking(2L, TODAY.minusDays(2), TODAY.plusDays(3), false);
+        OccupancyReport fromRawRows = occupancyAnalyticsService.report(TODAY.minusDays(30), TODAY.plusDays(10), GroupBy.MANAGER);
+
+        assertThat(occupancyRollups.rollUp(), is(20L));
+        assertThat(occupancyRollups.rollUp(), is(0L));
+        assertThat(occupancyAnalyticsService.report(TODAY.minusDays(30), TODAY.plusDays(10), GroupBy.MANAGER), is(fromRawRows));
+
+        jdbcTemplate.update("DELETE FROM bookings WHERE checkout_date < ?", TODAY);
+        jdbcTemplate.update("DELETE FROM blocks");
+        OccupancyReport report = occupancyAnalyticsService.report(TODAY.minusDays(30), TODAY.plusDays(10), GroupBy.MANAGER);
+        assertThat(report, is(fromRawRows));
+        assertThat(report.groups(), hasSize(1));
+        assertThat(report.groups().get(0).properties().get(1).stats(), is(Stats.of(40, 10, 2, 3, 1)));
+    }
+
+    @Test
+    @DisplayName("Should count a night covered by overlapping blocks once, before and after rolling it up")
+    public void shouldCountOverlappingBlocksOnce() {
+        insertBlock(3L, TODAY.minusDays(10), TODAY.minusDays(6));
+        insertBlock(3L, TODAY.minusDays(8), TODAY.minusDays(4));
+        insertBlock(3L, TODAY.plusDays(5), TODAY.plusDays(8));
+        insertBlock(3L, TODAY.plusDays(6), TODAY.plusDays(7));
+        insertBlock(3L, TODAY.plusDays(7), TODAY.plusDays(10));
+
+        OccupancyReport fromRawRows = occupancyAnalyticsService.report(TODAY.minusDays(30), TODAY.plusDays(30), GroupBy.OWNER);
+        assertThat(fromRawRows.groups().get(0).properties().get(2).stats(), is(Stats.of(60, 0, 13, 0, 0)));
+
+        occupancyRollups.rollUp();
+        assertThat(occupancyAnalyticsService.report(TODAY.minusDays(30), TODAY.plusDays(30), GroupBy.OWNER), is(fromRawRows));
+    }
+
+    @Test
+    @DisplayName("Should reject a period that ends before it starts")
+    public void shouldRejectAnEmptyPeriod() {
+        assertThrows(BusinessException.class, () -> occupancyAnalyticsService.report(TODAY, TODAY, GroupBy.OWNER));
+    }
+
+    private void insertBooking(long propertyId, LocalDate checkInDate, LocalDate checkOutDate, boolean canceled) {
+        jdbcTemplate.update("""
+                INSERT INTO bookings (id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name,
+                                      guest_age, guest_social_security_id, canceled)
+                VALUES (?, ?, ?, ?, 'Paul', 'Leroy', 22, '123456', ?)""", IDS.incrementAndGet(), checkInDate, checkOutDate, propertyId, canceled);
+    }
+
+    private void insertBlock(long propertyId, LocalDate startDate, LocalDate endDate) {
+        jdbcTemplate.update("INSERT INTO blocks (id, start_date, end_date, property_id) VALUES (?, ?, ?, ?)",
+                IDS.incrementAndGet(), startDate, endDate, propertyId);
+    }
+}
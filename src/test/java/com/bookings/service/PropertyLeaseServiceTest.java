@@ -0,0 +1,131 @@
+package com.bookings.service;
+
+import com.bookings.BookingsApplication;
+import com.bookings.exception.PropertyUnavailableException;
+import com.bookings.models.Booking;
+import com.bookings.models.Guest;
+import com.bookings.models.Owner;
+import com.bookings.models.Property;
+import com.bookings.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs two application instances against one file-based H2 database, the way two nodes share a database in
+ * production, so their in-JVM state is completely separate.
+ */
+class PropertyLeaseServiceTest {
+    private static final Path DATABASE_DIRECTORY = Path.of("target", "lease-test-" + UUID.randomUUID());
+    private static final String DATABASE_URL = "jdbc:h2:file:./%s/bookings".formatted(DATABASE_DIRECTORY);
+
+    static ConfigurableApplicationContext nodeA;
+    static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a", "create-drop", "always");
+        nodeB = startNode("node-b", "none", "never");
+    }
+
+    @AfterAll
+    static void stopNodes() throws IOException {
+        nodeB.close();
+        nodeA.close();
+        FileSystemUtils.deleteRecursively(DATABASE_DIRECTORY);
+    }
+
+    @Test
+    @DisplayName("Should let only one of two instances book overlapping dates")
+    public void shouldPreventOverlappingBookingsAcrossInstances() throws Exception {
+        BookingService bookingsOnA = nodeA.getBean(BookingService.class);
+        BookingService bookingsOnB = nodeB.getBean(BookingService.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                LocalDate checkInDate = LocalDate.now().plusMonths(3).plusDays(round * 10L);
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Boolean> onA = executor.submit(() -> tryBooking(bookingsOnA, start, checkInDate, checkInDate.plusDays(5)));
+                Future<Boolean> onB = executor.submit(() -> tryBooking(bookingsOnB, start, checkInDate.plusDays(2), checkInDate.plusDays(7)));
+                assertThat("round " + round, onA.get(10, TimeUnit.SECONDS) ^ onB.get(10, TimeUnit.SECONDS), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        List<Booking> bookings = nodeA.getBean(BookingRepository.class).findAll();
+        assertThat(bookings, hasSize(20));
+    }
+
+    @Test
+    @DisplayName("Should count taking over a lease left behind by another instance")
+    public void shouldCountAStolenLease() throws InterruptedException {
+        PropertyLeaseService leasesOnA = nodeA.getBean(PropertyLeaseService.class);
+        PropertyLeaseService leasesOnB = nodeB.getBean(PropertyLeaseService.class);
+        double stealsBefore = nodeB.getBean(MeterRegistry.class).counter("bookings.lease.steals").count();
+
+        PropertyLeaseService.Lease abandoned = leasesOnA.tryAcquire(6L).orElseThrow();
+        assertThat(leasesOnB.tryAcquire(6L).isPresent(), is(false));
+
+        Thread.sleep(Duration.ofMillis(1_200).toMillis());
+        PropertyLeaseService.Lease taken = leasesOnB.tryAcquire(6L).orElseThrow();
+        assertThat(taken.fencingToken(), is(greaterThan(abandoned.fencingToken())));
+        assertThat(taken.previousOwner(), is("node-a"));
+        assertThat(nodeB.getBean(MeterRegistry.class).counter("bookings.lease.steals").count(), is(stealsBefore + 1));
+        leasesOnB.release(taken);
+    }
+
+    @Test
+    @DisplayName("Should not hand a held lease to another acquisition by the same instance")
+    public void shouldNotReacquireAHeldLease() {
+        PropertyLeaseService leasesOnA = nodeA.getBean(PropertyLeaseService.class);
+
+        PropertyLeaseService.Lease held = leasesOnA.tryAcquire(7L).orElseThrow();
+        assertThat(leasesOnA.tryAcquire(7L).isPresent(), is(false));
+        leasesOnA.release(held);
+        leasesOnA.release(leasesOnA.tryAcquire(7L).orElseThrow());
+    }
+
+    private static boolean tryBooking(BookingService bookingService, CyclicBarrier start,
+                                      LocalDate checkInDate, LocalDate checkOutDate) throws Exception {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        start.await(5, TimeUnit.SECONDS);
+        try {
+            bookingService.createBooking(booking);
+            return true;
+        } catch (PropertyUnavailableException e) {
+            return false;
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String ddlAuto, String sqlInitMode) {
+        return new SpringApplicationBuilder(BookingsApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + DATABASE_URL,
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.sql.init.mode=" + sqlInitMode,
+                "--spring.jpa.show-sql=false",
+                "--bookings.node.id=" + nodeId,
+                "--bookings.leases.ttl=1s",
+                "--bookings.leases.acquire-timeout=5s");
+    }
+}
@@ -0,0 +1,159 @@
+package com.bookings.service;
+
+import com.bookings.config.SearchProperties;
+import com.bookings.exception.BusinessException;
+import com.bookings.models.*;
+import com.bookings.models.ChangeLogEntry.EntityType;
+import com.bookings.models.ChangeLogEntry.Operation;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.repository.ViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:property-search")
+class PropertySearchServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    PropertySearchService propertySearchService;
+    @Autowired
+    AvailabilityService availabilityService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ViewRepository viewRepository;
+    @Autowired
+    ForkJoinPool searchPool;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+        // Deleting through the repositories writes no change log entry, so drop the cached timelines by hand.
+        LongStream.rangeClosed(1, 6).forEach(propertyId ->
+                availabilityService.onChange(new ChangeLogEntry(EntityType.BOOKING, 0L, propertyId, Operation.DELETED, "test")));
+    }
+
+    @Test
+    @DisplayName("Should find the owner's properties free for the exact stay")
+    public void shouldFindTheOwnersPropertiesFreeForTheExactStay() {
+        bookingService.createBooking(booking(1L, TODAY.plusDays(10), TODAY.plusDays(12)));
+
+        PropertySearchResult result = propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, 1L, null, 10);
+        assertThat(result.matches().stream().map(PropertyMatch::propertyId).toList(), contains(2L, 3L));
+        assertThat(result.matches().stream().map(PropertyMatch::shiftDays).toList(), everyItem(is(0)));
+        assertThat(result.complete(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should rank stays shifted within the flexibility by length, then by shift")
+    public void shouldRankShiftedStays() {
+        bookingService.createBooking(booking(1L, TODAY.plusDays(10), TODAY.plusDays(12)));
+        bookingService.createBooking(booking(2L, TODAY.plusDays(13), TODAY.plusDays(20)));
+        bookingService.createBooking(booking(3L, TODAY.plusDays(12), TODAY.plusDays(13)));
+
+        PropertySearchResult result = propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 2, 2, 1L, null, 10);
+        assertThat(result.matches(), contains(
+                new PropertyMatch(2L, "Fancy House 2", TODAY.plusDays(9), TODAY.plusDays(13), -1, 4),
+                new PropertyMatch(3L, "Fancy House 3", TODAY.plusDays(8), TODAY.plusDays(12), -2, 4),
+                new PropertyMatch(1L, "Fancy House 1", TODAY.plusDays(12), TODAY.plusDays(16), 2, 4)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to shorter stays of at least the minimum nights")
+    public void shouldFallBackToShorterStays() {
+        bookingService.createBooking(booking(4L, TODAY.plusDays(13), TODAY.plusDays(20)));
+
+        PropertySearchResult result = propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, 2, 2L, null, 1);
+        assertThat(result.matches(), contains(new PropertyMatch(5L, "Fancy Beach House 2", TODAY.plusDays(10), TODAY.plusDays(14), 0, 4)));
+
+        result = propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, 2, 2L, null, 10);
+        assertThat(result.matches(), hasItem(new PropertyMatch(4L, "Fancy Beach House 1", TODAY.plusDays(10), TODAY.plusDays(13), 0, 3)));
+        assertThat(result.matches().get(result.matches().size() - 1).propertyId(), is(4L));
+    }
+
+    @Test
+    @DisplayName("Should return an incomplete result once the CPU budget is spent")
+    public void shouldStopOnceTheCpuBudgetIsSpent() {
+        SearchProperties properties = new SearchProperties();
+        properties.setCpuBudget(Duration.ZERO);
+        var exhausted = new PropertySearchService(viewRepository, availabilityService, searchPool, properties);
+
+        PropertySearchResult result = exhausted.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, null, null, 10);
+        assertThat(result.complete(), is(false));
+        assertThat(result.matches(), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Should return an incomplete result once the time budget has elapsed")
+    public void shouldStopOnceTheTimeBudgetHasElapsed() {
+        SearchProperties properties = new SearchProperties();
+        properties.setTimeBudget(Duration.ZERO);
+        var exhausted = new PropertySearchService(viewRepository, availabilityService, searchPool, properties);
+
+        PropertySearchResult result = exhausted.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, null, null, 10);
+        assertThat(result.complete(), is(false));
+        assertThat(result.matches(), is(empty()));
+    }
+
+    @Test
+    @DisplayName("Should skip properties whose timeline is not in memory once the loads are used up")
+    public void shouldSkipUncachedTimelinesPastTheLoadLimit() {
+        SearchProperties properties = new SearchProperties();
+        properties.setMaxTimelineLoads(2);
+        var limited = new PropertySearchService(viewRepository, availabilityService, searchPool, properties);
+
+        PropertySearchResult cold = limited.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, 1L, null, 10);
+        assertThat(cold.matches(), hasSize(2));
+        assertThat(cold.complete(), is(false));
+
+        PropertySearchResult warm = propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, 1L, null, 10);
+        assertThat(limited.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, 1L, null, 10), is(warm));
+        assertThat(warm.complete(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should search at most the maximum number of candidates")
+    public void shouldSearchAtMostTheMaximumCandidates() {
+        SearchProperties properties = new SearchProperties();
+        properties.setMaxCandidates(2);
+        var limited = new PropertySearchService(viewRepository, availabilityService, searchPool, properties);
+
+        PropertySearchResult result = limited.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, null, 1L, null, 10);
+        assertThat(result.matches().stream().map(PropertyMatch::propertyId).toList(), contains(1L, 2L));
+        assertThat(result.complete(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should reject a minimum longer than the stay")
+    public void shouldRejectAMinimumLongerThanTheStay() {
+        assertThrows(BusinessException.class,
+                () -> propertySearchService.search(TODAY.plusDays(10), TODAY.plusDays(14), 0, 5, null, null, 10));
+    }
+
+    private static Booking booking(Long propertyId, LocalDate checkInDate, LocalDate checkOutDate) {
+        var booking = new Booking();
+        booking.setProperty(new Property(propertyId, new Owner(1L)));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bookings.service;
+
+import com.bookings.models.*;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:property-detail")
+class PropertyServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    PropertyService propertyService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+    @Autowired
+    StatementCounter statementCounter;
+
+    @BeforeEach
+    public void cleanDB() {
+        bookingRepository.deleteAll();
+        blockRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should read a property with its owner, manager and upcoming calendar")
+    public void shouldReadAPropertyWithItsCalendar() {
+        Booking upcomingBooking = booking(TODAY.plusDays(10), TODAY.plusDays(12));
+        Booking canceledBooking = booking(TODAY.plusDays(20), TODAY.plusDays(22));
+        canceledBooking.setCanceled(true);
+        bookingRepository.saveAll(List.of(upcomingBooking, canceledBooking));
+        blockRepository.save(new Block(TODAY.plusDays(30), TODAY.plusDays(31), new Property(1L)));
+
+        PropertyDetail detail = propertyService.getProperty(1L, TODAY, 10).orElseThrow();
+        assertThat(detail.property(), is(new PropertyView(1L, "Fancy House 1", 1L, "Ramon", 1L, "John Coffey ")));
+        assertThat(detail.upcomingBookings().stream().map(BookingView::id).toList(), contains(upcomingBooking.getId()));
+        assertThat(detail.upcomingBlocks().stream().map(BlockView::startDate).toList(), contains(TODAY.plusDays(30)));
+        assertThat(detail.moreBookings(), is(false));
+        assertThat(propertyService.getProperty(404L, TODAY, 10).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should run the same three statements however many bookings and blocks the property has")
+    public void shouldRunAFixedNumberOfStatements() {
+        int emptyCalendar = statementCounter.count(() -> propertyService.getProperty(1L, TODAY, 10));
+
+        bookingRepository.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> booking(TODAY.plusDays(10 + i * 3L), TODAY.plusDays(12 + i * 3L))).toList());
+        blockRepository.saveAll(IntStream.range(0, 15)
+                .mapToObj(i -> new Block(TODAY.plusDays(200 + i * 3L), TODAY.plusDays(201 + i * 3L), new Property(1L))).toList());
+        int fullCalendar = statementCounter.count(() -> {
+            PropertyDetail detail = propertyService.getProperty(1L, TODAY, 10).orElseThrow();
+            assertThat(detail.upcomingBookings(), hasSize(10));
+            assertThat(detail.moreBookings(), is(true));
+            assertThat(detail.upcomingBlocks(), hasSize(10));
+            assertThat(detail.moreBlocks(), is(true));
+            return detail;
+        });
+
+        assertThat(emptyCalendar, is(3));
+        assertThat(fullCalendar, is(emptyCalendar));
+    }
+
+    private static Booking booking(LocalDate checkInDate, LocalDate checkOutDate) {
+        var booking = new Booking();
+        booking.setProperty(new Property(1L));
+        booking.setCheckInDate(checkInDate);
+        booking.setCheckOutDate(checkOutDate);
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource") ? new StatementCounter(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the statements the calling thread prepares or creates while it runs an action, leaving out the
+     * background work of other threads.
+     */
+    static class StatementCounter extends DelegatingDataSource {
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile Thread countedThread;
+
+        StatementCounter(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        int count(Supplier<?> action) {
+            statements.set(0);
+            countedThread = Thread.currentThread();
+            try {
+                action.get();
+            } finally {
+                countedThread = null;
+            }
+            return statements.get();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if ((method.getName().startsWith("prepare") || method.getName().equals("createStatement"))
+                        && Thread.currentThread() == countedThread) {
+                    statements.incrementAndGet();
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
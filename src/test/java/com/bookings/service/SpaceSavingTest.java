@@ -0,0 +1,67 @@
+package com.bookings.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Should count exactly while there are fewer keys than counters")
+    void shouldCountExactlyBelowCapacity() {
+        SpaceSaving sketch = new SpaceSaving(4);
+        for (int i = 0; i < 5; i++) {
+            sketch.offer(1, 1);
+        }
+        sketch.offer(2, 1);
+        sketch.offer(2, 1);
+        sketch.offer(3, 1);
+
+        assertThat(sketch.top(2), contains(new SpaceSaving.Counter(1, 5, 0), new SpaceSaving.Counter(2, 2, 0)));
+    }
+
+    @Test
+    @DisplayName("Should keep the heavy hitters of a long tail within fixed counters")
+    void shouldKeepTheHeavyHitters() {
+        SpaceSaving sketch = new SpaceSaving(16);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Half of the traffic goes to three keys, the rest is spread over ten thousand.
+            long key = random.nextBoolean() ? random.nextInt(3) : 100 + random.nextInt(10_000);
+            sketch.offer(key, 1);
+        }
+
+        List<SpaceSaving.Counter> top = sketch.top(3);
+        assertThat(top.stream().map(SpaceSaving.Counter::key).toList(), containsInAnyOrder(0L, 1L, 2L));
+        assertThat(top.stream().map(SpaceSaving.Counter::count).toList(), everyItem(greaterThan(15_000.0)));
+        assertThat(sketch.top(100), hasSize(16));
+    }
+
+    @Test
+    @DisplayName("Should let a new key take over the smallest counter with its count as error")
+    void shouldReplaceTheSmallestCounter() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.offer(1, 3);
+        sketch.offer(2, 1);
+        sketch.offer(3, 1);
+
+        assertThat(sketch.top(2), contains(new SpaceSaving.Counter(1, 3, 0), new SpaceSaving.Counter(3, 2, 1)));
+    }
+
+    @Test
+    @DisplayName("Should scale every count when decayed")
+    void shouldDecay() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.offer(1, 8);
+        sketch.offer(2, 4);
+        sketch.decay(0.5);
+        sketch.offer(2, 3);
+
+        assertThat(sketch.top(2), contains(new SpaceSaving.Counter(2, 5, 0), new SpaceSaving.Counter(1, 4, 0)));
+    }
+}
@@ -0,0 +1,213 @@
+package com.bookings.sharding;
+
+import com.bookings.concurrency.Lane;
+import com.bookings.concurrency.LaneScheduler;
+import com.bookings.concurrency.TaskPriority;
+import com.bookings.datasource.ShardContext;
+import com.bookings.exception.PropertyUnavailableException;
+import com.bookings.exception.ServiceOverloadedException;
+import com.bookings.models.*;
+import com.bookings.repository.BlockRepository;
+import com.bookings.repository.BookingRepository;
+import com.bookings.service.BlockService;
+import com.bookings.service.BookingService;
+import com.bookings.service.PropertyLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs against three embedded H2 databases, so every property of {@code data.sql} is placed on one of them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0",
+        "bookings.sharding.shards[0].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1",
+        "bookings.sharding.shards[0].username=sa",
+        "bookings.sharding.shards[1].url=jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1",
+        "bookings.sharding.shards[1].username=sa"
+})
+class ShardingTest {
+    @Autowired
+    Shards shards;
+    @Autowired
+    ShardRebalancer rebalancer;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BlockService blockService;
+    @Autowired
+    PropertyLeaseService propertyLeaseService;
+    @Autowired
+    ShardInitializer shardInitializer;
+    @Autowired
+    LaneScheduler laneScheduler;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    BlockRepository blockRepository;
+
+    @BeforeEach
+    public void cleanDB() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            shards.onShard(shard, () -> {
+                bookingRepository.deleteAll();
+                blockRepository.deleteAll();
+                jdbcTemplate.update("DELETE FROM bookings_archive");
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Should store bookings and blocks on their property's shard with ids unique across shards")
+    public void shouldStoreRowsOnTheirPropertyShard() {
+        List<Booking> bookings = LongStream.rangeClosed(1, 6).mapToObj(propertyId -> bookingService.createBooking(newBooking(propertyId, 0))).toList();
+        Block block = blockService.createBlock(newBlock(5L));
+
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int expectedShard = shard;
+            List<Long> propertyIds = shards.onShard(shard, () -> bookingRepository.findAll().stream().map(Booking::getPropertyId).toList());
+            assertThat(propertyIds, hasSize(2));
+            assertThat(propertyIds, everyItem(is(in(LongStream.rangeClosed(1, 6).boxed().filter(id -> id % 3 == expectedShard).toList()))));
+        }
+        assertThat(shards.onShard(shards.shardFor(5L), () -> blockRepository.existsById(block.getId())), is(true));
+        Set<Long> ids = new HashSet<>(bookings.stream().map(Booking::getId).toList());
+        assertThat(ids, hasSize(6));
+    }
+
+    @Test
+    @DisplayName("Should find, cancel and delete a booking by id on whichever shard holds it")
+    public void shouldGatherBookingsAcrossShards() {
+        Booking booking = bookingService.createBooking(newBooking(2L, 1));
+        assertThat(shards.shardFor(2L), is(2));
+        assertThat(bookingService.getBooking(booking.getId()).orElseThrow().propertyId(), is(2L));
+
+        bookingService.cancelBooking(booking.getId());
+        assertThat(shards.onShard(2, () -> bookingRepository.findById(booking.getId())).orElseThrow().isCanceled(), is(true));
+
+        bookingService.deleteBooking(booking.getId());
+        assertThat(shards.findFirst(() -> bookingRepository.findById(booking.getId())).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("Should reject an overlapping booking on the property's shard")
+    public void shouldRejectOverlappingBookingsOnAShard() {
+        bookingService.createBooking(newBooking(4L, 2));
+        assertThrows(PropertyUnavailableException.class, () -> bookingService.createBooking(newBooking(4L, 2)));
+    }
+
+    @Test
+    @DisplayName("Should move a property with its rows and fence writers still routed to the old shard")
+    public void shouldMoveAProperty() {
+        Booking booking = bookingService.createBooking(newBooking(6L, 3));
+        Block block = blockService.createBlock(newBlock(6L));
+        assertThat(shards.shardFor(6L), is(0));
+        shards.onShard(0, () -> jdbcTemplate.update("""
+                INSERT INTO bookings_archive (id, checkin_date, checkout_date, property_id, guest_first_name, guest_last_name,
+                        guest_age, guest_social_security_id, canceled, archived_at)
+                VALUES (-1, DATE '2020-01-01', DATE '2020-01-03', 6, 'Paul', 'Leroy', 22, '123456', FALSE, LOCALTIMESTAMP)"""));
+
+        ShardRebalancer.Move move = rebalancer.moveProperty(6L, 1);
+
+        assertThat(move, is(new ShardRebalancer.Move(6L, 0, 1)));
+        assertThat(shards.shardFor(6L), is(1));
+        assertThat(shards.onShard(1, () -> bookingRepository.existsById(booking.getId())), is(true));
+        assertThat(shards.onShard(1, () -> blockRepository.existsById(block.getId())), is(true));
+        assertThat(shards.onShard(0, () -> bookingRepository.existsById(booking.getId())), is(false));
+        assertThat(shards.onShard(1, () -> archivedBookings(6L)), is(1));
+        assertThat(shards.onShard(0, () -> archivedBookings(6L)), is(0));
+        assertThat(shards.onShard(0, () -> propertyLeaseService.movedTo(6L)), is(java.util.Optional.of(1)));
+        assertThrows(ServiceOverloadedException.class, () -> ShardContext.call(0, () -> propertyLeaseService.acquire(6L)));
+
+        assertThrows(PropertyUnavailableException.class, () -> bookingService.createBooking(newBooking(6L, 3)));
+        rebalancer.moveProperty(6L, 0);
+        assertThat(shards.shardFor(6L), is(0));
+        assertThat(bookingService.getBooking(booking.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    @DisplayName("Should rebalance by moving properties off the busiest shard")
+    public void shouldRebalance() {
+        for (int month = 0; month < 4; month++) {
+            bookingService.createBooking(newBooking(3L, month));
+        }
+        bookingService.createBooking(newBooking(1L, 0));
+        bookingService.createBooking(newBooking(2L, 0));
+        bookingService.createBooking(newBooking(6L, 0));
+
+        List<ShardRebalancer.Move> moves = rebalancer.rebalance();
+
+        assertThat(moves, contains(new ShardRebalancer.Move(6L, 0, 1)));
+        assertThat(rebalancer.loads().stream().map(ShardRebalancer.ShardLoad::bookings).toList(), contains(4L, 2L, 1L));
+        rebalancer.moveProperty(6L, 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the schema, data and id sequences of a shard that is already initialized")
+    public void shouldNotReinitializeAnExistingShard() {
+        Booking before = bookingService.createBooking(newBooking(1L, 0));
+        assertThat(shards.shardFor(1L), is(1));
+
+        shardInitializer.afterSingletonsInstantiated();
+
+        assertThat(shards.onShard(1, () -> bookingRepository.existsById(before.getId())), is(true));
+        Booking after = bookingService.createBooking(newBooking(1L, 1));
+        assertThat(after.getId(), is(greaterThan(before.getId())));
+    }
+
+    @Test
+    @DisplayName("Should finish a scatter from bulk jobs that hold every bulk lane thread")
+    public void shouldScatterFromBulkJobsHoldingTheBulkLane() throws Exception {
+        int threads = laneScheduler.executor(Lane.BULK).getThreads();
+        CyclicBarrier allRunning = new CyclicBarrier(threads);
+        List<CompletableFuture<List<Integer>>> jobs = IntStream.range(0, threads)
+                .mapToObj(i -> laneScheduler.submit(Lane.BULK, TaskPriority.LOW, () -> {
+                    allRunning.await(5, TimeUnit.SECONDS);
+                    return shards.scatter(Lane.BULK, ShardContext::current);
+                }))
+                .toList();
+
+        for (CompletableFuture<List<Integer>> job : jobs) {
+            assertThat(job.get(5, TimeUnit.SECONDS), contains(0, 1, 2));
+        }
+    }
+
+    private int archivedBookings(Long propertyId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_archive WHERE property_id = ?", Integer.class, propertyId);
+    }
+
+    private static Booking newBooking(Long propertyId, int month) {
+        var booking = new Booking();
+        booking.setProperty(new Property(propertyId, new Owner(1L)));
+        booking.setCheckInDate(LocalDate.now().plusMonths(6 + month));
+        booking.setCheckOutDate(booking.getCheckInDate().plusDays(3));
+        booking.setGuest(new Guest("Paul", "Leroy", 22, "123456"));
+        return booking;
+    }
+
+    private static Block newBlock(Long propertyId) {
+        var block = new Block();
+        block.setPropertyId(propertyId);
+        block.setStartDate(LocalDate.now().plusMonths(10));
+        block.setEndDate(LocalDate.now().plusMonths(10).plusDays(2));
+        return block;
+    }
+}